@@ -0,0 +1,43 @@
+package com.example.week2.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// ベンチマークの起動クラス
+// GCプロファイラ（gc.alloc.rate.norm など）を付け、結果を JSON で書き出す
+//
+//   mvn -pl exercises/week2-stream-api-benchmarks -am package
+//   java -jar exercises/week2-stream-api-benchmarks/target/benchmarks.jar \
+//       -rff target/jmh-$(git rev-parse --short HEAD).json StreamKnockout03
+//
+// JMH の通常のコマンドラインオプション（-p size=1000,100000 など）はそのまま使える
+// コミットごとの JSON を並べれば回帰を比較できる
+public class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+    // 各ベンチマークのデータは SyntheticData でこのシードから作る（同じパラメータなら毎回同じデータ）
+    static final long SEED = 20240101L;
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.week2.benchmark;
+
+import com.example.week2.day2.CollectorsDrill;
+import com.example.week2.day2.Product;
+import com.example.week2.knockout.SyntheticData;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// CollectorsDrill の各メソッドを データ件数 × カテゴリの偏り ごとに計測する
+// 商品は SyntheticData の注文から作る（注文の商品名をカテゴリ、単価を価格にする）
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--enable-preview" })
+public class CollectorsDrillBenchmark {
+
+    private static final String[] CATEGORIES = { "Electronics", "Books", "Food", "Toys", "Garden", "Sports" };
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int size;
+
+    // カテゴリの Zipf 指数（0 で一様）
+    @Param({ "0", "1.2" })
+    public double productSkew;
+
+    private final CollectorsDrill drill = new CollectorsDrill();
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        products = products(size, productSkew);
+    }
+
+    static List<Product> products(int size, double skew) {
+        return new SyntheticData(BenchmarkRunner.SEED)
+                .products(CATEGORIES)
+                .productSkew(skew)
+                .orders(size, 1)
+                .map(order -> new Product(order.getId(), "Product" + order.getId(), order.getProduct(), order.getPrice()))
+                .toList();
+    }
+
+    @Benchmark
+    public Object groupByCategory() {
+        return drill.groupByCategory(products);
+    }
+
+    @Benchmark
+    public Object joinProductNames() {
+        return drill.joinProductNames(products);
+    }
+
+    @Benchmark
+    public Object countByCategory() {
+        return drill.countByCategory(products);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.week2.benchmark;
+
+import com.example.week2.day2.Product;
+import com.example.week2.knockout.FastCollectors;
+import com.example.week2.knockout.Order;
+import com.example.week2.knockout.SyntheticData;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// FastCollectors と Collectors の同じ集計を 件数 × 偏り × 逐次/並列 ごとに比べる
+// jdk* と fast* が対になっている（結果の Map の中身は同じ）
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--enable-preview" })
+public class FastCollectorsBenchmark {
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int size;
+
+    // SyntheticData の商品の Zipf 指数（0 で一様）
+    @Param({ "0", "1.2" })
+    public double productSkew;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private List<Product> products;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        products = CollectorsDrillBenchmark.products(size, productSkew);
+        orders = new SyntheticData(BenchmarkRunner.SEED).productSkew(productSkew)
+                .orders(size, Math.max(10, size / 10)).toList();
+    }
+
+    // CollectorsDrill.countByCategory
+
+    @Benchmark
+    public Object jdkCountByCategory() {
+        return stream(products).collect(Collectors.groupingBy(Product::getCategory, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Object fastCountByCategory() {
+        return stream(products).collect(FastCollectors.groupingByCounting(Product::getCategory));
+    }
+
+    // StreamKnockout03 Problem 22（キーが long）
+
+    @Benchmark
+    public Object jdkAmountByEmployee() {
+        return stream(orders).collect(Collectors.groupingBy(Order::getEmployeeId,
+                Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())));
+    }
+
+    @Benchmark
+    public Object fastAmountByEmployee() {
+        return stream(orders).collect(FastCollectors.groupingByLongSummingDouble(Order::getEmployeeId,
+                order -> order.getPrice() * order.getQuantity()));
+    }
+
+    @Benchmark
+    public Object adderAmountByEmployee() {
+        return stream(orders).collect(FastCollectors.groupingBySummingDouble(Order::getEmployeeId,
+                order -> order.getPrice() * order.getQuantity()));
+    }
+
+    // StreamKnockout03 Problem 24
+
+    @Benchmark
+    public Object jdkQuantityByProduct() {
+        return stream(orders).collect(Collectors.groupingBy(Order::getProduct, Collectors.summingLong(Order::getQuantity)));
+    }
+
+    @Benchmark
+    public Object fastQuantityByProduct() {
+        return stream(orders).collect(FastCollectors.groupingBySummingLong(Order::getProduct, Order::getQuantity));
+    }
+
+    // StreamKnockout03 Problem 29
+
+    @Benchmark
+    public Object jdkCountByOrderDate() {
+        return stream(orders).collect(Collectors.groupingBy(Order::getOrderDate, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Object fastCountByOrderDate() {
+        return stream(orders).collect(FastCollectors.groupingByLongCounting(
+                order -> order.getOrderDate().toEpochDay(), LocalDate::ofEpochDay));
+    }
+
+    private <T> Stream<T> stream(Collection<T> source) {
+        return parallel ? source.parallelStream() : source.stream();
+    }
+}
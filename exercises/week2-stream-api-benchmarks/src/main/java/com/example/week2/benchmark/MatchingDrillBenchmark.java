@@ -0,0 +1,67 @@
+package com.example.week2.benchmark;
+
+import com.example.week2.day3.MatchingDrill;
+import com.example.week2.day3.User;
+import com.example.week2.knockout.SyntheticData;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// MatchingDrill の各メソッドを データ件数ごとに計測する
+// ユーザーは SyntheticData の従業員から作る（22歳以上、"Operations" 以外の部門）
+// 20歳未満のユーザーと "Operations" のユーザーは末尾に1件だけ置くので、短絡評価が効かない最悪ケースになる
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--enable-preview" })
+public class MatchingDrillBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int size;
+
+    private final MatchingDrill drill = new MatchingDrill();
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        users = new ArrayList<>(new SyntheticData(BenchmarkRunner.SEED)
+                .departments("Engineering", "Sales", "HR", "Marketing", "Finance", "Support", "Legal")
+                .employees(size - 1)
+                .map(e -> new User(e.getId(), e.getName(), e.getAge(), e.getDepartment()))
+                .toList());
+        users.add(new User((long) size, "User" + size, 18, "Operations"));
+    }
+
+    @Benchmark
+    public boolean hasUnderage() {
+        return drill.hasUnderage(users);
+    }
+
+    @Benchmark
+    public boolean areAllInDepartment() {
+        return drill.areAllInDepartment(users, "Engineering");
+    }
+
+    @Benchmark
+    public Object findYoungestUser() {
+        return drill.findYoungestUser(users);
+    }
+
+    @Benchmark
+    public Object findFirstUserInDepartment() {
+        return drill.findFirstUserInDepartment(users, "Operations");
+    }
+}
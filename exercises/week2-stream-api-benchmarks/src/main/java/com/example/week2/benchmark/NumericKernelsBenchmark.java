@@ -0,0 +1,109 @@
+package com.example.week2.benchmark;
+
+import com.example.week2.knockout.Employee;
+import com.example.week2.knockout.NumericKernels;
+import com.example.week2.knockout.Order;
+import com.example.week2.knockout.SyntheticData;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// NumericKernels の SIMD 版・スカラー版と DoubleStream を比べる
+// 同じ jar を x86（AVX2 / AVX-512）と ARM（NEON / SVE）の Linux で動かし、kernels ごとの差を見るためのもの
+// 計測済みなのは 1 vCPU の x86 での size=10000、fork 1回の短い実行だけ。
+// ARM での実行と size=1000000 / 10000000 の比較はまだ行っていない（結果はない）
+//   java -jar target/benchmarks.jar NumericKernels -rff target/jmh-$(uname -m).json
+// メモリが 8GB 未満のマシンでは fork の引数ごと上書きする（--enable-preview と --add-modules は残す）
+//   java -jar target/benchmarks.jar NumericKernels -p size=10000 \
+//       -jvmArgsAppend "-Xms1g -Xmx1g --enable-preview --add-modules jdk.incubator.vector"
+// kernels=best は実行環境で選ばれた方（fork に --add-modules jdk.incubator.vector を付けているので SIMD 版）
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--enable-preview", "--add-modules", "jdk.incubator.vector" })
+public class NumericKernelsBenchmark {
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int size;
+
+    @Param({ "best", "scalar" })
+    public String kernels;
+
+    private NumericKernels target;
+    private double[] salaries;
+    private int[] ages;
+    private double[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        target = kernels.equals("scalar") ? NumericKernels.scalar() : NumericKernels.best();
+        SyntheticData data = new SyntheticData(BenchmarkRunner.SEED);
+        List<Employee> employees = data.employees(size).toList();
+        salaries = employees.stream().mapToDouble(Employee::getSalary).toArray();
+        ages = employees.stream().mapToInt(Employee::getAge).toArray();
+        List<Order> orders = data.orders(size, Math.max(10, size / 10)).toList();
+        prices = orders.stream().mapToDouble(Order::getPrice).toArray();
+        quantities = orders.stream().mapToInt(Order::getQuantity).toArray();
+    }
+
+    // StreamKnockout02 Problem 11
+
+    @Benchmark
+    public double streamSum() {
+        return Arrays.stream(salaries).sum();
+    }
+
+    @Benchmark
+    public double kernelSum() {
+        return target.sum(salaries);
+    }
+
+    // StreamKnockout03 Problem 21
+
+    @Benchmark
+    public double streamSumOfProducts() {
+        return IntStream.range(0, prices.length).mapToDouble(i -> prices[i] * quantities[i]).sum();
+    }
+
+    @Benchmark
+    public double kernelSumOfProducts() {
+        return target.sumOfProducts(prices, quantities);
+    }
+
+    @Benchmark
+    public double streamMax() {
+        return Arrays.stream(salaries).max().orElse(Double.NEGATIVE_INFINITY);
+    }
+
+    @Benchmark
+    public double kernelMax() {
+        return target.max(salaries);
+    }
+
+    // 43歳以上の給与合計（年齢は 20〜65 歳なので条件を満たすのはおよそ半分。分岐予測が効きにくい）
+
+    @Benchmark
+    public double streamSumWhereAtLeast() {
+        return IntStream.range(0, salaries.length).filter(i -> ages[i] >= 43).mapToDouble(i -> salaries[i]).sum();
+    }
+
+    @Benchmark
+    public double kernelSumWhereAtLeast() {
+        return target.sumWhereAtLeast(salaries, ages, 43);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.week2.benchmark;
+
+import com.example.week2.knockout.Employee;
+import com.example.week2.knockout.StreamKnockout01;
+import com.example.week2.knockout.SyntheticData;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// StreamKnockout01 の各問題を データ件数ごとに計測する
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--enable-preview" })
+public class StreamKnockout01Benchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int size;
+
+    private final StreamKnockout01 knockout = new StreamKnockout01();
+    private List<Employee> employees;
+
+    @Setup
+    public void setUp() {
+        employees = new SyntheticData(BenchmarkRunner.SEED).employees(size).toList();
+    }
+
+    @Benchmark
+    public Object findEmployeesOver30() {
+        return knockout.findEmployeesOver30(employees);
+    }
+
+    @Benchmark
+    public Object getAllNames() {
+        return knockout.getAllNames(employees);
+    }
+
+    @Benchmark
+    public long countEngineeringEmployees() {
+        return knockout.countEngineeringEmployees(employees);
+    }
+
+    @Benchmark
+    public Object groupByDepartment() {
+        return knockout.groupByDepartment(employees);
+    }
+
+    @Benchmark
+    public Object joinHighEarnerNames() {
+        return knockout.joinHighEarnerNames(employees);
+    }
+
+    @Benchmark
+    public Object averageSalaryByDepartment() {
+        return knockout.averageSalaryByDepartment(employees);
+    }
+
+    @Benchmark
+    public Object findHighestPaidEmployee() {
+        return knockout.findHighestPaidEmployee(employees);
+    }
+
+    @Benchmark
+    public Object findTopEarnerPerDepartment() {
+        return knockout.findTopEarnerPerDepartment(employees);
+    }
+
+    @Benchmark
+    public Object findTop3HighestPaid() {
+        return knockout.findTop3HighestPaid(employees);
+    }
+
+    @Benchmark
+    public Object findDepartmentsWithHighTotalSalary() {
+        return knockout.findDepartmentsWithHighTotalSalary(employees);
+    }
+}
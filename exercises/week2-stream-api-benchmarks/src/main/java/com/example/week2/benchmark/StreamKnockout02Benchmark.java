@@ -0,0 +1,96 @@
+package com.example.week2.benchmark;
+
+import com.example.week2.knockout.Employee;
+import com.example.week2.knockout.Project;
+import com.example.week2.knockout.StreamKnockout02;
+import com.example.week2.knockout.SyntheticData;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// StreamKnockout02 の各問題を データ件数ごとに計測する
+// プロジェクトは 10件、各プロジェクトのメンバーは従業員数の 1%（上限 1000人）とする
+// averageAgeOfProjectMembers は 従業員数 × メンバー数 に比例するため上限を設けている
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--enable-preview" })
+public class StreamKnockout02Benchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int size;
+
+    private final StreamKnockout02 knockout = new StreamKnockout02();
+    private List<Employee> employees;
+    private List<Project> projects;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(BenchmarkRunner.SEED)
+                .membersPerProject(Math.min(1000, Math.max(1, size / 100)), 0.2);
+        employees = data.employees(size).toList();
+        projects = data.projects(10, size).toList();
+    }
+
+    @Benchmark
+    public double calculateTotalSalary() {
+        return knockout.calculateTotalSalary(employees);
+    }
+
+    @Benchmark
+    public Object maxSalaryByDepartment() {
+        return knockout.maxSalaryByDepartment(employees);
+    }
+
+    @Benchmark
+    public Object findEmployeesWithNameContaining() {
+        return knockout.findEmployeesWithNameContaining(employees, "99");
+    }
+
+    @Benchmark
+    public Object sortEmployeesByAge() {
+        return knockout.sortEmployeesByAge(employees);
+    }
+
+    @Benchmark
+    public Object employeeNamesByDepartment() {
+        return knockout.employeeNamesByDepartment(employees);
+    }
+
+    @Benchmark
+    public double averageAgeOfProjectMembers() {
+        return knockout.averageAgeOfProjectMembers(employees, projects.get(0));
+    }
+
+    @Benchmark
+    public double calculateMedianSalary() {
+        return knockout.calculateMedianSalary(employees);
+    }
+
+    @Benchmark
+    public Object salaryRangeByDepartment() {
+        return knockout.salaryRangeByDepartment(employees);
+    }
+
+    @Benchmark
+    public Object countByAgeGroup() {
+        return knockout.countByAgeGroup(employees);
+    }
+
+    @Benchmark
+    public Object findEmployeesInMultipleProjects() {
+        return knockout.findEmployeesInMultipleProjects(employees, projects);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.week2.benchmark;
+
+import com.example.week2.knockout.Employee;
+import com.example.week2.knockout.Order;
+import com.example.week2.knockout.StreamKnockout03;
+import com.example.week2.knockout.SyntheticData;
+import java.time.LocalDate;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// StreamKnockout03 の各問題を 注文件数 × 商品の偏り ごとに計測する（従業員数は注文件数の 1/10）
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--enable-preview" })
+public class StreamKnockout03Benchmark {
+
+    private static final LocalDate START_DATE = LocalDate.of(2023, 4, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2023, 9, 30);
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int size;
+
+    // SyntheticData の商品の Zipf 指数（0 で一様）
+    @Param({ "0", "1.2" })
+    public double productSkew;
+
+    private final StreamKnockout03 knockout = new StreamKnockout03();
+    private List<Employee> employees;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(BenchmarkRunner.SEED).productSkew(productSkew);
+        employees = data.employees(Math.max(10, size / 10)).toList();
+        orders = data.orders(size, employees.size()).toList();
+    }
+
+    @Benchmark
+    public double calculateTotalOrderAmount() {
+        return knockout.calculateTotalOrderAmount(orders);
+    }
+
+    @Benchmark
+    public Object totalOrderAmountByEmployee() {
+        return knockout.totalOrderAmountByEmployee(orders);
+    }
+
+    @Benchmark
+    public Object findOrdersBetweenDates() {
+        return knockout.findOrdersBetweenDates(orders, START_DATE, END_DATE);
+    }
+
+    @Benchmark
+    public Object totalQuantityByProduct() {
+        return knockout.totalQuantityByProduct(orders);
+    }
+
+    @Benchmark
+    public Object findTopSalesEmployee() {
+        return knockout.findTopSalesEmployee(employees, orders);
+    }
+
+    @Benchmark
+    public Object top3ProductsByDepartment() {
+        return knockout.top3ProductsByDepartment(employees, orders);
+    }
+
+    @Benchmark
+    public Object monthlySales() {
+        return knockout.monthlySales(orders);
+    }
+
+    @Benchmark
+    public Object findAboveAverageSalesEmployees() {
+        return knockout.findAboveAverageSalesEmployees(employees, orders);
+    }
+
+    @Benchmark
+    public Object findBusiestOrderDate() {
+        return knockout.findBusiestOrderDate(orders);
+    }
+
+    @Benchmark
+    public Object createSalesRanking() {
+        return knockout.createSalesRanking(employees, orders);
+    }
+}
@@ -24,4 +24,22 @@ public class MatchingDrill {
         // Implement using filter and findFirst
         return users.stream().filter(user -> user.getDepartment().equals(department)).findFirst();
     }
+
+    // 件数が多いときはパーティションの要約で答える（PartitionedUserStore）
+
+    public boolean hasUnderage(PartitionedUserStore users) {
+        return users.anyYoungerThan(20);
+    }
+
+    public boolean areAllInDepartment(PartitionedUserStore users, String department) {
+        return users.allInDepartment(department);
+    }
+
+    public Optional<User> findYoungestUser(PartitionedUserStore users) {
+        return users.findYoungest();
+    }
+
+    public Optional<User> findFirstUserInDepartment(PartitionedUserStore users, String department) {
+        return users.findFirstInDepartment(department);
+    }
 }
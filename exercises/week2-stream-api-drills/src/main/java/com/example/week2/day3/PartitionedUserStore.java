@@ -0,0 +1,139 @@
+package com.example.week2.day3;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+// ユーザーを元の並び順のまま一定件数ごとのパーティションに分け、パーティションごとの要約を持つ
+//   要約: 年齢の最小・最大、最年少（最初の1人）の位置、含まれる部門のビット集合
+// - 年齢の判定（anyYoungerThan / anyOlderThan）、allInDepartment、findYoungest は要約だけで答え、
+//   ユーザーを1人も見ない
+// - findFirstInDepartment は部門を含まないパーティションを飛ばし、残りを並列に調べる
+//   見つかった位置より後ろのパーティションはその時点で打ち切る（前のパーティションは最後まで調べる）
+// 作成時点のリストの写しなので、作成後にリストやユーザーを変更しないこと
+public class PartitionedUserStore {
+
+    private static final int DEFAULT_PARTITION_SIZE = 4096;
+
+    private final List<User> users;
+    private final int partitionSize;
+    private final Map<String, Integer> departmentCodes = new HashMap<>();
+    private final Partition[] partitions;
+
+    public PartitionedUserStore(List<User> users) {
+        this(users, DEFAULT_PARTITION_SIZE);
+    }
+
+    public PartitionedUserStore(List<User> users, int partitionSize) {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("partitionSize must be positive: " + partitionSize);
+        }
+        this.users = new ArrayList<>(users);
+        this.partitionSize = partitionSize;
+        this.partitions = new Partition[(this.users.size() + partitionSize - 1) / partitionSize];
+        for (int p = 0; p < partitions.length; p++) {
+            partitions[p] = summarize(p * partitionSize, Math.min(this.users.size(), (p + 1) * partitionSize));
+        }
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    // age 歳未満のユーザーがいるか（MatchingDrill.hasUnderage は age = 20）
+    public boolean anyYoungerThan(int age) {
+        for (Partition partition : partitions) {
+            if (partition.minAge < age) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean anyOlderThan(int age) {
+        for (Partition partition : partitions) {
+            if (partition.maxAge > age) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 空なら true（allMatch と同じ）
+    public boolean allInDepartment(String department) {
+        Integer code = departmentCodes.get(department);
+        for (Partition partition : partitions) {
+            // 部門のビットが自分だけ立っていれば、そのパーティションは全員が department
+            if (code == null || partition.departments.cardinality() != 1 || !partition.departments.get(code)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 最年少が複数いれば最初の1人（Stream.min と同じ）
+    public Optional<User> findYoungest() {
+        Partition youngest = null;
+        for (Partition partition : partitions) {
+            if (youngest == null || partition.minAge < youngest.minAge) {
+                youngest = partition;
+            }
+        }
+        return youngest == null ? Optional.empty() : Optional.of(users.get(youngest.youngestIndex));
+    }
+
+    public Optional<User> findFirstInDepartment(String department) {
+        Integer code = departmentCodes.get(department);
+        if (code == null) {
+            return Optional.empty();
+        }
+        // 見つかった中で最も前の位置。これより後ろのユーザーは調べなくてよい
+        AtomicInteger first = new AtomicInteger(Integer.MAX_VALUE);
+        IntStream candidates = IntStream.range(0, partitions.length)
+                .filter(p -> partitions[p].departments.get(code));
+        if (partitions.length > 1) {
+            candidates = candidates.parallel();
+        }
+        candidates.forEach(p -> {
+            int end = Math.min(users.size(), (p + 1) * partitionSize);
+            for (int i = p * partitionSize; i < end && i < first.get(); i++) {
+                if (users.get(i).getDepartment().equals(department)) {
+                    first.accumulateAndGet(i, Math::min);
+                    return;
+                }
+            }
+        });
+        return first.get() == Integer.MAX_VALUE ? Optional.empty() : Optional.of(users.get(first.get()));
+    }
+
+    private Partition summarize(int from, int to) {
+        Partition partition = new Partition();
+        for (int i = from; i < to; i++) {
+            User user = users.get(i);
+            if (user.getAge() < partition.minAge) {
+                partition.minAge = user.getAge();
+                partition.youngestIndex = i;
+            }
+            partition.maxAge = Math.max(partition.maxAge, user.getAge());
+            partition.departments.set(departmentCodes.computeIfAbsent(user.getDepartment(),
+                    key -> departmentCodes.size()));
+        }
+        return partition;
+    }
+
+    private static final class Partition {
+        private int minAge = Integer.MAX_VALUE;
+        private int maxAge = Integer.MIN_VALUE;
+        private int youngestIndex;
+        private final BitSet departments = new BitSet();
+    }
+}
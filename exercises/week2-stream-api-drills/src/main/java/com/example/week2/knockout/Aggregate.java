@@ -0,0 +1,67 @@
+package com.example.week2.knockout;
+
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+// Query / GroupQuery で使う集計。結果は AggregateRow.get(このインスタンス) で取り出す
+// （同じ集計でもインスタンスが違えば別の列になるので、変数に入れて使い回す）
+public final class Aggregate<T, R> {
+
+    private final String name;
+    private final Collector<T, ?, R> collector;
+
+    private Aggregate(String name, Collector<T, ?, R> collector) {
+        this.name = name;
+        this.collector = collector;
+    }
+
+    public static <T, R> Aggregate<T, R> of(String name, Collector<T, ?, R> collector) {
+        return new Aggregate<>(name, collector);
+    }
+
+    public static <T> Aggregate<T, Long> count() {
+        return of("count", Collectors.counting());
+    }
+
+    public static <T> Aggregate<T, Double> sum(ToDoubleFunction<? super T> value) {
+        return of("sum", ExactSum.summing(value));
+    }
+
+    public static <T> Aggregate<T, Integer> sumInt(ToIntFunction<? super T> value) {
+        return of("sumInt", Collectors.summingInt(value));
+    }
+
+    public static <T> Aggregate<T, Double> average(ToDoubleFunction<? super T> value) {
+        return of("average", ExactSum.averaging(value));
+    }
+
+    public static <T> Aggregate<T, DoubleSummaryStatistics> stats(ToDoubleFunction<? super T> value) {
+        return of("stats", Collectors.summarizingDouble(value));
+    }
+
+    public static <T> Aggregate<T, Optional<T>> max(Comparator<? super T> comparator) {
+        return of("max", Collectors.maxBy(comparator));
+    }
+
+    public static <T> Aggregate<T, Optional<T>> min(Comparator<? super T> comparator) {
+        return of("min", Collectors.minBy(comparator));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    Collector<T, ?, R> collector() {
+        return collector;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.week2.knockout;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+// 複数の Aggregate を1回の走査でまとめて計算した結果
+public final class AggregateRow {
+
+    private final List<? extends Aggregate<?, ?>> aggregates;
+    private final Object[] values;
+
+    private AggregateRow(List<? extends Aggregate<?, ?>> aggregates, Object[] values) {
+        this.aggregates = aggregates;
+        this.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> R get(Aggregate<?, R> aggregate) {
+        for (int i = 0; i < aggregates.size(); i++) {
+            if (aggregates.get(i) == aggregate) {
+                return (R) values[i];
+            }
+        }
+        throw new IllegalArgumentException("aggregate is not part of this query: " + aggregate);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        for (int i = 0; i < aggregates.size(); i++) {
+            text.append(i == 0 ? "" : ", ").append(aggregates.get(i).name()).append('=').append(values[i]);
+        }
+        return text.append('}').toString();
+    }
+
+    // 各集計の Collector を横に並べ、1要素ごとに全部の accumulator へ渡す Collector にする
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static <T> Collector<T, ?, AggregateRow> collector(List<? extends Aggregate<? super T, ?>> aggregates) {
+        List<Aggregate<? super T, ?>> columns = List.copyOf(aggregates);
+        int size = columns.size();
+        Supplier[] suppliers = new Supplier[size];
+        BiConsumer[] accumulators = new BiConsumer[size];
+        BinaryOperator[] combiners = new BinaryOperator[size];
+        Function[] finishers = new Function[size];
+        for (int i = 0; i < size; i++) {
+            Collector collector = columns.get(i).collector();
+            suppliers[i] = collector.supplier();
+            accumulators[i] = collector.accumulator();
+            combiners[i] = collector.combiner();
+            finishers[i] = collector.finisher();
+        }
+        return Collector.of(
+                () -> {
+                    Object[] containers = new Object[size];
+                    for (int i = 0; i < size; i++) {
+                        containers[i] = suppliers[i].get();
+                    }
+                    return containers;
+                },
+                (containers, element) -> {
+                    for (int i = 0; i < size; i++) {
+                        accumulators[i].accept(containers[i], element);
+                    }
+                },
+                (left, right) -> {
+                    for (int i = 0; i < size; i++) {
+                        left[i] = combiners[i].apply(left[i], right[i]);
+                    }
+                    return left;
+                },
+                containers -> {
+                    Object[] values = new Object[size];
+                    for (int i = 0; i < size; i++) {
+                        values[i] = finishers[i].apply(containers[i]);
+                    }
+                    return new AggregateRow(columns, values);
+                });
+    }
+}
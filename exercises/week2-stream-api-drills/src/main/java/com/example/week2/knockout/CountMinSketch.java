@@ -0,0 +1,120 @@
+package com.example.week2.knockout;
+
+// 出現回数の近似（Count-Min Sketch）。depth 行 × width 列のカウンタを持ち、
+// キーごとに各行で1つの列を加算し、推定値は各行の最小値
+//
+// 誤差の保証（N は加算した回数の合計）:
+//   真の値 <= 推定値 <= 真の値 + epsilon * N （確率 1 - delta 以上）
+//   width = ceil(e / epsilon)、depth = ceil(ln(1 / delta))
+// 例: epsilon = 0.001, delta = 0.001 で 2719 × 7 = 約 150KB。キーの種類がいくら増えても大きさは変わらない
+// 同じ大きさのスケッチどうしは各カウンタを足すだけでマージできる（並列ストリームの combiner に使える）
+public final class CountMinSketch {
+
+    public static final double DEFAULT_EPSILON = 0.001;
+    public static final double DEFAULT_DELTA = 0.001;
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long totalCount;
+
+    public CountMinSketch() {
+        this(DEFAULT_EPSILON, DEFAULT_DELTA);
+    }
+
+    public CountMinSketch(double epsilon, double delta) {
+        this(width(epsilon), depth(delta));
+    }
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("width and depth must be positive: " + width + " x " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[width * depth];
+    }
+
+    private static int width(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("epsilon must be in (0, 1): " + epsilon);
+        }
+        return (int) Math.ceil(Math.E / epsilon);
+    }
+
+    private static int depth(double delta) {
+        if (!(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("delta must be in (0, 1): " + delta);
+        }
+        return (int) Math.ceil(Math.log(1 / delta));
+    }
+
+    public long add(Object key) {
+        return add(key, 1);
+    }
+
+    // 加算後の推定値を返す
+    public long add(Object key, long count) {
+        return addHash(SketchHash.hash(key), count);
+    }
+
+    public long estimate(Object key) {
+        long hash = SketchHash.hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    long addHash(long hash, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        totalCount += count;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            counters[index] += count;
+            estimate = Math.min(estimate, counters[index]);
+        }
+        return estimate;
+    }
+
+    public CountMinSketch merge(CountMinSketch other) {
+        if (width != other.width || depth != other.depth) {
+            throw new IllegalArgumentException("cannot merge sketches of different sizes: "
+                    + width + " x " + depth + " and " + other.width + " x " + other.depth);
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    // 推定値の上振れの上限（epsilon * N）
+    public double errorBound() {
+        return Math.E / width * totalCount;
+    }
+
+    // 64ビットハッシュの上下32ビットから行ごとのハッシュ h1 + row * h2 を作る（Kirsch-Mitzenmacher）
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int combined = h1 + row * h2;
+        return row * width + Math.floorMod(combined, width);
+    }
+}
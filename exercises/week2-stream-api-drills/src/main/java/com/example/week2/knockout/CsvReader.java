@@ -0,0 +1,226 @@
+package com.example.week2.knockout;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// CSV ファイルを行単位で読み、1行ずつ RowMapper で変換してストリームで返す
+// - ファイルは必要な分だけブロック単位で読むので、読み込み途中でも後段の集計が進む
+// - 並列ストリームでは、バイト範囲を半分にしてから次の改行まで進めた位置で分割する
+//   （各分割は「開始位置が自分の範囲内にある行」を担当する）
+// - 返すストリームはファイルを開いたままなので、try-with-resources で close すること
+public class CsvReader<T> {
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(CsvRow row);
+    }
+
+    private static final int BLOCK_BYTES = 1 << 20;
+    // これより小さい範囲は分割しない
+    private static final long MIN_SPLIT_BYTES = 1 << 20;
+    private static final int SAMPLE_BYTES = 64 * 1024;
+
+    private final Path path;
+    private final boolean header;
+    private final RowMapper<T> mapper;
+
+    public CsvReader(Path path, boolean header, RowMapper<T> mapper) {
+        this.path = path;
+        this.header = header;
+        this.mapper = mapper;
+    }
+
+    public Stream<T> stream(ExecutionPolicy policy) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long start = header ? lineEndAfter(channel, 0, size) : 0;
+            boolean parallel = policy.isParallel(estimateRows(channel, start, size));
+            return StreamSupport.stream(new ChunkSpliterator(channel, size, start, size), parallel)
+                    .onClose(() -> {
+                        try {
+                            channel.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // 先頭の一部の平均行長から行数を見積もる（AUTO の判定用）
+    private static int estimateRows(FileChannel channel, long start, long size) throws IOException {
+        ByteBuffer sample = ByteBuffer.allocate((int) Math.min(SAMPLE_BYTES, size - start));
+        read(channel, sample, start);
+        int lines = 0;
+        for (int i = 0; i < sample.limit(); i++) {
+            if (sample.get(i) == '\n') {
+                lines++;
+            }
+        }
+        if (lines == 0) {
+            return sample.limit() == 0 ? 0 : 1;
+        }
+        double bytesPerLine = (double) sample.limit() / lines;
+        return (int) Math.min(Integer.MAX_VALUE, (size - start) / bytesPerLine);
+    }
+
+    // position 以降で最初の行頭（position 自身が行頭ならそのまま）
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        return position == 0 ? 0 : lineEndAfter(channel, position - 1, size);
+    }
+
+    // from 以降の最初の改行の次の位置（改行がなければファイル末尾）
+    private static long lineEndAfter(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = read(channel, probe, position);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static int read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        buffer.flip();
+        return total;
+    }
+
+    // 開始位置が [from, to) にある行を読む
+    private final class ChunkSpliterator implements Spliterator<T> {
+        private final FileChannel channel;
+        private final long fileSize;
+        private long from;
+        private final long to;
+
+        private final CsvRow row = new CsvRow();
+        private byte[] block;
+        // block[0] のファイル上の位置と、block 内の有効バイト数・次の行頭
+        private long blockStart;
+        private int blockLength;
+        private int next;
+
+        ChunkSpliterator(FileChannel channel, long fileSize, long from, long to) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (block == null) {
+                block = new byte[(int) Math.min(BLOCK_BYTES, Math.max(1, to - from))];
+                blockStart = from;
+            }
+            while (blockStart + next < to) {
+                int lineEnd = findNewline();
+                if (lineEnd < 0) {
+                    if (blockStart + blockLength < fileSize) {
+                        fill();
+                        continue;
+                    }
+                    // 改行で終わらない最終行
+                    lineEnd = blockLength;
+                }
+                int lineStart = next;
+                next = lineEnd + 1;
+                int contentEnd = lineEnd > lineStart && block[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+                if (contentEnd == lineStart) {
+                    continue; // 空行
+                }
+                action.accept(mapper.map(row.reset(block, lineStart, contentEnd)));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (block != null || to - from < 2 * MIN_SPLIT_BYTES) {
+                return null;
+            }
+            try {
+                long mid = nextLineStart(channel, from + (to - from) / 2, fileSize);
+                if (mid <= from || mid >= to) {
+                    return null;
+                }
+                Spliterator<T> prefix = new ChunkSpliterator(channel, fileSize, from, mid);
+                from = mid;
+                return prefix;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            // 行数は分からないので残りバイト数で代用する（分割の目安にだけ使われる）
+            return block == null ? to - from : Math.max(0, to - blockStart - next);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        private int findNewline() {
+            for (int i = next; i < blockLength; i++) {
+                if (block[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // 読み終えた行を詰めて続きを読む。1行がブロックに収まらなければブロックを広げる
+        private void fill() {
+            int remaining = blockLength - next;
+            if (remaining == block.length) {
+                byte[] larger = new byte[block.length * 2];
+                System.arraycopy(block, next, larger, 0, remaining);
+                block = larger;
+            } else {
+                System.arraycopy(block, next, block, 0, remaining);
+            }
+            blockStart += next;
+            next = 0;
+            blockLength = remaining;
+            try {
+                ByteBuffer target = ByteBuffer.wrap(block, remaining, block.length - remaining);
+                int read = channel.read(target, blockStart + remaining);
+                if (read <= 0) {
+                    throw new EOFException("file was truncated while reading: " + path);
+                }
+                blockLength += read;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
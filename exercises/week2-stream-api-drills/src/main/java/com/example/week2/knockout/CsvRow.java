@@ -0,0 +1,247 @@
+package com.example.week2.knockout;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// CSV の1行をバイト列のまま左から順に読むカーソル（CsvReader が行ごとに位置を動かす）
+// 正規表現や String.split を使わず、数値と日付はバイト列から直接読む
+// ダブルクォートで囲んだフィールドには対応するが、フィールド内の改行は扱わない（行境界で分割するため）
+public final class CsvRow {
+
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    // 2^53 未満の整数仮数と 10^22 以下の 10 の累乗は double で正確に表せるので、1回の除算で正しく丸められる
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private static final int SYMBOL_CACHE_SIZE = 1024;
+
+    private byte[] buffer;
+    private int lineStart;
+    private int position;
+    private int end;
+    // 部署名・商品名のように種類の少ない列の String を使い回す（直接マップのキャッシュ）
+    private final byte[][] symbolBytes = new byte[SYMBOL_CACHE_SIZE][];
+    private final String[] symbols = new String[SYMBOL_CACHE_SIZE];
+
+    CsvRow reset(byte[] buffer, int start, int end) {
+        this.buffer = buffer;
+        this.lineStart = start;
+        this.position = start;
+        this.end = end;
+        return this;
+    }
+
+    public boolean hasNext() {
+        return position <= end;
+    }
+
+    public void skip() {
+        if (buffer[position()] == QUOTE) {
+            nextString();
+        } else {
+            position = fieldEnd() + 1;
+        }
+    }
+
+    public String nextString() {
+        int start = position();
+        if (buffer[start] != QUOTE) {
+            int fieldEnd = fieldEnd();
+            position = fieldEnd + 1;
+            return new String(buffer, start, fieldEnd - start, StandardCharsets.UTF_8);
+        }
+        return nextQuoted(start);
+    }
+
+    // 値の種類が少ない列向け。同じバイト列なら前と同じ String を返す
+    public String nextSymbol() {
+        int start = position();
+        if (buffer[start] == QUOTE) {
+            return nextQuoted(start);
+        }
+        int fieldEnd = fieldEnd();
+        position = fieldEnd + 1;
+        int hash = 0;
+        for (int i = start; i < fieldEnd; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (SYMBOL_CACHE_SIZE - 1);
+        byte[] cached = symbolBytes[slot];
+        if (cached != null && Arrays.equals(cached, 0, cached.length, buffer, start, fieldEnd)) {
+            return symbols[slot];
+        }
+        String symbol = new String(buffer, start, fieldEnd - start, StandardCharsets.UTF_8);
+        symbolBytes[slot] = Arrays.copyOfRange(buffer, start, fieldEnd);
+        symbols[slot] = symbol;
+        return symbol;
+    }
+
+    public long nextLong() {
+        int start = position();
+        int fieldEnd = fieldEnd();
+        position = fieldEnd + 1;
+        return parseLong(start, fieldEnd);
+    }
+
+    public int nextInt() {
+        int start = position;
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw invalid("int", start, position - 1);
+        }
+        return (int) value;
+    }
+
+    public double nextDouble() {
+        int start = position();
+        int fieldEnd = fieldEnd();
+        position = fieldEnd + 1;
+
+        // 高速経路: [-]digits[.digits] で仮数が 2^53 未満、小数桁が 22 以下
+        int i = start;
+        boolean negative = i < fieldEnd && buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < fieldEnd; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    break;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == fieldEnd && digits > 0 && scale < POWERS_OF_TEN.length) {
+            double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+            return negative ? -value : value;
+        }
+        // 指数表記や桁の多い値は JDK に任せる
+        String text = new String(buffer, start, fieldEnd - start, StandardCharsets.US_ASCII);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw invalid("double", start, fieldEnd);
+        }
+    }
+
+    // yyyy-MM-dd
+    public LocalDate nextDate() {
+        int start = position();
+        int fieldEnd = fieldEnd();
+        position = fieldEnd + 1;
+        if (fieldEnd - start != 10 || buffer[start + 4] != '-' || buffer[start + 7] != '-') {
+            throw invalid("date", start, fieldEnd);
+        }
+        int year = (int) parseLong(start, start + 4);
+        int month = (int) parseLong(start + 5, start + 7);
+        int day = (int) parseLong(start + 8, start + 10);
+        return LocalDate.of(year, month, day);
+    }
+
+    // separator 区切りの id 一覧（例: 1;2;3）。空のフィールドは空のリスト
+    public List<Long> nextLongList(char separator) {
+        int start = position();
+        int fieldEnd = fieldEnd();
+        position = fieldEnd + 1;
+        List<Long> values = new ArrayList<>();
+        int from = start;
+        for (int i = start; i <= fieldEnd; i++) {
+            if (i == fieldEnd || buffer[i] == separator) {
+                if (i > from) {
+                    values.add(parseLong(from, i));
+                }
+                from = i + 1;
+            }
+        }
+        return values;
+    }
+
+    private int position() {
+        if (position > end) {
+            throw new IllegalArgumentException("missing field in line: " + lineText());
+        }
+        return position;
+    }
+
+    private int fieldEnd() {
+        int i = position;
+        while (i < end && buffer[i] != COMMA) {
+            i++;
+        }
+        return i;
+    }
+
+    private String nextQuoted(int start) {
+        // "" はクォート1つ
+        byte[] value = new byte[end - start];
+        int length = 0;
+        int i = start + 1;
+        while (true) {
+            if (i >= end) {
+                throw invalid("quoted field", start, end);
+            }
+            byte b = buffer[i++];
+            if (b == QUOTE) {
+                if (i < end && buffer[i] == QUOTE) {
+                    value[length++] = QUOTE;
+                    i++;
+                } else {
+                    break;
+                }
+            } else {
+                value[length++] = b;
+            }
+        }
+        if (i < end && buffer[i] != COMMA) {
+            throw invalid("quoted field", start, end);
+        }
+        position = i + 1;
+        return new String(value, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private long parseLong(int start, int fieldEnd) {
+        int i = start;
+        boolean negative = i < fieldEnd && buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == fieldEnd) {
+            throw invalid("long", start, fieldEnd);
+        }
+        long value = 0;
+        for (; i < fieldEnd; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw invalid("long", start, fieldEnd);
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private IllegalArgumentException invalid(String type, int start, int fieldEnd) {
+        return new IllegalArgumentException("invalid " + type + " '"
+                + new String(buffer, start, fieldEnd - start, StandardCharsets.UTF_8) + "' in line: " + lineText());
+    }
+
+    private String lineText() {
+        return new String(buffer, lineStart, end - lineStart, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.week2.knockout;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+// 部門ごとの 件数・合計・最小・最大・平均・トップ・範囲 を1回の走査でまとめて集計した結果
+// averageSalaryByDepartment / maxSalaryByDepartment / salaryRangeByDepartment /
+// findTopEarnerPerDepartment / findDepartmentsWithHighTotalSalary は全てこの結果から答えられる
+public class DepartmentStats {
+
+    public record Summary(long count, double sum, double min, double max, double average, Employee topEarner) {
+
+        public double range() {
+            return max - min;
+        }
+    }
+
+    private final Map<String, Summary> summaries;
+
+    private DepartmentStats(Map<String, Summary> summaries) {
+        this.summaries = Collections.unmodifiableMap(summaries);
+    }
+
+    public static DepartmentStats of(Collection<Employee> employees) {
+        return employees.stream().collect(collector());
+    }
+
+    public static DepartmentStats ofParallel(Collection<Employee> employees) {
+        // combiner で部分結果をマージするので並列でも結果は同じ
+        return employees.parallelStream().collect(collector());
+    }
+
+    public static Collector<Employee, ?, DepartmentStats> collector() {
+        return Collector.of(
+                Accumulator::new,
+                Accumulator::add,
+                Accumulator::merge,
+                Accumulator::finish);
+    }
+
+    public Map<String, Summary> summaries() {
+        return summaries;
+    }
+
+    public Optional<Summary> summary(String department) {
+        return Optional.ofNullable(summaries.get(department));
+    }
+
+    public Map<String, Double> averageSalaryByDepartment() {
+        return mapValues(Summary::average);
+    }
+
+    public Map<String, Double> maxSalaryByDepartment() {
+        return mapValues(Summary::max);
+    }
+
+    public Map<String, Double> salaryRangeByDepartment() {
+        return mapValues(Summary::range);
+    }
+
+    public Map<String, Optional<Employee>> findTopEarnerPerDepartment() {
+        return mapValues(summary -> Optional.of(summary.topEarner()));
+    }
+
+    public List<String> findDepartmentsWithHighTotalSalary(double threshold) {
+        return summaries.entrySet().stream()
+                .filter(e -> e.getValue().sum() >= threshold)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private <T> Map<String, T> mapValues(Function<Summary, T> mapper) {
+        return summaries.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> mapper.apply(e.getValue())));
+    }
+
+    // 部門ごとの途中経過（合計・平均は ExactSum なので、並列でも averageSalaryByDepartment などと同じ値になる）
+    private static final class Cell {
+        private final DoubleSummaryStatistics salaries = new DoubleSummaryStatistics();
+        private final ExactSum sum = new ExactSum();
+        private Employee topEarner;
+
+        void add(Employee employee) {
+            salaries.accept(employee.getSalary());
+            sum.add(employee.getSalary());
+            // 同額なら先に現れた従業員を残す（Collectors.maxBy と同じ）
+            if (topEarner == null || employee.getSalary() > topEarner.getSalary()) {
+                topEarner = employee;
+            }
+        }
+
+        void merge(Cell other) {
+            salaries.combine(other.salaries);
+            sum.merge(other.sum);
+            if (topEarner == null || other.topEarner.getSalary() > topEarner.getSalary()) {
+                topEarner = other.topEarner;
+            }
+        }
+
+        Summary toSummary() {
+            return new Summary(salaries.getCount(), sum.value(), salaries.getMin(), salaries.getMax(),
+                    sum.average(), topEarner);
+        }
+    }
+
+    private static final class Accumulator {
+        private final Map<String, Cell> cells = new HashMap<>();
+
+        void add(Employee employee) {
+            cells.computeIfAbsent(employee.getDepartment(), d -> new Cell()).add(employee);
+        }
+
+        Accumulator merge(Accumulator other) {
+            // other は encounter order で後ろ側の部分結果
+            other.cells.forEach((department, cell) -> {
+                Cell mine = cells.get(department);
+                if (mine == null) {
+                    cells.put(department, cell);
+                } else {
+                    mine.merge(cell);
+                }
+            });
+            return this;
+        }
+
+        DepartmentStats finish() {
+            Map<String, Summary> summaries = new HashMap<>();
+            cells.forEach((department, cell) -> summaries.put(department, cell.toSummary()));
+            return new DepartmentStats(summaries);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.week2.knockout;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+// Employee 向けの Query の入口と、よく使う条件・並び順・集計
+//   例: EmployeeQuery.from(employees).where(EmployeeQuery.inDepartment("Engineering")).count()
+public final class EmployeeQuery {
+
+    private EmployeeQuery() {
+    }
+
+    public static Query<Employee> from(Collection<Employee> employees) {
+        return Query.from(employees);
+    }
+
+    public static Query<Employee> from(Collection<Employee> employees, ExecutionPolicy policy) {
+        return Query.from(employees).with(policy);
+    }
+
+    public static Predicate<Employee> inDepartment(String department) {
+        return e -> e.getDepartment().equals(department);
+    }
+
+    public static Predicate<Employee> olderThan(int age) {
+        return e -> e.getAge() > age;
+    }
+
+    public static Predicate<Employee> salaryAtLeast(double salary) {
+        return e -> e.getSalary() >= salary;
+    }
+
+    public static Comparator<Employee> byAge() {
+        return Comparator.comparingInt(Employee::getAge);
+    }
+
+    public static Comparator<Employee> bySalaryDescending() {
+        return Comparator.comparingDouble(Employee::getSalary).reversed();
+    }
+
+    public static Aggregate<Employee, Long> headcount() {
+        return Aggregate.count();
+    }
+
+    public static Aggregate<Employee, Double> totalSalary() {
+        return Aggregate.sum(Employee::getSalary);
+    }
+
+    public static Aggregate<Employee, Double> averageSalary() {
+        return Aggregate.average(Employee::getSalary);
+    }
+
+    public static Aggregate<Employee, Optional<Employee>> highestPaid() {
+        return Aggregate.max(Comparator.comparingDouble(Employee::getSalary));
+    }
+}
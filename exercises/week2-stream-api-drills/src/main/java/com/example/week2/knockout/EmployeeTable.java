@@ -0,0 +1,353 @@
+package com.example.week2.knockout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Employee を列指向（Struct of Arrays）で保持するテーブル
+// 集計は プリミティブ配列 を直接走査し、行ごとのオブジェクト生成やボクシングを行わない
+// 合計・最小・最大は NumericKernels（使えれば SIMD）で計算する
+public class EmployeeTable {
+
+    private static final NumericKernels KERNELS = NumericKernels.best();
+
+    private final long[] ids;
+    private final String[] names;
+    private final int[] ages;
+    private final double[] salaries;
+    // 部門は辞書エンコード（departments.label(departmentCodes[row]) が部門名）
+    private final int[] departmentCodes;
+    private final StringDictionary departments;
+
+    EmployeeTable(long[] ids, String[] names, int[] ages, double[] salaries,
+            int[] departmentCodes, StringDictionary departments) {
+        this.ids = ids;
+        this.names = names;
+        this.ages = ages;
+        this.salaries = salaries;
+        this.departmentCodes = departmentCodes;
+        this.departments = departments;
+    }
+
+    public static EmployeeTable from(List<Employee> employees) {
+        int size = employees.size();
+        long[] ids = new long[size];
+        String[] names = new String[size];
+        int[] ages = new int[size];
+        double[] salaries = new double[size];
+        int[] departmentCodes = new int[size];
+        StringDictionary departments = new StringDictionary();
+
+        for (int row = 0; row < size; row++) {
+            Employee e = employees.get(row);
+            ids[row] = e.getId();
+            names[row] = e.getName();
+            ages[row] = e.getAge();
+            salaries[row] = e.getSalary();
+            departmentCodes[row] = departments.encode(e.getDepartment());
+        }
+        return new EmployeeTable(ids, names, ages, salaries, departmentCodes, departments);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int departmentCount() {
+        return departments.size();
+    }
+
+    public String department(int code) {
+        return departments.label(code);
+    }
+
+    // 部門名 -> コード（存在しなければ -1）
+    public int departmentCode(String department) {
+        return departments.code(department);
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public String name(int row) {
+        return names[row];
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public double salary(int row) {
+        return salaries[row];
+    }
+
+    public int departmentCodeAt(int row) {
+        return departmentCodes[row];
+    }
+
+    // 結果として返す行だけを Employee に復元する
+    public Employee row(int row) {
+        return new Employee(ids[row], names[row], departments.label(departmentCodes[row]), ages[row], salaries[row]);
+    }
+
+    public List<Employee> rows(int[] rows) {
+        List<Employee> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(row(row));
+        }
+        return result;
+    }
+
+    // --- StreamKnockout01 ---
+
+    public int[] findEmployeesOver30() {
+        // Problem 1
+        int[] result = new int[ages.length];
+        int count = 0;
+        for (int row = 0; row < ages.length; row++) {
+            if (ages[row] > 30) {
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    public long countByDepartment(String department) {
+        // Problem 3 - 文字列比較は辞書引きの1回だけ
+        int code = departmentCode(department);
+        if (code < 0) {
+            return 0;
+        }
+        long count = 0;
+        for (int departmentCode : departmentCodes) {
+            if (departmentCode == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long countEngineeringEmployees() {
+        return countByDepartment("Engineering");
+    }
+
+    public Map<String, Double> averageSalaryByDepartment() {
+        // Problem 6
+        double[] sums = sumSalaryByDepartmentCode();
+        long[] counts = countByDepartmentCode();
+        return departments.toMap(code -> sums[code] / counts[code]);
+    }
+
+    public int findHighestPaidRow() {
+        // Problem 7 - 同額の場合は先に現れた行（Stream.max と同じ）、空なら -1
+        int best = -1;
+        for (int row = 0; row < salaries.length; row++) {
+            if (best < 0 || salaries[row] > salaries[best]) {
+                best = row;
+            }
+        }
+        return best;
+    }
+
+    public Optional<Employee> findHighestPaidEmployee() {
+        int best = findHighestPaidRow();
+        return best < 0 ? Optional.empty() : Optional.of(row(best));
+    }
+
+    public int[] topEarnerRowByDepartmentCode() {
+        // Problem 8
+        int[] best = new int[departments.size()];
+        Arrays.fill(best, -1);
+        for (int row = 0; row < salaries.length; row++) {
+            int code = departmentCodes[row];
+            if (best[code] < 0 || salaries[row] > salaries[best[code]]) {
+                best[code] = row;
+            }
+        }
+        return best;
+    }
+
+    public Map<String, Optional<Employee>> findTopEarnerPerDepartment() {
+        int[] best = topEarnerRowByDepartmentCode();
+        return departments.toMap(code -> Optional.of(row(best[code])));
+    }
+
+    public int[] topRowsBySalary(int k) {
+        // Problem 9 - 全件ソートせず上位k件だけを挿入ソートで保持（同額は元の順序を維持）
+        int[] top = new int[Math.min(k, salaries.length)];
+        int filled = 0;
+        for (int row = 0; row < salaries.length; row++) {
+            double salary = salaries[row];
+            if (filled == top.length && (filled == 0 || salary <= salaries[top[filled - 1]])) {
+                continue;
+            }
+            int pos = filled < top.length ? filled++ : filled - 1;
+            while (pos > 0 && salaries[top[pos - 1]] < salary) {
+                top[pos] = top[pos - 1];
+                pos--;
+            }
+            top[pos] = row;
+        }
+        return top;
+    }
+
+    public List<Employee> findTop3HighestPaid() {
+        return rows(topRowsBySalary(3));
+    }
+
+    public List<String> findDepartmentsWithHighTotalSalary() {
+        // Problem 10
+        double[] sums = sumSalaryByDepartmentCode();
+        List<String> result = new ArrayList<>();
+        for (int code = 0; code < departments.size(); code++) {
+            if (sums[code] >= 100000) {
+                result.add(departments.label(code));
+            }
+        }
+        return result;
+    }
+
+    // --- StreamKnockout02 ---
+
+    public double calculateTotalSalary() {
+        // Problem 11
+        return KERNELS.sum(salaries);
+    }
+
+    // Problem 11 の正確な値
+    public Money totalSalary() {
+        long total = 0;
+        for (double salary : salaries) {
+            total = Math.addExact(total, Money.centsOf(salary));
+        }
+        return Money.ofCents(total);
+    }
+
+    // age 歳以上の従業員の給与合計
+    public double totalSalaryOfAgeAtLeast(int age) {
+        return KERNELS.sumWhereAtLeast(salaries, ages, age);
+    }
+
+    // 空なら +∞ / -∞
+    public double minSalary() {
+        return KERNELS.min(salaries);
+    }
+
+    public double maxSalary() {
+        return KERNELS.max(salaries);
+    }
+
+    public Map<String, Double> maxSalaryByDepartment() {
+        // Problem 12
+        double[] max = new double[departments.size()];
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int row = 0; row < salaries.length; row++) {
+            int code = departmentCodes[row];
+            max[code] = Math.max(max[code], salaries[row]);
+        }
+        return toDepartmentMap(max);
+    }
+
+    public int[] sortedRowsByAge() {
+        // Problem 14 - 年齢は値域が狭いので計数ソート（安定ソートなので同年齢は元の順序）
+        if (ages.length == 0) {
+            return new int[0];
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int age : ages) {
+            min = Math.min(min, age);
+            max = Math.max(max, age);
+        }
+        int[] offsets = new int[max - min + 2];
+        for (int age : ages) {
+            offsets[age - min + 1]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] sorted = new int[ages.length];
+        for (int row = 0; row < ages.length; row++) {
+            sorted[offsets[ages[row] - min]++] = row;
+        }
+        return sorted;
+    }
+
+    public List<Employee> sortEmployeesByAge() {
+        return rows(sortedRowsByAge());
+    }
+
+    public Map<String, Double> salaryRangeByDepartment() {
+        // Problem 18
+        double[] min = new double[departments.size()];
+        double[] max = new double[departments.size()];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int row = 0; row < salaries.length; row++) {
+            int code = departmentCodes[row];
+            min[code] = Math.min(min[code], salaries[row]);
+            max[code] = Math.max(max[code], salaries[row]);
+        }
+        for (int code = 0; code < departments.size(); code++) {
+            max[code] -= min[code];
+        }
+        return toDepartmentMap(max);
+    }
+
+    public Map<String, Long> countByAgeGroup() {
+        // Problem 19 - "NN代" のラベルは集計後に年代ごとに1回だけ生成
+        if (ages.length == 0) {
+            return new HashMap<>();
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int age : ages) {
+            min = Math.min(min, age / 10);
+            max = Math.max(max, age / 10);
+        }
+        long[] counts = new long[max - min + 1];
+        for (int age : ages) {
+            counts[age / 10 - min]++;
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put((i + min) * 10 + "代", counts[i]);
+            }
+        }
+        return result;
+    }
+
+    // --- 共通 ---
+
+    public double[] sumSalaryByDepartmentCode() {
+        // 素朴な += は部門の行数が多いと誤差がたまるので、Stream 版（Aggregate.sum / average）と同じ正確な合計にする
+        ExactSum[] sums = new ExactSum[departments.size()];
+        Arrays.setAll(sums, code -> new ExactSum());
+        for (int row = 0; row < salaries.length; row++) {
+            sums[departmentCodes[row]].add(salaries[row]);
+        }
+        double[] result = new double[sums.length];
+        for (int code = 0; code < sums.length; code++) {
+            result[code] = sums[code].value();
+        }
+        return result;
+    }
+
+    public long[] countByDepartmentCode() {
+        long[] counts = new long[departments.size()];
+        for (int departmentCode : departmentCodes) {
+            counts[departmentCode]++;
+        }
+        return counts;
+    }
+
+    private Map<String, Double> toDepartmentMap(double[] values) {
+        return departments.toMap(code -> values[code]);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.week2.knockout;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+// double の正確な合計（真の和を最も近い double に丸めた値）
+// - 途中の和を丸め誤差ごと「重ならない部分和」の列で持つ（Shewchuk のアルゴリズム、Python の math.fsum と同じ）
+// - 結果は足す順序にもまとめ方にも依存しないので、並列ストリームでも逐次と同じビットになり、
+//   追記型の台帳（OrderLedger）や列指向の集計とも一致する
+// - summingDouble（Kahan の補正付き加算）はほとんどの場合同じ値だが、順序によって末尾の桁が変わりうる
+// - 無限大や NaN が混ざったときは summingDouble と同じく単純和の値（Infinity / NaN）
+//
+//   double total = orders.parallelStream().collect(ExactSum.summing(o -> o.getPrice() * o.getQuantity()));
+public final class ExactSum {
+
+    // 絶対値の小さい順に並んだ、互いに桁の重ならない部分和。ふつうは 1〜3 個
+    private double[] partials = new double[4];
+    private int size;
+    private double simpleSum;
+    private long count;
+
+    public static <T> Collector<T, ?, Double> summing(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(ExactSum::new, (sum, element) -> sum.add(mapper.applyAsDouble(element)),
+                ExactSum::merge, ExactSum::value);
+    }
+
+    public static <T> Collector<T, ?, Double> averaging(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(ExactSum::new, (sum, element) -> sum.add(mapper.applyAsDouble(element)),
+                ExactSum::merge, ExactSum::average);
+    }
+
+    void add(double value) {
+        addPartial(value);
+        simpleSum += value;
+        count++;
+    }
+
+    ExactSum merge(ExactSum other) {
+        for (int i = 0; i < other.size; i++) {
+            addPartial(other.partials[i]);
+        }
+        simpleSum += other.simpleSum;
+        count += other.count;
+        return this;
+    }
+
+    long count() {
+        return count;
+    }
+
+    double value() {
+        double hi = 0.0;
+        int n = size;
+        if (n > 0) {
+            hi = partials[--n];
+            double lo = 0.0;
+            // 大きい方から足し、丸めが起きたところで止める
+            while (n > 0) {
+                double x = hi;
+                double y = partials[--n];
+                hi = x + y;
+                lo = y - (hi - x);
+                if (lo != 0.0) {
+                    break;
+                }
+            }
+            // ちょうど中間で偶数丸めされたが、残りの部分和まで含めると片側に寄っている場合は丸め直す
+            if (n > 0 && ((lo < 0.0 && partials[n - 1] < 0.0) || (lo > 0.0 && partials[n - 1] > 0.0))) {
+                double y = lo * 2.0;
+                double x = hi + y;
+                if (y == x - hi) {
+                    hi = x;
+                }
+            }
+        }
+        // 無限大が混ざると部分和が NaN になるので、その場合は単純和を返す
+        if (Double.isNaN(hi) && Double.isInfinite(simpleSum)) {
+            return simpleSum;
+        }
+        return hi;
+    }
+
+    double average() {
+        return count == 0 ? 0.0 : value() / count;
+    }
+
+    private void addPartial(double value) {
+        double x = value;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            double y = partials[i];
+            if (Math.abs(x) < Math.abs(y)) {
+                double swap = x;
+                x = y;
+                y = swap;
+            }
+            // x + y を、丸めた和 hi と丸め誤差 lo に分ける（hi + lo が正確に x + y）
+            double hi = x + y;
+            double lo = y - (hi - x);
+            if (lo != 0.0) {
+                partials[kept++] = lo;
+            }
+            x = hi;
+        }
+        if (kept == partials.length) {
+            partials = Arrays.copyOf(partials, kept * 2);
+        }
+        partials[kept] = x;
+        size = kept + 1;
+    }
+}
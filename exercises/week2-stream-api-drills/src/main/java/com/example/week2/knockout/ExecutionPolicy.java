@@ -0,0 +1,39 @@
+package com.example.week2.knockout;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+// Knockout クラスのストリームを逐次で流すか、並列（ForkJoin共通プール）で流すかの方針
+// 並列でも順序付きストリームのまま流すので、toList / sorted / limit / groupingBy の結果は逐次と同じになる
+// double の合計・平均は ExactSum で集計するので並列でも逐次と同じ値になる
+// （mapToDouble(...).sum() や summingDouble は足す順序で末尾の桁が変わり、並列では一致しないことがある）
+public enum ExecutionPolicy {
+    SEQUENTIAL,
+    PARALLEL,
+    // 入力サイズとコア数から判断する
+    AUTO;
+
+    // これ未満の件数では並列化のオーバーヘッドの方が大きい
+    static final int MIN_PARALLEL_SIZE = 10_000;
+    // 1コアあたり最低これだけの要素がないと分割の効果が出ない
+    static final int MIN_ELEMENTS_PER_CORE = 2_000;
+
+    public boolean isParallel(int size) {
+        return switch (this) {
+            case SEQUENTIAL -> false;
+            case PARALLEL -> true;
+            case AUTO -> size >= autoThreshold(Runtime.getRuntime().availableProcessors());
+        };
+    }
+
+    static int autoThreshold(int cores) {
+        if (cores <= 1) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(MIN_PARALLEL_SIZE, cores * MIN_ELEMENTS_PER_CORE);
+    }
+
+    public <T> Stream<T> stream(Collection<T> source) {
+        return isParallel(source.size()) ? source.parallelStream() : source.stream();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.week2.knockout;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+// Collectors.groupingBy(…, counting() / summingXxx()) の置き換え
+// 戻り値の Map の中身は Collectors と同じなので、そのまま差し替えられる
+//
+// - groupingByCounting / groupingBySummingXxx:
+//   CONCURRENT | UNORDERED。並列ストリームでもスレッドごとの Map を作って合わせず、
+//   1つの ConcurrentHashMap<K, LongAdder / DoubleAdder> に全スレッドが直接足す。値は Long に箱詰めし直さない
+// - groupingByLongCounting / groupingByLongSummingDouble:
+//   キーが long（従業員ID、epochDay など）のとき。スレッドごとのオープンアドレス法の Map（LongDoubleHashMap）に
+//   Long を作らずに足し、最後に合わせる。結果の Map を作るときだけ箱詰めする
+// - groupingByCodeCounting / groupingByCodeSummingLong:
+//   キーが 0 から詰めた int コード（StringDictionary のコード、年代 age / 10 など）のとき。
+//   コードを添字にした long[] に足すのでハッシュ計算もない。ラベルは結果の Map を作るときにコードごとに1回だけ作る
+//   負のコードや DENSE_CODES 以上のコードは配列を伸ばさずに HashMap で数える（結果は同じ、速さだけが落ちる）
+// 注意
+// - 合計は summingDouble と違い補正なしの加算（DoubleAdder）なので、端数のある金額では最後の桁が揺れうる
+// - リストへのグループ化（groupingBy(classifier)）は要素の並び順を保つ必要があるので置き換えない
+public final class FastCollectors {
+
+    // 配列で数えるコードの上限（long[] で 512KB まで）
+    static final int DENSE_CODES = 1 << 16;
+
+    private FastCollectors() {
+    }
+
+    // groupingBy(classifier, counting())
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingByCounting(Function<? super T, ? extends K> classifier) {
+        return Collector.<T, ConcurrentHashMap<K, LongAdder>, Map<K, Long>>of(
+                ConcurrentHashMap::new,
+                (map, element) -> adder(map, classifier.apply(element), LongAdder::new).increment(),
+                FastCollectors::mergeCounts,
+                map -> {
+                    Map<K, Long> result = new HashMap<>(map.size() * 2);
+                    map.forEach((key, count) -> result.put(key, count.sum()));
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    // groupingBy(classifier, summingLong(mapper))
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingBySummingLong(Function<? super T, ? extends K> classifier,
+            ToLongFunction<? super T> mapper) {
+        return Collector.<T, ConcurrentHashMap<K, LongAdder>, Map<K, Long>>of(
+                ConcurrentHashMap::new,
+                (map, element) -> adder(map, classifier.apply(element), LongAdder::new).add(mapper.applyAsLong(element)),
+                FastCollectors::mergeCounts,
+                map -> {
+                    Map<K, Long> result = new HashMap<>(map.size() * 2);
+                    map.forEach((key, sum) -> result.put(key, sum.sum()));
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    // groupingBy(classifier, summingDouble(mapper))
+    public static <T, K> Collector<T, ?, Map<K, Double>> groupingBySummingDouble(
+            Function<? super T, ? extends K> classifier, ToDoubleFunction<? super T> mapper) {
+        return Collector.<T, ConcurrentHashMap<K, DoubleAdder>, Map<K, Double>>of(
+                ConcurrentHashMap::new,
+                (map, element) -> adder(map, classifier.apply(element), DoubleAdder::new)
+                        .add(mapper.applyAsDouble(element)),
+                (left, right) -> {
+                    right.forEach((key, sum) -> adder(left, key, DoubleAdder::new).add(sum.sum()));
+                    return left;
+                },
+                map -> {
+                    Map<K, Double> result = new HashMap<>(map.size() * 2);
+                    map.forEach((key, sum) -> result.put(key, sum.sum()));
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    // groupingBy(classifier, counting()) で、キーが long に収まるとき
+    // keyOf で long にしてから数え、最後に toKey で元の型に戻す
+    // 例: groupingByLongCounting(order -> order.getOrderDate().toEpochDay(), LocalDate::ofEpochDay)
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingByLongCounting(ToLongFunction<? super T> keyOf,
+            LongFunction<? extends K> toKey) {
+        return Collector.<T, LongDoubleHashMap, Map<K, Long>>of(
+                LongDoubleHashMap::new,
+                (map, element) -> map.add(keyOf.applyAsLong(element), 1),
+                LongDoubleHashMap::merge,
+                map -> {
+                    // 件数は 2^53 までなら double で正確
+                    Map<K, Long> result = new HashMap<>(map.size() * 2);
+                    map.forEach((key, count) -> result.put(toKey.apply(key), (long) count));
+                    return result;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    // groupingBy(classifier, summingDouble(mapper)) で、キーが long のとき（例: 従業員IDごとの売上）
+    public static <T> Collector<T, ?, Map<Long, Double>> groupingByLongSummingDouble(ToLongFunction<? super T> keyOf,
+            ToDoubleFunction<? super T> mapper) {
+        return Collector.<T, LongDoubleHashMap, Map<Long, Double>>of(
+                LongDoubleHashMap::new,
+                (map, element) -> map.add(keyOf.applyAsLong(element), mapper.applyAsDouble(element)),
+                LongDoubleHashMap::merge,
+                map -> {
+                    Map<Long, Double> result = new HashMap<>(map.size() * 2);
+                    map.forEach(result::put);
+                    return result;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    // groupingBy(classifier, counting()) で、キーが int コードに対応するとき（小さな非負のコードほど速い）
+    // 例: groupingByCodeCounting(e -> e.getAge() / 10, decade -> decade * 10 + "代")
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingByCodeCounting(ToIntFunction<? super T> codeOf,
+            IntFunction<? extends K> label) {
+        return groupingByCodeSummingLong(codeOf, element -> 1, label);
+    }
+
+    // groupingBy(classifier, summingLong(mapper)) のコード版（例: 商品コードごとの販売数量）
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingByCodeSummingLong(ToIntFunction<? super T> codeOf,
+            ToLongFunction<? super T> mapper, IntFunction<? extends K> label) {
+        return Collector.<T, CodeSums, Map<K, Long>>of(
+                CodeSums::new,
+                (sums, element) -> sums.add(codeOf.applyAsInt(element), mapper.applyAsLong(element)),
+                CodeSums::merge,
+                sums -> {
+                    Map<K, Long> result = new HashMap<>();
+                    for (int code = sums.seen.nextSetBit(0); code >= 0; code = sums.seen.nextSetBit(code + 1)) {
+                        result.put(label.apply(code), sums.values[code]);
+                    }
+                    if (sums.overflow != null) {
+                        sums.overflow.forEach((code, sum) -> result.put(label.apply(code), sum));
+                    }
+                    return result;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    // 既にあるキーは get だけで済ませ、初回だけ computeIfAbsent する（computeIfAbsent は毎回ビンをロックしうる）
+    private static <K, A> A adder(ConcurrentHashMap<K, A> map, K key, Supplier<A> create) {
+        A adder = map.get(key);
+        return adder != null ? adder : map.computeIfAbsent(key, ignored -> create.get());
+    }
+
+    // コードを添字にした合計。合計が 0 のグループも結果に残すため、現れたコードを別に持つ
+    // 範囲外のコード（負、DENSE_CODES 以上）は overflow に数える
+    private static final class CodeSums {
+        private long[] values = new long[16];
+        private final BitSet seen = new BitSet();
+        private Map<Integer, Long> overflow;
+
+        void add(int code, long value) {
+            if (code < 0 || code >= DENSE_CODES) {
+                if (overflow == null) {
+                    overflow = new HashMap<>();
+                }
+                overflow.merge(code, value, Long::sum);
+                return;
+            }
+            if (code >= values.length) {
+                values = Arrays.copyOf(values, Math.min(DENSE_CODES, Math.max(values.length * 2, code + 1)));
+            }
+            values[code] += value;
+            seen.set(code);
+        }
+
+        CodeSums merge(CodeSums other) {
+            for (int code = other.seen.nextSetBit(0); code >= 0; code = other.seen.nextSetBit(code + 1)) {
+                add(code, other.values[code]);
+            }
+            if (other.overflow != null) {
+                other.overflow.forEach(this::add);
+            }
+            return this;
+        }
+    }
+
+    private static <K> ConcurrentHashMap<K, LongAdder> mergeCounts(ConcurrentHashMap<K, LongAdder> left,
+            ConcurrentHashMap<K, LongAdder> right) {
+        right.forEach((key, count) -> adder(left, key, LongAdder::new).add(count.sum()));
+        return left;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.week2.knockout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Query.groupBy の続き。グループごとの集計を1回の走査で計算し、having / orderBy / limit はグループに対して行う
+//   例: Query.from(orders).groupBy(Order::getProduct).aggregate(quantity, amount).orderBy(...).limit(3).list()
+public final class GroupQuery<T, K> {
+
+    public record Group<K>(K key, AggregateRow values) {
+        public <R> R get(Aggregate<?, R> aggregate) {
+            return values.get(aggregate);
+        }
+    }
+
+    private final Query<T> query;
+    private final Function<? super T, ? extends K> classifier;
+    private List<Aggregate<? super T, ?>> aggregates = List.of();
+    private Predicate<? super Group<K>> having;
+    private Comparator<? super Group<K>> order;
+    private int limit = -1;
+
+    GroupQuery(Query<T> query, Function<? super T, ? extends K> classifier) {
+        this.query = query;
+        this.classifier = classifier;
+    }
+
+    @SafeVarargs
+    public final GroupQuery<T, K> aggregate(Aggregate<? super T, ?>... aggregates) {
+        if (aggregates.length == 0) {
+            throw new IllegalArgumentException("at least one aggregate is required");
+        }
+        this.aggregates = List.of(aggregates);
+        return this;
+    }
+
+    public GroupQuery<T, K> having(Predicate<? super Group<K>> condition) {
+        this.having = condition;
+        return this;
+    }
+
+    public GroupQuery<T, K> orderBy(Comparator<? super Group<K>> comparator) {
+        this.order = comparator;
+        return this;
+    }
+
+    public GroupQuery<T, K> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public List<Group<K>> list() {
+        return list(aggregates);
+    }
+
+    private List<Group<K>> list(List<Aggregate<? super T, ?>> aggregates) {
+        Map<K, AggregateRow> rows = query.filtered()
+                .collect(Collectors.groupingBy(classifier, AggregateRow.collector(aggregates)));
+        List<Group<K>> groups = new ArrayList<>(rows.size());
+        for (Map.Entry<K, AggregateRow> row : rows.entrySet()) {
+            Group<K> group = new Group<>(row.getKey(), row.getValue());
+            if (having == null || having.test(group)) {
+                groups.add(group);
+            }
+        }
+        if (order != null && limit >= 0) {
+            return groups.stream().collect(TopK.topK(limit, Query.reversed(order)));
+        }
+        if (order != null) {
+            groups.sort(order);
+        }
+        return limit >= 0 && limit < groups.size() ? new ArrayList<>(groups.subList(0, limit)) : groups;
+    }
+
+    public List<K> keys() {
+        return list().stream().map(Group::key).collect(Collectors.toList());
+    }
+
+    // キー -> 集計結果（orderBy の順）
+    public Map<K, AggregateRow> toMap() {
+        Map<K, AggregateRow> result = new LinkedHashMap<>();
+        for (Group<K> group : list()) {
+            result.put(group.key(), group.values());
+        }
+        return result;
+    }
+
+    // 集計1つだけのときの省略形。having / orderBy / limit がなければ groupingBy の結果をそのまま返す
+    public <R> Map<K, R> toMap(Aggregate<? super T, R> aggregate) {
+        if (having == null && order == null && limit < 0) {
+            return query.filtered().collect(Collectors.groupingBy(classifier, aggregate.collector()));
+        }
+        // having / orderBy が参照する集計と一緒に計算する（ビルダーの集計は変えない）
+        List<Aggregate<? super T, ?>> columns = new ArrayList<>(aggregates);
+        if (!columns.contains(aggregate)) {
+            columns.add(aggregate);
+        }
+        Map<K, R> result = new LinkedHashMap<>();
+        for (Group<K> group : list(columns)) {
+            result.put(group.key(), group.get(aggregate));
+        }
+        return result;
+    }
+}
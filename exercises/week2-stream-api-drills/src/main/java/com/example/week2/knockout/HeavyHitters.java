@@ -0,0 +1,148 @@
+package com.example.week2.knockout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+// 頻出キー（heavy hitters）の近似。回数は CountMinSketch で数え、推定値の大きい capacity 件のキーだけを候補として残す
+// groupingBy と違い、キーの種類が増えてもメモリは CountMinSketch + capacity 件で一定
+//
+// 誤差の保証（N は重みの合計）:
+//   - 推定値は真の値以上、真の値 + epsilon * N 以下（確率 1 - delta 以上）
+//   - 真の値が N / capacity を十分上回るキーは候補から落ちない
+//     （候補から追い出されるのは、推定値が候補内の最小値を超えるキーが来たときだけ）
+// マージは CountMinSketch を足し、両方の候補をマージ後の推定値で選び直す
+public final class HeavyHitters<K> {
+
+    public record Entry<K>(K key, long estimate) {
+    }
+
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final Map<K, Long> candidates = new HashMap<>();
+    // 候補の推定値の最小値の下限（候補の推定値は増える一方なので、追い出しのときだけ数え直す）
+    private long minimumBound;
+
+    public HeavyHitters() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HeavyHitters(int capacity) {
+        this(capacity, new CountMinSketch());
+    }
+
+    public HeavyHitters(int capacity, double epsilon, double delta) {
+        this(capacity, new CountMinSketch(epsilon, delta));
+    }
+
+    private HeavyHitters(int capacity, CountMinSketch sketch) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.sketch = sketch;
+    }
+
+    public static <T, K> Collector<T, ?, HeavyHitters<K>> collector(Function<? super T, ? extends K> key,
+            ToLongFunction<? super T> weight, int capacity) {
+        return Collector.of(
+                () -> new HeavyHitters<K>(capacity),
+                (hitters, element) -> hitters.add(key.apply(element), weight.applyAsLong(element)),
+                HeavyHitters::merge,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    public void add(K key) {
+        add(key, 1);
+    }
+
+    public void add(K key, long weight) {
+        long estimate = sketch.add(key, weight);
+        offer(key, estimate);
+    }
+
+    public long estimate(K key) {
+        return sketch.estimate(key);
+    }
+
+    public long totalCount() {
+        return sketch.totalCount();
+    }
+
+    public double errorBound() {
+        return sketch.errorBound();
+    }
+
+    // 推定値の大きい順に k 件
+    public List<Entry<K>> topK(int k) {
+        List<Entry<K>> entries = entries();
+        return new ArrayList<>(entries.subList(0, Math.min(k, entries.size())));
+    }
+
+    // 推定値が phi * N 以上のキー（推定値の大きい順）
+    public List<Entry<K>> heavyHitters(double phi) {
+        double threshold = phi * totalCount();
+        List<Entry<K>> result = new ArrayList<>();
+        for (Entry<K> entry : entries()) {
+            if (entry.estimate() >= threshold) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public HeavyHitters<K> merge(HeavyHitters<K> other) {
+        sketch.merge(other.sketch);
+        List<K> keys = new ArrayList<>(candidates.keySet());
+        keys.addAll(other.candidates.keySet());
+        candidates.clear();
+        minimumBound = 0;
+        for (K key : keys) {
+            if (!candidates.containsKey(key)) {
+                offer(key, sketch.estimate(key));
+            }
+        }
+        return this;
+    }
+
+    private List<Entry<K>> entries() {
+        List<Entry<K>> entries = new ArrayList<>(candidates.size());
+        // 候補に入れた後の加算も反映するため、推定値はスケッチから引き直す
+        candidates.keySet().forEach(key -> entries.add(new Entry<>(key, sketch.estimate(key))));
+        entries.sort(Comparator.comparingLong((Entry<K> entry) -> entry.estimate()).reversed());
+        return entries;
+    }
+
+    private void offer(K key, long estimate) {
+        if (candidates.containsKey(key) || candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            return;
+        }
+        if (estimate <= minimumBound) {
+            return;
+        }
+        // 候補の最小値を数え直し、それより大きければ入れ替える
+        K minimumKey = null;
+        long minimum = Long.MAX_VALUE;
+        for (Map.Entry<K, Long> candidate : candidates.entrySet()) {
+            if (candidate.getValue() < minimum) {
+                minimum = candidate.getValue();
+                minimumKey = candidate.getKey();
+            }
+        }
+        if (estimate > minimum) {
+            candidates.remove(minimumKey);
+            candidates.put(key, estimate);
+            minimumBound = Math.min(minimum, estimate);
+        } else {
+            minimumBound = minimum;
+        }
+    }
+}
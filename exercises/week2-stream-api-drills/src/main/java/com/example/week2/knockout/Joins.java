@@ -0,0 +1,239 @@
+package com.example.week2.knockout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// メモリ上の結合演算（Employee / Order / Project をキーで突き合わせる）
+// - hashJoin / hashLeftJoin: right 側（小さい方）をハッシュ表にし、left 側を1行ずつ引く。O(left + right + 結果)
+//   結果は left 側の順序、同じキーの right 側の行は right 側の順序
+// - semiJoin / antiJoin: キーの集合に含まれる（含まれない）行だけを元の順序で返す
+// - sortMergeJoin: long のキーで両側を並べ替えて突き合わせる。結果はキーの昇順（同じキーは左→右の元の順序）
+//   両側が既にキー順に近い、または結果をキー順で使うときに向く
+// 並列（ExecutionPolicy）にすると、どちらも left 側を位置で等分して処理するので、
+// 同じキーの行が極端に多くても（偏りがあっても）1つのタスクに集まらない。結果の順序は逐次と同じ
+// キーが null の行はどの行とも一致しない（SQL の結合と同じ）
+public final class Joins {
+
+    // sortMergeJoin の並列処理で1タスクが受け持つ left 側の最小行数
+    private static final int MIN_MERGE_CHUNK = 4096;
+
+    private Joins() {
+    }
+
+    // 結合結果の1行。hashLeftJoin で一致しなかった行は right が null
+    public record Match<L, R>(L left, R right) {
+    }
+
+    // left の各行を right のハッシュ表で引く（right を小さい方にする）
+    public static <L, R, K> List<Match<L, R>> hashJoin(List<L> left, Function<? super L, ? extends K> leftKey,
+            Collection<R> right, Function<? super R, ? extends K> rightKey, ExecutionPolicy policy) {
+        HashTable<K, R> table = new HashTable<>(right, rightKey);
+        return policy.stream(left)
+                .<Match<L, R>>mapMulti((row, downstream) ->
+                        table.forEachMatch(leftKey.apply(row), match -> downstream.accept(new Match<>(row, match))))
+                .collect(Collectors.toList());
+    }
+
+    // left の全行を返す（一致しなければ right が null の1行）
+    public static <L, R, K> List<Match<L, R>> hashLeftJoin(List<L> left, Function<? super L, ? extends K> leftKey,
+            Collection<R> right, Function<? super R, ? extends K> rightKey, ExecutionPolicy policy) {
+        HashTable<K, R> table = new HashTable<>(right, rightKey);
+        return policy.stream(left)
+                .<Match<L, R>>mapMulti((row, downstream) -> {
+                    if (!table.forEachMatch(leftKey.apply(row), match -> downstream.accept(new Match<>(row, match)))) {
+                        downstream.accept(new Match<>(row, null));
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+    public static <T, K> List<T> semiJoin(List<T> rows, Function<? super T, ? extends K> key,
+            Collection<? extends K> keys, ExecutionPolicy policy) {
+        Set<K> set = new HashSet<>(keys);
+        return policy.stream(rows)
+                .filter(row -> {
+                    K value = key.apply(row);
+                    return value != null && set.contains(value);
+                })
+                .collect(Collectors.toList());
+    }
+
+    public static <T, K> List<T> antiJoin(List<T> rows, Function<? super T, ? extends K> key,
+            Collection<? extends K> keys, ExecutionPolicy policy) {
+        Set<K> set = new HashSet<>(keys);
+        return policy.stream(rows)
+                .filter(row -> {
+                    K value = key.apply(row);
+                    return value == null || !set.contains(value);
+                })
+                .collect(Collectors.toList());
+    }
+
+    public static <L, R> List<Match<L, R>> sortMergeJoin(List<L> left, ToLongFunction<? super L> leftKey,
+            List<R> right, ToLongFunction<? super R> rightKey, ExecutionPolicy policy) {
+        SortedKeys leftSorted = SortedKeys.of(left, leftKey);
+        SortedKeys rightSorted = SortedKeys.of(right, rightKey);
+        int size = left.size();
+        if (!policy.isParallel(size)) {
+            return merge(left, leftSorted, right, rightSorted, 0, size);
+        }
+        int chunk = Math.max(MIN_MERGE_CHUNK, size / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+        int chunks = (size + chunk - 1) / chunk;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(c -> merge(left, leftSorted, right, rightSorted, c * chunk, Math.min(size, (c + 1) * chunk)))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    // left 側の並べ替え済みの位置 [from, to) を right 側と突き合わせる
+    // 同じキーが区間の境目をまたいでも、それぞれの区間が自分の left 側の行について right 側の同じキーの行を全部たどる
+    private static <L, R> List<Match<L, R>> merge(List<L> left, SortedKeys leftSorted, List<R> right,
+            SortedKeys rightSorted, int from, int to) {
+        List<Match<L, R>> result = new ArrayList<>();
+        if (from >= to) {
+            return result;
+        }
+        int r = rightSorted.lowerBound(leftSorted.keys[from]);
+        int l = from;
+        while (l < to && r < rightSorted.keys.length) {
+            long key = leftSorted.keys[l];
+            if (key < rightSorted.keys[r]) {
+                l++;
+            } else if (key > rightSorted.keys[r]) {
+                r++;
+            } else {
+                int runEnd = r;
+                while (runEnd < rightSorted.keys.length && rightSorted.keys[runEnd] == key) {
+                    runEnd++;
+                }
+                for (; l < to && leftSorted.keys[l] == key; l++) {
+                    L row = left.get(leftSorted.positions[l]);
+                    for (int i = r; i < runEnd; i++) {
+                        result.add(new Match<>(row, right.get(rightSorted.positions[i])));
+                    }
+                }
+                r = runEnd;
+            }
+        }
+        return result;
+    }
+
+    // キーの昇順に並べた (キー, 元の位置)。同じキーは元の順序
+    private static final class SortedKeys {
+        private final long[] keys;
+        private final int[] positions;
+
+        private SortedKeys(long[] keys, int[] positions) {
+            this.keys = keys;
+            this.positions = positions;
+        }
+
+        static <T> SortedKeys of(List<T> rows, ToLongFunction<? super T> key) {
+            int size = rows.size();
+            long[] keys = new long[size];
+            boolean fitsInt = true;
+            for (int i = 0; i < size; i++) {
+                keys[i] = key.applyAsLong(rows.get(i));
+                fitsInt &= keys[i] == (int) keys[i];
+            }
+            int[] positions = new int[size];
+            if (fitsInt) {
+                // 上位32ビットにキー、下位32ビットに位置を詰めて long のまま並べ替える（OrderDateIndex と同じ）
+                long[] packed = new long[size];
+                for (int i = 0; i < size; i++) {
+                    packed[i] = (keys[i] << 32) | i;
+                }
+                Arrays.parallelSort(packed);
+                for (int i = 0; i < size; i++) {
+                    positions[i] = (int) packed[i];
+                    keys[i] = packed[i] >> 32;
+                }
+            } else {
+                long[] original = keys.clone();
+                Integer[] boxed = new Integer[size];
+                Arrays.setAll(boxed, i -> i);
+                // 安定ソートなので同じキーは元の順序
+                Arrays.sort(boxed, Comparator.comparingLong(i -> original[i]));
+                for (int i = 0; i < size; i++) {
+                    positions[i] = boxed[i];
+                    keys[i] = original[boxed[i]];
+                }
+            }
+            return new SortedKeys(keys, positions);
+        }
+
+        int lowerBound(long key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    // キー -> 行（同じキーが複数あれば List）。重複のないキーでは List を作らない
+    private static final class HashTable<K, V> {
+        private final Map<K, Object> entries;
+
+        HashTable(Collection<V> rows, Function<? super V, ? extends K> key) {
+            this.entries = new HashMap<>(rows.size() * 2);
+            for (V row : rows) {
+                K value = key.apply(row);
+                if (value != null) {
+                    entries.merge(value, row, HashTable::append);
+                }
+            }
+        }
+
+        private static Object append(Object existing, Object row) {
+            if (existing instanceof Duplicates duplicates) {
+                duplicates.add(row);
+                return duplicates;
+            }
+            Duplicates duplicates = new Duplicates();
+            duplicates.add(existing);
+            duplicates.add(row);
+            return duplicates;
+        }
+
+        // 一致した行があれば true
+        @SuppressWarnings("unchecked")
+        boolean forEachMatch(K key, Consumer<? super V> action) {
+            Object entry = key == null ? null : entries.get(key);
+            if (entry == null) {
+                return false;
+            }
+            if (entry instanceof Duplicates duplicates) {
+                for (Object row : duplicates) {
+                    action.accept((V) row);
+                }
+            } else {
+                action.accept((V) entry);
+            }
+            return true;
+        }
+    }
+
+    // 行そのものが List の場合と区別するための型
+    private static final class Duplicates extends ArrayList<Object> {
+    }
+}
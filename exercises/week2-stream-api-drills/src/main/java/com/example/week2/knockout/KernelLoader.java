@@ -0,0 +1,23 @@
+package com.example.week2.knockout;
+
+// NumericKernels.best() の中身を一度だけ決める
+// jdk.incubator.vector がブートレイヤーにないときは VectorApiKernels を読み込まない（NoClassDefFoundError を避ける）
+final class KernelLoader {
+
+    static final NumericKernels BEST = load();
+
+    private KernelLoader() {
+    }
+
+    private static NumericKernels load() {
+        if ("scalar".equals(System.getProperty("knockout.kernels"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return ScalarKernels.INSTANCE;
+        }
+        try {
+            return VectorApiKernels.create();
+        } catch (LinkageError | RuntimeException e) {
+            return ScalarKernels.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.week2.knockout;
+
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+// StreamKnockout の問い合わせ結果を覚えておくファサード（レポートのように同じ問い合わせを何度も投げる用途）
+// - キーは 問い合わせ（名前と引数）と、その問い合わせが使うデータセットの版
+//   replaceEmployees / replaceOrders で版が上がり、そのデータセットを使う結果だけをその場で捨てる
+// - 件数の上限か、結果の推定サイズ（バイト）の上限を超えたら、最も長く使われていない結果から捨てる（LRU）
+// - 結果は入れ子の List / Map まで変更できない写しで返す（キャッシュした結果を呼び出し側が書き換えないように）
+// - データセットは受け取った時点の写しを持つので、元のリストを後から変更しても結果は変わらない
+// スレッドセーフ。計算はロックの外で行うので、同じ問い合わせが同時に来るとそれぞれが計算することがある
+public class KnockoutCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    public enum Dataset {
+        EMPLOYEES,
+        ORDERS
+    }
+
+    public record Stats(long hits, long misses, long evictions, long invalidations, int entries, long estimatedBytes) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    // 使わないデータセットの版は -1（もう一方を入れ替えても同じキーのまま）
+    private record Key(String query, List<Object> arguments, long employeesVersion, long ordersVersion) {
+    }
+
+    private record Entry(Object value, long bytes) {
+    }
+
+    private final StreamKnockout01 knockout01;
+    private final StreamKnockout02 knockout02;
+    private final StreamKnockout03 knockout03;
+    private final int maxEntries;
+    private final long maxBytes;
+    // アクセス順の LinkedHashMap（先頭が最も長く使われていない結果）
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private List<Employee> employees;
+    private List<Order> orders;
+    private long employeesVersion;
+    private long ordersVersion;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public KnockoutCache(List<Employee> employees, List<Order> orders) {
+        this(employees, orders, ExecutionPolicy.AUTO, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    public KnockoutCache(List<Employee> employees, List<Order> orders, ExecutionPolicy policy, int maxEntries,
+            long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("limits must be positive: " + maxEntries + ", " + maxBytes);
+        }
+        this.knockout01 = new StreamKnockout01(policy);
+        this.knockout02 = new StreamKnockout02(policy);
+        this.knockout03 = new StreamKnockout03(policy);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.employees = List.copyOf(employees);
+        this.orders = List.copyOf(orders);
+    }
+
+    // --- データセットの入れ替え ---
+
+    public void replaceEmployees(List<Employee> employees) {
+        List<Employee> copy = List.copyOf(employees);
+        synchronized (this) {
+            this.employees = copy;
+            employeesVersion++;
+            invalidate(Dataset.EMPLOYEES);
+        }
+    }
+
+    public void replaceOrders(List<Order> orders) {
+        List<Order> copy = List.copyOf(orders);
+        synchronized (this) {
+            this.orders = copy;
+            ordersVersion++;
+            invalidate(Dataset.ORDERS);
+        }
+    }
+
+    public synchronized long version(Dataset dataset) {
+        return dataset == Dataset.EMPLOYEES ? employeesVersion : ordersVersion;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        bytes = 0;
+    }
+
+    // --- StreamKnockout01 / 02（従業員だけを使う） ---
+
+    public Map<String, List<Employee>> groupByDepartment() {
+        return query("groupByDepartment", List.of(), EnumSet.of(Dataset.EMPLOYEES),
+                (employees, orders) -> knockout01.groupByDepartment(employees));
+    }
+
+    public Map<String, Double> averageSalaryByDepartment() {
+        return query("averageSalaryByDepartment", List.of(), EnumSet.of(Dataset.EMPLOYEES),
+                (employees, orders) -> knockout01.averageSalaryByDepartment(employees));
+    }
+
+    public Map<String, Long> countByAgeGroup() {
+        return query("countByAgeGroup", List.of(), EnumSet.of(Dataset.EMPLOYEES),
+                (employees, orders) -> knockout02.countByAgeGroup(employees));
+    }
+
+    // --- StreamKnockout03 ---
+
+    public Map<Long, Double> totalOrderAmountByEmployee() {
+        return query("totalOrderAmountByEmployee", List.of(), EnumSet.of(Dataset.ORDERS),
+                (employees, orders) -> knockout03.totalOrderAmountByEmployee(orders));
+    }
+
+    public Map<String, Integer> totalQuantityByProduct() {
+        return query("totalQuantityByProduct", List.of(), EnumSet.of(Dataset.ORDERS),
+                (employees, orders) -> knockout03.totalQuantityByProduct(orders));
+    }
+
+    public Map<String, Double> monthlySales() {
+        return query("monthlySales", List.of(), EnumSet.of(Dataset.ORDERS),
+                (employees, orders) -> knockout03.monthlySales(orders));
+    }
+
+    public List<Order> findOrdersBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return query("findOrdersBetweenDates", List.of(startDate, endDate), EnumSet.of(Dataset.ORDERS),
+                (employees, orders) -> knockout03.findOrdersBetweenDates(orders, startDate, endDate));
+    }
+
+    public Optional<Employee> findTopSalesEmployee() {
+        return query("findTopSalesEmployee", List.of(), EnumSet.allOf(Dataset.class), knockout03::findTopSalesEmployee);
+    }
+
+    public Map<String, List<String>> top3ProductsByDepartment() {
+        return query("top3ProductsByDepartment", List.of(), EnumSet.allOf(Dataset.class),
+                knockout03::top3ProductsByDepartment);
+    }
+
+    public List<Employee> createSalesRanking() {
+        return query("createSalesRanking", List.of(), EnumSet.allOf(Dataset.class), knockout03::createSalesRanking);
+    }
+
+    // 上にない問い合わせ。name と arguments で結果を区別し、dependsOn のデータセットが入れ替わったら捨てる
+    @SuppressWarnings("unchecked")
+    public <V> V query(String name, List<?> arguments, Set<Dataset> dependsOn,
+            BiFunction<List<Employee>, List<Order>, V> query) {
+        List<Employee> employeesSnapshot;
+        List<Order> ordersSnapshot;
+        long employeesSnapshotVersion;
+        long ordersSnapshotVersion;
+        Key key;
+        synchronized (this) {
+            key = new Key(name, List.copyOf(arguments),
+                    dependsOn.contains(Dataset.EMPLOYEES) ? employeesVersion : -1,
+                    dependsOn.contains(Dataset.ORDERS) ? ordersVersion : -1);
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return (V) entry.value();
+            }
+            misses++;
+            employeesSnapshot = employees;
+            ordersSnapshot = orders;
+            employeesSnapshotVersion = employeesVersion;
+            ordersSnapshotVersion = ordersVersion;
+        }
+        V value = (V) unmodifiable(query.apply(employeesSnapshot, ordersSnapshot));
+        synchronized (this) {
+            // 計算中にデータセットが入れ替わっていたら、古い版の結果は残さない
+            if (employeesSnapshotVersion == employeesVersion && ordersSnapshotVersion == ordersVersion) {
+                Entry entry = new Entry(value, estimateBytes(value));
+                Entry previous = entries.put(key, entry);
+                bytes += entry.bytes() - (previous == null ? 0 : previous.bytes());
+                evictIfNeeded();
+            }
+        }
+        return value;
+    }
+
+    private void invalidate(Dataset dataset) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            long version = dataset == Dataset.EMPLOYEES ? entry.getKey().employeesVersion() : entry.getKey().ordersVersion();
+            if (version >= 0) {
+                bytes -= entry.getValue().bytes();
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+            bytes -= iterator.next().bytes();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    // 入れ子の List / Set / Map / Map.Entry / Optional の中まで変更できない写しにする
+    // 要素の並び順は元のまま残す。null の要素・値もそのまま持てるように List.copyOf / Map.copyOf は使わない
+    private static Object unmodifiable(Object value) {
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(unmodifiable(element));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        if (value instanceof Set<?> set) {
+            Set<Object> copy = new LinkedHashSet<>(set.size() * 2);
+            for (Object element : set) {
+                copy.add(unmodifiable(element));
+            }
+            return Collections.unmodifiableSet(copy);
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 2);
+            map.forEach((key, element) -> copy.put(key, unmodifiable(element)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof Map.Entry<?, ?> entry) {
+            return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), unmodifiable(entry.getValue()));
+        }
+        if (value instanceof Optional<?> optional) {
+            return optional.map(KnockoutCache::unmodifiable);
+        }
+        return value;
+    }
+
+    // 結果が保持するメモリのおおよその量（64ビット JVM、圧縮参照を想定）
+    // Employee / Order はデータセットと共有しているので参照の分だけ数える
+    static long estimateBytes(Object value) {
+        if (value == null || value instanceof Employee || value instanceof Order) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return 40 + string.length();
+        }
+        if (value instanceof Map<?, ?> map) {
+            // HashMap のノード（32）とテーブルの参照（4 × 2）
+            long total = 48;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                total += 40 + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+            return total;
+        }
+        if (value instanceof Collection<?> collection) {
+            long total = 40 + 4L * collection.size();
+            for (Object element : collection) {
+                total += estimateBytes(element);
+            }
+            return total;
+        }
+        if (value instanceof Optional<?> optional) {
+            return 16 + estimateBytes(optional.orElse(null));
+        }
+        // Long / Double / LocalDate / YearMonth など小さな値
+        return 24;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.week2.knockout;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+// Employee / Order / Project の CSV（1行目はヘッダ）を読む
+//   employees: id,name,department,age,salary
+//   orders   : id,employeeId,product,quantity,price,orderDate(yyyy-MM-dd)
+//   projects : id,name,memberIds（; 区切り。例: 1;2;3）
+// どれもストリームを close するまでファイルを開いたままにする
+public final class KnockoutCsv {
+
+    private KnockoutCsv() {
+    }
+
+    public static Stream<Employee> employees(Path path, ExecutionPolicy policy) throws IOException {
+        return new CsvReader<>(path, true, KnockoutCsv::employee).stream(policy);
+    }
+
+    public static Stream<Order> orders(Path path, ExecutionPolicy policy) throws IOException {
+        return new CsvReader<>(path, true, KnockoutCsv::order).stream(policy);
+    }
+
+    public static Stream<Project> projects(Path path, ExecutionPolicy policy) throws IOException {
+        return new CsvReader<>(path, true, KnockoutCsv::project).stream(policy);
+    }
+
+    // 列指向の形で読み込む
+    public static EmployeeTable employeeTable(Path path, ExecutionPolicy policy) throws IOException {
+        try (Stream<Employee> employees = employees(path, policy)) {
+            return EmployeeTable.from(employees.toList());
+        }
+    }
+
+    // 注文 CSV をバイナリの注文ログ（OrderLog）に変換する。Order はヒープに溜めない
+    public static long writeOrderLog(Path csv, Path log) throws IOException {
+        try (Stream<Order> orders = orders(csv, ExecutionPolicy.SEQUENTIAL);
+                OrderLogWriter writer = new OrderLogWriter(log)) {
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                writer.append(order);
+            }
+            return writer.count();
+        }
+    }
+
+    static Employee employee(CsvRow row) {
+        return new Employee(row.nextLong(), row.nextString(), row.nextSymbol(), row.nextInt(), row.nextDouble());
+    }
+
+    static Order order(CsvRow row) {
+        return new Order(row.nextLong(), row.nextLong(), row.nextSymbol(), row.nextInt(), row.nextDouble(),
+                row.nextDate());
+    }
+
+    static Project project(CsvRow row) {
+        return new Project(row.nextLong(), row.nextString(), row.nextLongList(';'));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.week2.knockout;
+
+// long -> double のオープンアドレス法ハッシュマップ（線形探査）
+// 加算のたびに Long / Double を作らないので、1行ごとに集計する内側のループで使う
+// 使用中かどうかは別の配列で持つので、キーにはどの long でも使える
+final class LongDoubleHashMap {
+
+    @FunctionalInterface
+    interface Entry {
+        void accept(long key, double value);
+    }
+
+    private long[] keys;
+    private double[] values;
+    private boolean[] used;
+    private int size;
+
+    LongDoubleHashMap() {
+        this(16);
+    }
+
+    LongDoubleHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new double[capacity];
+        this.used = new boolean[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(long key, double delta) {
+        int slot = slot(key);
+        if (used[slot]) {
+            values[slot] += delta;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        used[slot] = true;
+        // 使用率を 1/2 以下に保つ
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    double get(long key) {
+        int slot = slot(key);
+        return used[slot] ? values[slot] : 0.0;
+    }
+
+    void addAll(LongDoubleHashMap other) {
+        other.forEach(this::add);
+    }
+
+    // 小さい方を大きい方に足して、大きい方を返す（並列集計の combiner 用）
+    static LongDoubleHashMap merge(LongDoubleHashMap left, LongDoubleHashMap right) {
+        if (left.size() < right.size()) {
+            right.addAll(left);
+            return right;
+        }
+        left.addAll(right);
+        return left;
+    }
+
+    void forEach(Entry action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    // key のある位置か、なければ入れるべき空き位置
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) SketchHash.mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                int target = slot(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+                used[target] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.week2.knockout;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+// 金額の固定小数点表現（1/100 単位の long。以下 cents）
+// - 合計は long の加算なので順序に依存せず正確（並列でも逐次と同じ値）。桁あふれは ArithmeticException
+// - Order.price / Employee.salary（double）からは centsOf で最も近い cents に丸めて取り込む
+//   （小数点以下2桁までの金額で、絶対値が 2^53 / 100 ≒ 90兆 未満なら元の金額に戻る）
+// - toDouble / toDoubles で double に戻す（|cents| < 2^53 なら最も近い double）
+//   StreamKnockout02 / 03 の double を返すメソッドはそのまま残し、同じ問題を Money で返す版を並べている
+//   （double 版は単価を丸めないので、1セント未満の端数がある金額では Money 版と結果が違う）
+//
+//   Money total = orders.stream().collect(Money.summing(Money::amountCents));
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    // これ以上の絶対値は cents にすると long に収まらない
+    private static final double MAX_AMOUNT = 0x1p63 / 100;
+
+    public static Money ofCents(long cents) {
+        return new Money(cents);
+    }
+
+    public static Money of(double amount) {
+        return new Money(centsOf(amount));
+    }
+
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact());
+    }
+
+    // 集計ループで Money を作らずに使う
+    public static long centsOf(double amount) {
+        if (Double.isNaN(amount)) {
+            throw new IllegalArgumentException("amount must not be NaN");
+        }
+        if (Math.abs(amount) >= MAX_AMOUNT) {
+            throw new ArithmeticException("amount out of range: " + amount);
+        }
+        return Math.round(amount * 100);
+    }
+
+    // --- week2 の金額 ---
+
+    public static long priceCents(Order order) {
+        return centsOf(order.getPrice());
+    }
+
+    // price * quantity（単価を cents にしてから掛けるので、掛け算の丸めがない）
+    public static long amountCents(Order order) {
+        return Math.multiplyExact(centsOf(order.getPrice()), (long) order.getQuantity());
+    }
+
+    public static long salaryCents(Employee employee) {
+        return centsOf(employee.getSalary());
+    }
+
+    // --- 演算 ---
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(cents, quantity));
+    }
+
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    // Map<K, Money> を StreamKnockout の Map<K, Double> の形に戻す
+    public static <K> Map<K, Double> toDoubles(Map<K, Money> amounts) {
+        Map<K, Double> result = new HashMap<>(amounts.size() * 2);
+        amounts.forEach((key, amount) -> result.put(key, amount.toDouble()));
+        return result;
+    }
+
+    // --- 集計 ---
+
+    // summingDouble の置き換え。long[1] に足すだけなので補正の計算も箱詰めもない
+    public static <T> Collector<T, ?, Money> summing(ToLongFunction<? super T> cents) {
+        return Collector.of(
+                () -> new long[1],
+                (total, element) -> total[0] = Math.addExact(total[0], cents.applyAsLong(element)),
+                (left, right) -> {
+                    left[0] = Math.addExact(left[0], right[0]);
+                    return left;
+                },
+                total -> new Money(total[0]),
+                Collector.Characteristics.UNORDERED);
+    }
+
+    // cents の配列の合計（列指向のテーブル用）
+    // 上位と下位の32ビットを別々の long に足す。どちらも 2^31 件までは桁あふれしないので要素ごとの検査がいらず、
+    // 分岐のない整数の加算だけのループになる（C2 が SIMD 命令にできる）。最後に合わせるときだけ桁あふれを検査する
+    public static long sum(long[] cents) {
+        long high = 0;
+        long low = 0;
+        for (long value : cents) {
+            high += value >> 32;
+            low += value & 0xFFFF_FFFFL;
+        }
+        return Math.addExact(Math.multiplyExact(high, 1L << 32), low);
+    }
+}
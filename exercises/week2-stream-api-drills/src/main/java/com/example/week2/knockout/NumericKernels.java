@@ -0,0 +1,39 @@
+package com.example.week2.knockout;
+
+// プリミティブ配列に対する集計のカーネル（EmployeeTable / OrderTable が使う）
+// - best(): jdk.incubator.vector が読み込まれていれば SIMD 版、なければスカラー版
+//   SIMD 版を使うには実行時に --add-modules jdk.incubator.vector が要る（pom の surefire / JMH の fork に指定済み）
+//   -Dknockout.kernels=scalar でスカラー版に固定できる
+// - 合計は補正なしの加算。SIMD 版はレーンごとに足してから最後に合わせるので、
+//   端数のある値では足す順序の違いで最後の桁がスカラー版とずれうる（整数値なら 2^53 まで一致）
+// - min / max は空なら +∞ / -∞、NaN があれば NaN（Math.min / Math.max と同じ）
+public interface NumericKernels {
+
+    // values[from, to) の合計
+    double sum(double[] values, int from, int to);
+
+    default double sum(double[] values) {
+        return sum(values, 0, values.length);
+    }
+
+    // Σ prices[i] * quantities[i]（注文の合計金額）
+    double sumOfProducts(double[] prices, int[] quantities);
+
+    double min(double[] values);
+
+    double max(double[] values);
+
+    // keys[i] >= threshold の行だけの values の合計（例: 年齢が threshold 以上の従業員の給与合計）
+    double sumWhereAtLeast(double[] values, int[] keys, int threshold);
+
+    // "scalar" / "vector(256 bit)" など（ベンチマークやログ用）
+    String name();
+
+    static NumericKernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+
+    static NumericKernels best() {
+        return KernelLoader.BEST;
+    }
+}
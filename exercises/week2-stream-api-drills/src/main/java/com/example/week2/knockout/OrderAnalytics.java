@@ -0,0 +1,65 @@
+package com.example.week2.knockout;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Employee / Order をまとめて索引化し、StreamKnockout03 の問い合わせを線形時間以下で答える
+// - employeeId -> Employee のハッシュ索引（従業員リストの線形探索をなくす）
+// - 従業員ごとの売上と平均売上を事前計算（filter の中で再集計しない）
+public class OrderAnalytics {
+
+    private final Map<Long, Employee> employeeIndex;
+    private final Map<Long, Double> salesByEmployee;
+    private final double averageSales;
+
+    public OrderAnalytics(List<Employee> employees, List<Order> orders) {
+        this(employees, orders, ExecutionPolicy.SEQUENTIAL);
+    }
+
+    public OrderAnalytics(List<Employee> employees, List<Order> orders, ExecutionPolicy policy) {
+        this.employeeIndex = indexById(employees);
+        this.salesByEmployee = Collections.unmodifiableMap(policy.stream(orders)
+                .collect(Collectors.groupingBy(Order::getEmployeeId,
+                        ExactSum.summing(order -> order.getPrice() * order.getQuantity()))));
+        // Map の反復順に左右されないよう、平均も正確な合計から求める
+        this.averageSales = salesByEmployee.values().stream()
+                .collect(ExactSum.averaging(Double::doubleValue));
+    }
+
+    static Map<Long, Employee> indexById(List<Employee> employees) {
+        // 同じIDが複数あれば先頭を採用（filter().findFirst() と同じ）
+        Map<Long, Employee> index = new HashMap<>(employees.size() * 2);
+        for (Employee employee : employees) {
+            index.putIfAbsent(employee.getId(), employee);
+        }
+        return index;
+    }
+
+    public Optional<Employee> findEmployee(Long id) {
+        return Optional.ofNullable(employeeIndex.get(id));
+    }
+
+    public Map<Long, Double> totalOrderAmountByEmployee() {
+        return salesByEmployee;
+    }
+
+    public double salesOf(Long employeeId) {
+        return salesByEmployee.getOrDefault(employeeId, 0.0);
+    }
+
+    public double averageSales() {
+        return averageSales;
+    }
+
+    public List<Employee> findAboveAverageSalesEmployees() {
+        // Problem 28 - 未登録の employeeId は元の実装と同じく null になる
+        return salesByEmployee.entrySet().stream()
+                .filter(entry -> entry.getValue() > averageSales)
+                .map(entry -> employeeIndex.get(entry.getKey()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.week2.knockout;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// orderDate の昇順に並べた注文の索引
+// - 期間の絞り込みは二分探索で範囲の両端を求めるので O(log n + 該当件数)
+// - 月は epoch-month（年 * 12 + 月 - 1）の int で扱い、日付順に並んだ連続区間をそのまま月別に合計する
+//   （DateTimeFormatter や String を行ごとに作らない）
+public class OrderDateIndex {
+
+    private final List<Order> source;
+    private final Order[] sortedOrders;
+    // 元のリストでの位置（期間検索の結果を元の順序で返すため）
+    private final int[] originalPositions;
+    private final long[] epochDays;
+    private final int[] epochMonths;
+    private final double[] amounts;
+
+    public OrderDateIndex(List<Order> orders) {
+        this.source = orders;
+        int size = orders.size();
+        // 上位32ビットに日付、下位32ビットに元の位置を詰めて long のままソートする（同日は元の順序）
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (orders.get(i).getOrderDate().toEpochDay() << 32) | i;
+        }
+        Arrays.parallelSort(keys);
+
+        this.sortedOrders = new Order[size];
+        this.originalPositions = new int[size];
+        this.epochDays = new long[size];
+        this.epochMonths = new int[size];
+        this.amounts = new double[size];
+        for (int i = 0; i < size; i++) {
+            int position = (int) keys[i];
+            Order order = orders.get(position);
+            sortedOrders[i] = order;
+            originalPositions[i] = position;
+            epochDays[i] = keys[i] >> 32;
+            epochMonths[i] = epochMonth(order.getOrderDate());
+            amounts[i] = order.getPrice() * order.getQuantity();
+        }
+    }
+
+    public static int epochMonth(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    public static YearMonth toYearMonth(int epochMonth) {
+        return YearMonth.of(Math.floorDiv(epochMonth, 12), Math.floorMod(epochMonth, 12) + 1);
+    }
+
+    public int size() {
+        return sortedOrders.length;
+    }
+
+    // 日付順の注文（同日は元の順序）
+    public List<Order> ordersByDate() {
+        return Collections.unmodifiableList(Arrays.asList(sortedOrders));
+    }
+
+    // 日付が [from, to) の注文を日付順で返す
+    public List<Order> range(LocalDate fromInclusive, LocalDate toExclusive) {
+        int from = lowerBound(fromInclusive.toEpochDay());
+        int to = lowerBound(toExclusive.toEpochDay());
+        return Collections.unmodifiableList(Arrays.asList(sortedOrders).subList(from, Math.max(from, to)));
+    }
+
+    public List<Order> findOrdersBetweenDates(LocalDate startDate, LocalDate endDate) {
+        // Problem 23 と同じ条件（startDate より後 かつ endDate より前）・同じ順序
+        int from = lowerBound(startDate.toEpochDay() + 1);
+        int to = lowerBound(endDate.toEpochDay());
+        if (from >= to) {
+            return new ArrayList<>();
+        }
+        int[] positions = Arrays.copyOfRange(originalPositions, from, to);
+        Arrays.sort(positions);
+        List<Order> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(source.get(position));
+        }
+        return result;
+    }
+
+    public double totalAmountBetween(LocalDate fromInclusive, LocalDate toExclusive) {
+        int from = lowerBound(fromInclusive.toEpochDay());
+        int to = lowerBound(toExclusive.toEpochDay());
+        ExactSum sum = new ExactSum();
+        for (int i = from; i < to; i++) {
+            sum.add(amounts[i]);
+        }
+        return sum.value();
+    }
+
+    // 月ごとの売上（月の昇順）。日付順に並んでいるので同じ月は連続区間になり、ハッシュ検索も要らない
+    public Map<YearMonth, Double> salesByYearMonth() {
+        Map<YearMonth, Double> result = new TreeMap<>();
+        int i = 0;
+        while (i < amounts.length) {
+            int month = epochMonths[i];
+            ExactSum sum = new ExactSum();
+            while (i < amounts.length && epochMonths[i] == month) {
+                sum.add(amounts[i++]);
+            }
+            result.put(toYearMonth(month), sum.value());
+        }
+        return result;
+    }
+
+    public Map<String, Double> monthlySales() {
+        // Problem 27 と同じ "yyyy-MM" キー。文字列は月ごとに1回だけ作る
+        Map<String, Double> result = new HashMap<>();
+        salesByYearMonth().forEach((month, sales) -> result.put(month.toString(), sales));
+        return result;
+    }
+
+    // epochDay 以上の最初の位置
+    private int lowerBound(long epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
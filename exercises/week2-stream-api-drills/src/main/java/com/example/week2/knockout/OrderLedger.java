@@ -0,0 +1,90 @@
+package com.example.week2.knockout;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// 注文を追記するたびに集計を更新する台帳（追記のみ、削除・変更はしない）
+// 1件の追記は O(1)。問い合わせは注文を再走査せず、保持している集計を返すだけ
+// StreamKnockout03 の totalOrderAmountByEmployee / totalQuantityByProduct / monthlySales /
+// findBusiestOrderDate と同じ結果になる（合計はどちらも ExactSum なので、追記の順序によらずビット単位で一致する）
+public class OrderLedger {
+
+    private final Map<Long, ExactSum> amountByEmployee = new HashMap<>();
+    private final Map<String, Integer> quantityByProduct = new HashMap<>();
+    private final Map<YearMonth, ExactSum> amountByMonth = new HashMap<>();
+    private final Map<LocalDate, Long> countByDate = new HashMap<>();
+    private final ExactSum totalAmount = new ExactSum();
+    private long orderCount;
+    private LocalDate busiestDate;
+    private long busiestDateCount;
+
+    public static OrderLedger of(Collection<Order> orders) {
+        OrderLedger ledger = new OrderLedger();
+        ledger.appendAll(orders);
+        return ledger;
+    }
+
+    public synchronized void append(Order order) {
+        double amount = order.getPrice() * order.getQuantity();
+        amountByEmployee.computeIfAbsent(order.getEmployeeId(), id -> new ExactSum()).add(amount);
+        quantityByProduct.merge(order.getProduct(), order.getQuantity(), Integer::sum);
+        amountByMonth.computeIfAbsent(YearMonth.from(order.getOrderDate()), month -> new ExactSum()).add(amount);
+        long dateCount = countByDate.merge(order.getOrderDate(), 1L, Long::sum);
+        // 件数は増えるだけなので、最大値は追記のたびに比較するだけで保てる
+        // 同数の場合は先にその件数へ達した日を残す
+        if (dateCount > busiestDateCount) {
+            busiestDateCount = dateCount;
+            busiestDate = order.getOrderDate();
+        }
+        totalAmount.add(amount);
+        orderCount++;
+    }
+
+    public synchronized void appendAll(Collection<Order> orders) {
+        for (Order order : orders) {
+            append(order);
+        }
+    }
+
+    public synchronized long orderCount() {
+        return orderCount;
+    }
+
+    public synchronized double calculateTotalOrderAmount() {
+        return totalAmount.value();
+    }
+
+    public synchronized Map<Long, Double> totalOrderAmountByEmployee() {
+        Map<Long, Double> result = new HashMap<>();
+        amountByEmployee.forEach((employeeId, sum) -> result.put(employeeId, sum.value()));
+        return result;
+    }
+
+    public synchronized double totalOrderAmountOf(Long employeeId) {
+        ExactSum sum = amountByEmployee.get(employeeId);
+        return sum == null ? 0.0 : sum.value();
+    }
+
+    public synchronized Map<String, Integer> totalQuantityByProduct() {
+        return new HashMap<>(quantityByProduct);
+    }
+
+    public synchronized Map<String, Double> monthlySales() {
+        // キーは monthlySales と同じ "yyyy-MM"（YearMonth#toString と同じ形式）
+        Map<String, Double> result = new HashMap<>();
+        amountByMonth.forEach((month, sum) -> result.put(month.toString(), sum.value()));
+        return result;
+    }
+
+    public synchronized Map<LocalDate, Long> orderCountByDate() {
+        return new HashMap<>(countByDate);
+    }
+
+    public synchronized Optional<LocalDate> findBusiestOrderDate() {
+        return Optional.ofNullable(busiestDate);
+    }
+}
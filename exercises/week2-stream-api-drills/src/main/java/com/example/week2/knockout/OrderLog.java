@@ -0,0 +1,276 @@
+package com.example.week2.knockout;
+
+import static com.example.week2.knockout.OrderLogWriter.EMPLOYEE_ID_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.EPOCH_DAY_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.HEADER_BYTES;
+import static com.example.week2.knockout.OrderLogWriter.ID_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.PRICE_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.PRODUCT_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.QUANTITY_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.RECORD_BYTES;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// OrderLogWriter で書いたファイルをメモリマップして読む
+// Order をヒープに作らずにレコードを直接読むので、1億件を超える注文でもヒープに載せずに集計できる
+// MappedByteBuffer は 2GB までなので、レコード境界でそろえた 1GB 程度のチャンクに分けてマップする
+public class OrderLog implements Closeable {
+
+    private static final long RECORDS_PER_CHUNK = (1L << 30) / RECORD_BYTES;
+    private static final long CHUNK_BYTES = RECORDS_PER_CHUNK * RECORD_BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long count;
+    private final String[] products;
+
+    private OrderLog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        MappedByteBuffer header = map(0, HEADER_BYTES);
+        if (header.getInt(0) != OrderLogWriter.MAGIC) {
+            throw new IOException("not an order log");
+        }
+        if (header.getInt(4) != OrderLogWriter.VERSION) {
+            throw new IOException("unsupported order log version: " + header.getInt(4));
+        }
+        this.count = header.getLong(8);
+        long dictionaryOffset = header.getLong(16);
+
+        int chunkCount = (int) ((count + RECORDS_PER_CHUNK - 1) / RECORDS_PER_CHUNK);
+        this.chunks = new MappedByteBuffer[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            long start = HEADER_BYTES + chunk * CHUNK_BYTES;
+            long records = Math.min(RECORDS_PER_CHUNK, count - chunk * RECORDS_PER_CHUNK);
+            chunks[chunk] = map(start, records * RECORD_BYTES);
+        }
+        this.products = readDictionary(map(dictionaryOffset, channel.size() - dictionaryOffset));
+    }
+
+    public static OrderLog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new OrderLog(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int productCount() {
+        return products.length;
+    }
+
+    public String product(int code) {
+        return products[code];
+    }
+
+    // --- レコードの読み出し ---
+
+    public long id(long index) {
+        return chunk(index).getLong(offset(index) + ID_OFFSET);
+    }
+
+    public long employeeId(long index) {
+        return chunk(index).getLong(offset(index) + EMPLOYEE_ID_OFFSET);
+    }
+
+    public int productCode(long index) {
+        return chunk(index).getInt(offset(index) + PRODUCT_OFFSET);
+    }
+
+    public int quantity(long index) {
+        return chunk(index).getInt(offset(index) + QUANTITY_OFFSET);
+    }
+
+    public double price(long index) {
+        return chunk(index).getDouble(offset(index) + PRICE_OFFSET);
+    }
+
+    public int epochDay(long index) {
+        return chunk(index).getInt(offset(index) + EPOCH_DAY_OFFSET);
+    }
+
+    public Order order(long index) {
+        return new Order(id(index), employeeId(index), product(productCode(index)), quantity(index), price(index),
+                LocalDate.ofEpochDay(epochDay(index)));
+    }
+
+    // 先頭から順にすべてのレコードを渡す（OrderSegmentStore.forEach と同じ形）
+    public void forEach(OrderSegmentStore.RecordVisitor visitor) {
+        for (long index = 0; index < count; index++) {
+            MappedByteBuffer chunk = chunk(index);
+            int base = offset(index);
+            visitor.visit(chunk.getLong(base + ID_OFFSET), chunk.getLong(base + EMPLOYEE_ID_OFFSET),
+                    chunk.getInt(base + PRODUCT_OFFSET), chunk.getInt(base + QUANTITY_OFFSET),
+                    chunk.getDouble(base + PRICE_OFFSET), chunk.getInt(base + EPOCH_DAY_OFFSET));
+        }
+    }
+
+    // --- ストリーム（パッケージ内の集計用） ---
+    // 要素は同じ OrderRecord カーソルを動かして渡すので、要素を保持する操作（toList、sorted、max など）には使えない
+    // 外から使うときは forEach か order(index) で値を取り出す
+
+    Spliterator<OrderRecord> spliterator() {
+        return new RecordSpliterator(0, count);
+    }
+
+    Stream<OrderRecord> stream(ExecutionPolicy policy) {
+        return StreamSupport.stream(spliterator(), policy.isParallel((int) Math.min(count, Integer.MAX_VALUE)));
+    }
+
+    // --- StreamKnockout03 と同じ集計（レコードを直接読む） ---
+
+    public double calculateTotalOrderAmount(ExecutionPolicy policy) {
+        // Problem 21
+        return stream(policy).collect(ExactSum.summing(OrderRecord::amount));
+    }
+
+    public Map<Long, Double> totalOrderAmountByEmployee(ExecutionPolicy policy) {
+        // Problem 22
+        return stream(policy).collect(Collectors.groupingBy(OrderRecord::employeeId,
+                ExactSum.summing(OrderRecord::amount)));
+    }
+
+    public List<Order> findOrdersBetweenDates(LocalDate startDate, LocalDate endDate, ExecutionPolicy policy) {
+        // Problem 23 - 条件に合ったレコードだけを Order にする
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        return stream(policy)
+                .filter(record -> record.epochDay() > start && record.epochDay() < end)
+                .map(OrderRecord::toOrder)
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Integer> totalQuantityByProduct(ExecutionPolicy policy) {
+        // Problem 24 - 商品コードを添字にした配列に集計し、最後に商品名へ戻す
+        // groupingByCodeSummingLong は現れたコードを覚えているので、合計が 0 の商品も結果に残る
+        Map<String, Long> quantities = stream(policy).collect(FastCollectors.groupingByCodeSummingLong(
+                OrderRecord::productCode, OrderRecord::quantity, code -> products[code]));
+        Map<String, Integer> result = new HashMap<>(quantities.size() * 2);
+        quantities.forEach((product, quantity) -> result.put(product, quantity.intValue()));
+        return result;
+    }
+
+    public Map<String, Double> monthlySales(ExecutionPolicy policy) {
+        // Problem 27
+        Map<Integer, Double> byEpochMonth = stream(policy).collect(Collectors.groupingBy(
+                record -> OrderDateIndex.epochMonth(LocalDate.ofEpochDay(record.epochDay())),
+                ExactSum.summing(OrderRecord::amount)));
+        Map<String, Double> result = new HashMap<>();
+        byEpochMonth.forEach((month, sales) -> result.put(OrderDateIndex.toYearMonth(month).toString(), sales));
+        return result;
+    }
+
+    public Optional<LocalDate> findBusiestOrderDate(ExecutionPolicy policy) {
+        // Problem 29
+        return stream(policy)
+                .collect(Collectors.groupingBy(OrderRecord::epochDay, Collectors.counting()))
+                .entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(entry -> LocalDate.ofEpochDay(entry.getKey()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        // マップ自体は GC で解放される
+        channel.close();
+    }
+
+    private MappedByteBuffer map(long position, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private MappedByteBuffer chunk(long index) {
+        return chunks[(int) (index / RECORDS_PER_CHUNK)];
+    }
+
+    private static int offset(long index) {
+        return (int) (index % RECORDS_PER_CHUNK) * RECORD_BYTES;
+    }
+
+    private static String[] readDictionary(MappedByteBuffer buffer) {
+        int size = buffer.getInt();
+        List<String> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            byte[] utf8 = new byte[buffer.getInt()];
+            buffer.get(utf8);
+            products.add(new String(utf8, StandardCharsets.UTF_8));
+        }
+        return products.toArray(String[]::new);
+    }
+
+    // [from, to) のレコードを1つのカーソルで順に渡す。trySplit で半分ずつに分割できる
+    private final class RecordSpliterator implements Spliterator<OrderRecord> {
+        private final OrderRecord cursor = new OrderRecord(OrderLog.this);
+        private long from;
+        private final long to;
+
+        RecordSpliterator(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super OrderRecord> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(cursor.moveTo(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super OrderRecord> action) {
+            for (long index = from; index < to; index++) {
+                action.accept(cursor.moveTo(index));
+            }
+            from = to;
+        }
+
+        @Override
+        public Spliterator<OrderRecord> trySplit() {
+            long mid = (from + to) >>> 1;
+            if (mid <= from) {
+                return null;
+            }
+            Spliterator<OrderRecord> prefix = new RecordSpliterator(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            // 同じカーソルを書き換えて渡すので IMMUTABLE ではない
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.week2.knockout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Order を固定長バイナリで書き出す（読み込みは OrderLog）
+//
+// ファイル形式（リトルエンディアン）
+//   ヘッダ 32バイト : magic(int) version(int) 件数(long) 商品辞書の位置(long) 予約(long)
+//   レコード 40バイト: id(long) employeeId(long) 商品コード(int) quantity(int) price(double) epochDay(int) 予約(int)
+//   商品辞書        : 件数(int) と、商品ごとに UTF-8 のバイト数(int) + バイト列（コード順）
+public class OrderLogWriter implements Closeable {
+
+    static final int MAGIC = 0x4F52444C; // "ORDL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 40;
+
+    static final int ID_OFFSET = 0;
+    static final int EMPLOYEE_ID_OFFSET = 8;
+    static final int PRODUCT_OFFSET = 16;
+    static final int QUANTITY_OFFSET = 20;
+    static final int PRICE_OFFSET = 24;
+    static final int EPOCH_DAY_OFFSET = 32;
+
+    private static final int BUFFER_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final StringDictionary products = new StringDictionary();
+    private long count;
+    private boolean closed;
+
+    public OrderLogWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        // ヘッダは close 時に書き直す
+        channel.position(HEADER_BYTES);
+    }
+
+    public static void write(Path path, Iterable<Order> orders) throws IOException {
+        try (OrderLogWriter writer = new OrderLogWriter(path)) {
+            for (Order order : orders) {
+                writer.append(order);
+            }
+        }
+    }
+
+    public void append(Order order) throws IOException {
+        append(order.getId(), order.getEmployeeId(), order.getProduct(), order.getQuantity(), order.getPrice(),
+                order.getOrderDate().toEpochDay());
+    }
+
+    // Order を作らずに書き込む場合
+    public void append(long id, long employeeId, String product, int quantity, double price, long epochDay)
+            throws IOException {
+        if (closed) {
+            throw new IllegalStateException("writer is closed");
+        }
+        if (buffer.remaining() < RECORD_BYTES) {
+            flush();
+        }
+        int base = buffer.position();
+        buffer.putLong(base + ID_OFFSET, id)
+                .putLong(base + EMPLOYEE_ID_OFFSET, employeeId)
+                .putInt(base + PRODUCT_OFFSET, products.encode(product))
+                .putInt(base + QUANTITY_OFFSET, quantity)
+                .putDouble(base + PRICE_OFFSET, price)
+                .putInt(base + EPOCH_DAY_OFFSET, Math.toIntExact(epochDay))
+                .putInt(base + EPOCH_DAY_OFFSET + 4, 0);
+        buffer.position(base + RECORD_BYTES);
+        count++;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (channel) {
+            flush();
+            long dictionaryOffset = channel.position();
+            writeDictionary();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(count)
+                    .putLong(dictionaryOffset)
+                    .putLong(0L)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void writeDictionary() throws IOException {
+        List<byte[]> encoded = new ArrayList<>(products.size());
+        int bytes = Integer.BYTES;
+        for (int code = 0; code < products.size(); code++) {
+            byte[] utf8 = products.label(code).getBytes(StandardCharsets.UTF_8);
+            encoded.add(utf8);
+            bytes += Integer.BYTES + utf8.length;
+        }
+        ByteBuffer dictionary = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        dictionary.putInt(encoded.size());
+        for (byte[] utf8 : encoded) {
+            dictionary.putInt(utf8.length).put(utf8);
+        }
+        dictionary.flip();
+        while (dictionary.hasRemaining()) {
+            channel.write(dictionary);
+        }
+    }
+}
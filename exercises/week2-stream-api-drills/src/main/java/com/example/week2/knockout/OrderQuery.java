@@ -0,0 +1,50 @@
+package com.example.week2.knockout;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Order 向けの Query の入口と、よく使う条件・キー・集計
+//   例: OrderQuery.from(orders).groupBy(Order::getEmployeeId).toMap(OrderQuery.amount())
+public final class OrderQuery {
+
+    private OrderQuery() {
+    }
+
+    public static Query<Order> from(Collection<Order> orders) {
+        return Query.from(orders);
+    }
+
+    public static Query<Order> from(Collection<Order> orders, ExecutionPolicy policy) {
+        return Query.from(orders).with(policy);
+    }
+
+    // startDate より後かつ endDate より前（両端を含まない）
+    public static Predicate<Order> between(LocalDate startDate, LocalDate endDate) {
+        return order -> order.getOrderDate().isAfter(startDate) && order.getOrderDate().isBefore(endDate);
+    }
+
+    public static Function<Order, YearMonth> yearMonth() {
+        return order -> YearMonth.from(order.getOrderDate());
+    }
+
+    public static Aggregate<Order, Long> orderCount() {
+        return Aggregate.count();
+    }
+
+    // 金額（price * quantity）の合計
+    public static Aggregate<Order, Double> amount() {
+        return Aggregate.sum(order -> order.getPrice() * order.getQuantity());
+    }
+
+    // 金額の正確な合計（cents）
+    public static Aggregate<Order, Money> money() {
+        return Aggregate.of("money", Money.summing(Money::amountCents));
+    }
+
+    public static Aggregate<Order, Integer> quantity() {
+        return Aggregate.sumInt(Order::getQuantity);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.week2.knockout;
+
+import java.time.LocalDate;
+
+// OrderLog の1レコードを読むためのカーソル（パッケージ内の集計用）
+// Spliterator が同じインスタンスの位置を動かしながら渡すので、コールバックの外で保持しないこと
+// （保持したい場合は toOrder() で Order にする）
+final class OrderRecord {
+
+    private final OrderLog log;
+    private long index;
+
+    OrderRecord(OrderLog log) {
+        this.log = log;
+    }
+
+    OrderRecord moveTo(long index) {
+        this.index = index;
+        return this;
+    }
+
+    public long index() {
+        return index;
+    }
+
+    public long id() {
+        return log.id(index);
+    }
+
+    public long employeeId() {
+        return log.employeeId(index);
+    }
+
+    public int productCode() {
+        return log.productCode(index);
+    }
+
+    public String product() {
+        return log.product(productCode());
+    }
+
+    public int quantity() {
+        return log.quantity(index);
+    }
+
+    public double price() {
+        return log.price(index);
+    }
+
+    public int epochDay() {
+        return log.epochDay(index);
+    }
+
+    public double amount() {
+        return log.price(index) * log.quantity(index);
+    }
+
+    public Order toOrder() {
+        return log.order(index);
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.week2.knockout;
+
+import static com.example.week2.knockout.OrderLogWriter.EMPLOYEE_ID_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.EPOCH_DAY_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.ID_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.PRICE_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.PRODUCT_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.QUANTITY_OFFSET;
+import static com.example.week2.knockout.OrderLogWriter.RECORD_BYTES;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// 注文を Java ヒープの外（Arena で確保した MemorySegment）に固定長レコードで持つ
+// - レコードの形式は OrderLogWriter と同じ 40バイト。商品名だけヒープ上の辞書でコードにする
+// - 一定件数ごとのチャンクを確保して追加するので、伸ばすときにコピーしない
+// - 1億件を超えても GC が走査するのは辞書とチャンクの参照だけ
+// - 集計はレコードを直接読み、1行ごとに Order を作らない
+// - 金額の合計は List 版と同じ ExactSum なので、逐次でも並列でも List 版と同じ値になる。従業員ごとの合計はキーの Long を作る
+// 寿命は close() まで（Arena を閉じるとメモリを返し、以降の読み書きは IllegalStateException）
+// 追加は1スレッドから行い、集計は追加が終わってから行うこと。集計自体は並列に走らせてよい
+// Java 21 では FFM API がプレビューなので --enable-preview が必要（pom で指定済み）
+public class OrderSegmentStore implements AutoCloseable {
+
+    private static final int DEFAULT_RECORDS_PER_CHUNK = 1 << 20;
+    // 並列集計で1タスクが受け持つレコード数
+    private static final int SLICE_RECORDS = 1 << 16;
+
+    private final Arena arena = Arena.ofShared();
+    private final int recordsPerChunk;
+    private MemorySegment[] chunks = new MemorySegment[4];
+    private long count;
+    private final StringDictionary products = new StringDictionary();
+
+    public OrderSegmentStore() {
+        this(DEFAULT_RECORDS_PER_CHUNK);
+    }
+
+    public OrderSegmentStore(int recordsPerChunk) {
+        if (recordsPerChunk <= 0) {
+            throw new IllegalArgumentException("recordsPerChunk must be positive: " + recordsPerChunk);
+        }
+        this.recordsPerChunk = recordsPerChunk;
+    }
+
+    public static OrderSegmentStore of(Iterable<Order> orders) {
+        OrderSegmentStore store = new OrderSegmentStore();
+        for (Order order : orders) {
+            store.append(order);
+        }
+        return store;
+    }
+
+    public void append(Order order) {
+        append(order.getId(), order.getEmployeeId(), order.getProduct(), order.getQuantity(), order.getPrice(),
+                order.getOrderDate().toEpochDay());
+    }
+
+    // Order を作らずに追加する場合。追加したレコードの位置を返す
+    public long append(long id, long employeeId, String product, int quantity, double price, long epochDay) {
+        int chunk = (int) (count / recordsPerChunk);
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = arena.allocate((long) recordsPerChunk * RECORD_BYTES, Long.BYTES);
+        }
+        MemorySegment segment = chunks[chunk];
+        long base = (count % recordsPerChunk) * RECORD_BYTES;
+        segment.set(JAVA_LONG, base + ID_OFFSET, id);
+        segment.set(JAVA_LONG, base + EMPLOYEE_ID_OFFSET, employeeId);
+        segment.set(JAVA_INT, base + PRODUCT_OFFSET, products.encode(product));
+        segment.set(JAVA_INT, base + QUANTITY_OFFSET, quantity);
+        segment.set(JAVA_DOUBLE, base + PRICE_OFFSET, price);
+        segment.set(JAVA_INT, base + EPOCH_DAY_OFFSET, Math.toIntExact(epochDay));
+        return count++;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int productCount() {
+        return products.size();
+    }
+
+    public String product(int code) {
+        return products.label(code);
+    }
+
+    // 確保済みのヒープ外メモリ（バイト）
+    public long reservedBytes() {
+        long reserved = 0;
+        for (MemorySegment chunk : chunks) {
+            reserved += chunk == null ? 0 : chunk.byteSize();
+        }
+        return reserved;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    // --- 位置を指定した読み出し ---
+
+    public long id(long index) {
+        return segment(index).get(JAVA_LONG, offset(index) + ID_OFFSET);
+    }
+
+    public long employeeId(long index) {
+        return segment(index).get(JAVA_LONG, offset(index) + EMPLOYEE_ID_OFFSET);
+    }
+
+    public int productCode(long index) {
+        return segment(index).get(JAVA_INT, offset(index) + PRODUCT_OFFSET);
+    }
+
+    public int quantity(long index) {
+        return segment(index).get(JAVA_INT, offset(index) + QUANTITY_OFFSET);
+    }
+
+    public double price(long index) {
+        return segment(index).get(JAVA_DOUBLE, offset(index) + PRICE_OFFSET);
+    }
+
+    public int epochDay(long index) {
+        return segment(index).get(JAVA_INT, offset(index) + EPOCH_DAY_OFFSET);
+    }
+
+    public Order order(long index) {
+        return new Order(id(index), employeeId(index), product(productCode(index)), quantity(index), price(index),
+                LocalDate.ofEpochDay(epochDay(index)));
+    }
+
+    // --- 順に読む ---
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long id, long employeeId, int productCode, int quantity, double price, int epochDay);
+    }
+
+    // 追加順にすべてのレコードを渡す
+    public void forEach(RecordVisitor visitor) {
+        for (int chunk = 0; chunk * (long) recordsPerChunk < count; chunk++) {
+            MemorySegment segment = chunks[chunk];
+            int records = recordsIn(chunk);
+            for (long base = 0; base < (long) records * RECORD_BYTES; base += RECORD_BYTES) {
+                visitor.visit(segment.get(JAVA_LONG, base + ID_OFFSET),
+                        segment.get(JAVA_LONG, base + EMPLOYEE_ID_OFFSET),
+                        segment.get(JAVA_INT, base + PRODUCT_OFFSET),
+                        segment.get(JAVA_INT, base + QUANTITY_OFFSET),
+                        segment.get(JAVA_DOUBLE, base + PRICE_OFFSET),
+                        segment.get(JAVA_INT, base + EPOCH_DAY_OFFSET));
+            }
+        }
+    }
+
+    // --- StreamKnockout03 と同じ集計（レコードを直接読む） ---
+
+    public double calculateTotalOrderAmount(ExecutionPolicy policy) {
+        // Problem 21 - List 版と同じ正確な合計
+        return aggregate(policy, ExactSum::new, (sum, segment, from, to) -> {
+            for (long base = from; base < to; base += RECORD_BYTES) {
+                sum.add(segment.get(JAVA_DOUBLE, base + PRICE_OFFSET) * segment.get(JAVA_INT, base + QUANTITY_OFFSET));
+            }
+        }, ExactSum::merge).value();
+    }
+
+    public Map<Long, Double> totalOrderAmountByEmployee(ExecutionPolicy policy) {
+        // Problem 22 - 従業員ごとに正確な合計を持つ
+        Map<Long, ExactSum> sums = aggregate(policy, HashMap<Long, ExactSum>::new, (map, segment, from, to) -> {
+            for (long base = from; base < to; base += RECORD_BYTES) {
+                map.computeIfAbsent(segment.get(JAVA_LONG, base + EMPLOYEE_ID_OFFSET), id -> new ExactSum())
+                        .add(segment.get(JAVA_DOUBLE, base + PRICE_OFFSET) * segment.get(JAVA_INT, base + QUANTITY_OFFSET));
+            }
+        }, OrderSegmentStore::mergeSums);
+        Map<Long, Double> result = new HashMap<>(sums.size() * 2);
+        sums.forEach((employeeId, sum) -> result.put(employeeId, sum.value()));
+        return result;
+    }
+
+    public List<Order> findOrdersBetweenDates(LocalDate startDate, LocalDate endDate, ExecutionPolicy policy) {
+        // Problem 23 - 条件に合ったレコードだけを Order にする
+        // 結果は追加順にそろえるので、並列でも分割単位のリストを順に連結する
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        return aggregate(policy, ArrayList<Order>::new, (list, segment, from, to) -> {
+            for (long base = from; base < to; base += RECORD_BYTES) {
+                int epochDay = segment.get(JAVA_INT, base + EPOCH_DAY_OFFSET);
+                if (epochDay > start && epochDay < end) {
+                    list.add(new Order(segment.get(JAVA_LONG, base + ID_OFFSET),
+                            segment.get(JAVA_LONG, base + EMPLOYEE_ID_OFFSET),
+                            products.label(segment.get(JAVA_INT, base + PRODUCT_OFFSET)),
+                            segment.get(JAVA_INT, base + QUANTITY_OFFSET),
+                            segment.get(JAVA_DOUBLE, base + PRICE_OFFSET),
+                            LocalDate.ofEpochDay(epochDay)));
+                }
+            }
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    public Map<String, Integer> totalQuantityByProduct(ExecutionPolicy policy) {
+        // Problem 24 - 商品コードを添字にした配列に集計し、最後に商品名へ戻す
+        // 前半に数量の合計、後半にレコード数を持つ。合計が 0 の商品もレコード数で残す
+        int productCount = products.size();
+        long[] quantities = aggregate(policy, () -> new long[productCount * 2], (sums, segment, from, to) -> {
+            for (long base = from; base < to; base += RECORD_BYTES) {
+                int code = segment.get(JAVA_INT, base + PRODUCT_OFFSET);
+                sums[code] += segment.get(JAVA_INT, base + QUANTITY_OFFSET);
+                sums[productCount + code]++;
+            }
+        }, (left, right) -> {
+            for (int i = 0; i < left.length; i++) {
+                left[i] += right[i];
+            }
+            return left;
+        });
+        Map<String, Integer> result = new HashMap<>();
+        for (int code = 0; code < productCount; code++) {
+            if (quantities[productCount + code] != 0) {
+                result.put(products.label(code), (int) quantities[code]);
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Double> monthlySales(ExecutionPolicy policy) {
+        // Problem 27 - 月は epochDay から計算で求め、LocalDate を作らない。合計は List 版と同じ正確な合計
+        Map<Integer, ExactSum> sums = aggregate(policy, HashMap<Integer, ExactSum>::new, (map, segment, from, to) -> {
+            int cachedDay = Integer.MIN_VALUE;
+            ExactSum cachedSum = null;
+            for (long base = from; base < to; base += RECORD_BYTES) {
+                int epochDay = segment.get(JAVA_INT, base + EPOCH_DAY_OFFSET);
+                if (epochDay != cachedDay) {
+                    cachedDay = epochDay;
+                    cachedSum = map.computeIfAbsent(epochMonth(epochDay), month -> new ExactSum());
+                }
+                cachedSum.add(segment.get(JAVA_DOUBLE, base + PRICE_OFFSET) * segment.get(JAVA_INT, base + QUANTITY_OFFSET));
+            }
+        }, OrderSegmentStore::mergeSums);
+        Map<String, Double> result = new HashMap<>();
+        sums.forEach((month, sum) -> result.put(OrderDateIndex.toYearMonth(month).toString(), sum.value()));
+        return result;
+    }
+
+    public Optional<LocalDate> findBusiestOrderDate(ExecutionPolicy policy) {
+        // Problem 29 - 件数が同じ日は早い方
+        // List 版（StreamKnockout03.findBusiestOrderDate(List)）は同数の日のどれを返すかを決めていない
+        LongDoubleHashMap counts = aggregate(policy, LongDoubleHashMap::new, (map, segment, from, to) -> {
+            for (long base = from; base < to; base += RECORD_BYTES) {
+                map.add(segment.get(JAVA_INT, base + EPOCH_DAY_OFFSET), 1);
+            }
+        }, LongDoubleHashMap::merge);
+        if (counts.size() == 0) {
+            return Optional.empty();
+        }
+        long[] busiest = {Long.MAX_VALUE};
+        double[] most = {0};
+        counts.forEach((epochDay, count) -> {
+            if (count > most[0] || (count == most[0] && epochDay < busiest[0])) {
+                most[0] = count;
+                busiest[0] = epochDay;
+            }
+        });
+        return Optional.of(LocalDate.ofEpochDay(busiest[0]));
+    }
+
+    // OrderDateIndex.epochMonth と同じ値（年 * 12 + 月 - 1）を epochDay から求める
+    // 日付から年月日への変換は、3月始まりの暦で考える方法（H. Hinnant の civil_from_days）
+    static int epochMonth(int epochDay) {
+        long z = epochDay + 719_468L;
+        long era = Math.floorDiv(z, 146_097L);
+        long dayOfEra = z - era * 146_097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 12 + month - 1);
+    }
+
+    // --- 集計の枠組み ---
+
+    @FunctionalInterface
+    private interface SliceAggregator<A> {
+        // segment の [from, to) バイトにあるレコードを container に集計する
+        void accumulate(A container, MemorySegment segment, long from, long to);
+    }
+
+    // レコードを SLICE_RECORDS 件ずつに分け、並列なら分けた単位で集計して最後に合わせる
+    private <A> A aggregate(ExecutionPolicy policy, Supplier<A> supplier, SliceAggregator<A> accumulator,
+            BinaryOperator<A> combiner) {
+        int slicesPerChunk = (recordsPerChunk + SLICE_RECORDS - 1) / SLICE_RECORDS;
+        int chunkCount = (int) ((count + recordsPerChunk - 1) / recordsPerChunk);
+        int slices = chunkCount * slicesPerChunk;
+        if (!policy.isParallel((int) Math.min(count, Integer.MAX_VALUE))) {
+            A container = supplier.get();
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                accumulator.accumulate(container, chunks[chunk], 0, (long) recordsIn(chunk) * RECORD_BYTES);
+            }
+            return container;
+        }
+        return IntStream.range(0, slices).parallel()
+                .mapToObj(slice -> {
+                    A container = supplier.get();
+                    int chunk = slice / slicesPerChunk;
+                    long from = (long) (slice % slicesPerChunk) * SLICE_RECORDS;
+                    long to = Math.min(from + SLICE_RECORDS, recordsIn(chunk));
+                    if (from < to) {
+                        accumulator.accumulate(container, chunks[chunk], from * RECORD_BYTES, to * RECORD_BYTES);
+                    }
+                    return container;
+                })
+                .reduce(combiner)
+                .orElseGet(supplier);
+    }
+
+    private static <K> HashMap<K, ExactSum> mergeSums(HashMap<K, ExactSum> left, HashMap<K, ExactSum> right) {
+        right.forEach((key, sum) -> left.merge(key, sum, ExactSum::merge));
+        return left;
+    }
+
+    private int recordsIn(int chunk) {
+        return (int) Math.min(recordsPerChunk, count - (long) chunk * recordsPerChunk);
+    }
+
+    private MemorySegment segment(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index " + index + " out of range [0, " + count + ")");
+        }
+        return chunks[(int) (index / recordsPerChunk)];
+    }
+
+    private long offset(long index) {
+        return (index % recordsPerChunk) * RECORD_BYTES;
+    }
+
+}
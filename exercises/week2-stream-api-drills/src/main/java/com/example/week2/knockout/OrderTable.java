@@ -0,0 +1,155 @@
+package com.example.week2.knockout;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Order を列指向（Struct of Arrays）で保持するテーブル（EmployeeTable の注文版）
+// 合計金額などは NumericKernels（使えれば SIMD）で列をそのまま走査する
+// 正確な合計には取り込み時に求めた金額（cents、Money）の列を使う
+public class OrderTable {
+
+    private static final NumericKernels KERNELS = NumericKernels.best();
+
+    private final long[] ids;
+    private final long[] employeeIds;
+    // 商品は辞書エンコード（products.label(productCodes[row]) が商品名）
+    private final int[] productCodes;
+    private final StringDictionary products;
+    private final int[] quantities;
+    private final double[] prices;
+    private final int[] epochDays;
+    // price * quantity の cents
+    private final long[] amountCents;
+
+    OrderTable(long[] ids, long[] employeeIds, int[] productCodes, StringDictionary products, int[] quantities,
+            double[] prices, int[] epochDays, long[] amountCents) {
+        this.ids = ids;
+        this.employeeIds = employeeIds;
+        this.productCodes = productCodes;
+        this.products = products;
+        this.quantities = quantities;
+        this.prices = prices;
+        this.epochDays = epochDays;
+        this.amountCents = amountCents;
+    }
+
+    public static OrderTable from(List<Order> orders) {
+        int size = orders.size();
+        long[] ids = new long[size];
+        long[] employeeIds = new long[size];
+        int[] productCodes = new int[size];
+        int[] quantities = new int[size];
+        double[] prices = new double[size];
+        int[] epochDays = new int[size];
+        long[] amountCents = new long[size];
+        StringDictionary products = new StringDictionary();
+
+        for (int row = 0; row < size; row++) {
+            Order o = orders.get(row);
+            ids[row] = o.getId();
+            employeeIds[row] = o.getEmployeeId();
+            quantities[row] = o.getQuantity();
+            prices[row] = o.getPrice();
+            epochDays[row] = (int) o.getOrderDate().toEpochDay();
+            amountCents[row] = Money.amountCents(o);
+            productCodes[row] = products.encode(o.getProduct());
+        }
+        return new OrderTable(ids, employeeIds, productCodes, products, quantities, prices,
+                epochDays, amountCents);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int productCount() {
+        return products.size();
+    }
+
+    public String product(int code) {
+        return products.label(code);
+    }
+
+    // 商品名 -> コード（存在しなければ -1）
+    public int productCode(String product) {
+        return products.code(product);
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public long employeeId(int row) {
+        return employeeIds[row];
+    }
+
+    public int productCodeAt(int row) {
+        return productCodes[row];
+    }
+
+    public int quantity(int row) {
+        return quantities[row];
+    }
+
+    public double price(int row) {
+        return prices[row];
+    }
+
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    public Order row(int row) {
+        return new Order(ids[row], employeeIds[row], products.label(productCodes[row]), quantities[row], prices[row],
+                LocalDate.ofEpochDay(epochDays[row]));
+    }
+
+    // --- StreamKnockout03 ---
+
+    public double calculateTotalOrderAmount() {
+        // Problem 21 - 価格 × 数量 の合計（金額の列を作らずに2列を掛けながら足す）
+        return KERNELS.sumOfProducts(prices, quantities);
+    }
+
+    // Problem 21 の正確な値（整数の加算だけ）
+    public Money totalOrderAmount() {
+        return Money.ofCents(Money.sum(amountCents));
+    }
+
+    public int[] totalQuantityByProductCode() {
+        int[] totals = new int[products.size()];
+        for (int row = 0; row < productCodes.length; row++) {
+            totals[productCodes[row]] += quantities[row];
+        }
+        return totals;
+    }
+
+    public Map<String, Integer> totalQuantityByProduct() {
+        // Problem 24 - 商品名は結果の Map を作るときに商品ごとに1回だけ引く
+        int[] totals = totalQuantityByProductCode();
+        return products.toMap(code -> totals[code]);
+    }
+
+    public long[] amountCentsByProductCode() {
+        long[] totals = new long[products.size()];
+        for (int row = 0; row < productCodes.length; row++) {
+            totals[productCodes[row]] = Math.addExact(totals[productCodes[row]], amountCents[row]);
+        }
+        return totals;
+    }
+
+    public Map<String, Money> totalOrderAmountByProduct() {
+        long[] totals = amountCentsByProductCode();
+        return products.toMap(code -> Money.ofCents(totals[code]));
+    }
+
+    // 単価の最小・最大（空なら +∞ / -∞）
+    public double minPrice() {
+        return KERNELS.min(prices);
+    }
+
+    public double maxPrice() {
+        return KERNELS.max(prices);
+    }
+}
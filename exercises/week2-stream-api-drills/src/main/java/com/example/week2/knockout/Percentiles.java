@@ -0,0 +1,91 @@
+package com.example.week2.knockout;
+
+// double 配列に対する厳密なパーセンタイル（中央値）計算
+// 全件ソート O(n log n) ではなく quickselect で O(n)（期待値）
+// 3分割（pivot 未満 / 等しい / より大きい）なので、同じ給与が大量にあっても遅くならない
+public final class Percentiles {
+
+    private Percentiles() {
+    }
+
+    public static double median(double[] values) {
+        return percentile(values, 0.5);
+    }
+
+    // p は 0.0〜1.0。隣り合う順位の間は線形補間する（p=0.5 なら偶数件のとき中央2つの平均）
+    // 空配列なら 0.0（calculateMedianSalary と同じ）
+    public static double percentile(double[] values, double p) {
+        return percentileInPlace(values.clone(), p);
+    }
+
+    // 配列の並びを書き換えてよい場合はコピーを省ける
+    public static double percentileInPlace(double[] values, double p) {
+        if (p < 0.0 || p > 1.0 || Double.isNaN(p)) {
+            throw new IllegalArgumentException("p must be between 0.0 and 1.0: " + p);
+        }
+        int n = values.length;
+        if (n == 0) {
+            return 0.0;
+        }
+        double h = (n - 1) * p;
+        int lower = (int) Math.floor(h);
+        double lowerValue = select(values, lower);
+        double fraction = h - lower;
+        if (fraction == 0.0) {
+            return lowerValue;
+        }
+        // select 後は lower より右側が全て lowerValue 以上なので、次の順位はその最小値
+        double upperValue = values[lower + 1];
+        for (int i = lower + 2; i < n; i++) {
+            upperValue = Math.min(upperValue, values[i]);
+        }
+        if (fraction == 0.5) {
+            return (lowerValue + upperValue) / 2;
+        }
+        return lowerValue + fraction * (upperValue - lowerValue);
+    }
+
+    // 昇順で rank 番目（0始まり）の値を返す。values[rank] にその値が入り、左側は以下・右側は以上になる
+    public static double select(double[] values, int rank) {
+        if (rank < 0 || rank >= values.length) {
+            throw new IndexOutOfBoundsException("rank " + rank + " out of bounds for length " + values.length);
+        }
+        int left = 0;
+        int right = values.length - 1;
+        while (left < right) {
+            double pivot = medianOfThree(values[left], values[(left + right) >>> 1], values[right]);
+            // [left, lt) < pivot, [lt, i) == pivot, (gt, right] > pivot
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                double v = values[i];
+                if (v < pivot) {
+                    swap(values, lt++, i++);
+                } else if (v > pivot) {
+                    swap(values, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (rank < lt) {
+                right = lt - 1;
+            } else if (rank > gt) {
+                left = gt + 1;
+            } else {
+                return pivot;
+            }
+        }
+        return values[rank];
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
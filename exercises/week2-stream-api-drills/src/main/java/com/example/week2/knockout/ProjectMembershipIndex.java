@@ -0,0 +1,149 @@
+package com.example.week2.knockout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// プロジェクトのメンバーを、従業員リスト上の位置（序数）の CompressedBitmap で持つ索引
+// - メンバー判定・積集合・和集合・「N件以上のプロジェクトに参加」はビットマップ演算で答える
+// - 序数は従業員リストの並び順なので、結果も従業員リストの順序になる
+// - 同じIDの従業員が複数いれば全員がメンバーになる（List.contains で判定していたときと同じ）
+public class ProjectMembershipIndex {
+
+    private final List<Employee> employees;
+    // employeeId -> 最初の序数。同じIDの次の序数は sameIdNext で辿る
+    private final Map<Long, Integer> firstOrdinalById;
+    private final int[] sameIdNext;
+    private final List<CompressedBitmap> memberships;
+    // projectId -> memberships の位置（同じIDのプロジェクトが複数あれば先頭）
+    private final Map<Long, Integer> projectPositions;
+
+    public ProjectMembershipIndex(List<Employee> employees, List<Project> projects) {
+        this.employees = employees;
+        this.firstOrdinalById = new HashMap<>(employees.size() * 2);
+        this.sameIdNext = new int[employees.size()];
+        int[] lastOrdinal = new int[employees.size()];
+        for (int ordinal = 0; ordinal < employees.size(); ordinal++) {
+            sameIdNext[ordinal] = -1;
+            Integer first = firstOrdinalById.putIfAbsent(employees.get(ordinal).getId(), ordinal);
+            if (first != null) {
+                sameIdNext[lastOrdinal[first]] = ordinal;
+                lastOrdinal[first] = ordinal;
+            } else {
+                lastOrdinal[ordinal] = ordinal;
+            }
+        }
+
+        this.memberships = new ArrayList<>(projects.size());
+        this.projectPositions = new HashMap<>(projects.size() * 2);
+        for (Project project : projects) {
+            projectPositions.putIfAbsent(project.getId(), memberships.size());
+            memberships.add(bitmapOf(project.getMemberIds()));
+        }
+    }
+
+    public int projectCount() {
+        return memberships.size();
+    }
+
+    // 従業員IDの一覧を序数のビットマップにする（従業員リストにないIDは無視）
+    public CompressedBitmap bitmapOf(List<Long> employeeIds) {
+        int[] ordinals = new int[employeeIds.size()];
+        int count = 0;
+        for (Long id : employeeIds) {
+            Integer first = firstOrdinalById.get(id);
+            for (int ordinal = first == null ? -1 : first; ordinal >= 0; ordinal = sameIdNext[ordinal]) {
+                if (count == ordinals.length) {
+                    ordinals = Arrays.copyOf(ordinals, count * 2);
+                }
+                ordinals[count++] = ordinal;
+            }
+        }
+        // 昇順に追加するとコンテナの末尾追加だけで済む
+        Arrays.sort(ordinals, 0, count);
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < count; i++) {
+            bitmap.add(ordinals[i]);
+        }
+        return bitmap;
+    }
+
+    public Optional<CompressedBitmap> members(Long projectId) {
+        Integer position = projectPositions.get(projectId);
+        return position == null ? Optional.empty() : Optional.of(memberships.get(position));
+    }
+
+    public boolean isMember(Long projectId, Long employeeId) {
+        Integer position = projectPositions.get(projectId);
+        Integer ordinal = firstOrdinalById.get(employeeId);
+        return position != null && ordinal != null && memberships.get(position).contains(ordinal);
+    }
+
+    public List<Employee> membersOf(Long projectId) {
+        return members(projectId).map(this::employees).orElseGet(ArrayList::new);
+    }
+
+    // すべてのプロジェクトに参加している従業員
+    public List<Employee> inAllProjects(List<Long> projectIds) {
+        CompressedBitmap result = null;
+        for (Long projectId : projectIds) {
+            CompressedBitmap members = members(projectId).orElseGet(CompressedBitmap::new);
+            result = result == null ? members : result.and(members);
+        }
+        return result == null ? new ArrayList<>() : employees(result);
+    }
+
+    // いずれかのプロジェクトに参加している従業員
+    public List<Employee> inAnyProject(List<Long> projectIds) {
+        CompressedBitmap result = new CompressedBitmap();
+        for (Long projectId : projectIds) {
+            result = result.or(members(projectId).orElseGet(CompressedBitmap::new));
+        }
+        return employees(result);
+    }
+
+    // n 件以上のプロジェクトに参加している従業員の序数
+    // atLeast[k] を「k+1 件以上」として、プロジェクトごとに上の段から atLeast[k] |= atLeast[k-1] & members と更新する
+    public CompressedBitmap inAtLeast(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        CompressedBitmap[] atLeast = new CompressedBitmap[n];
+        Arrays.setAll(atLeast, k -> new CompressedBitmap());
+        for (int p = 0; p < memberships.size(); p++) {
+            CompressedBitmap members = memberships.get(p);
+            // p+1 件目のプロジェクトまでで k+1 件以上になることはない
+            for (int k = Math.min(n - 1, p); k > 0; k--) {
+                atLeast[k] = atLeast[k].or(atLeast[k - 1].and(members));
+            }
+            atLeast[0] = atLeast[0].or(members);
+        }
+        return atLeast[n - 1];
+    }
+
+    public List<Employee> inAtLeastProjects(int n) {
+        return employees(inAtLeast(n));
+    }
+
+    public double averageAgeOfMembers(Long projectId) {
+        return averageAge(members(projectId).orElseGet(CompressedBitmap::new));
+    }
+
+    public double averageAge(CompressedBitmap ordinals) {
+        long[] sumAndCount = new long[2];
+        ordinals.forEach(ordinal -> {
+            sumAndCount[0] += employees.get(ordinal).getAge();
+            sumAndCount[1]++;
+        });
+        return sumAndCount[1] == 0 ? 0.0 : (double) sumAndCount[0] / sumAndCount[1];
+    }
+
+    public List<Employee> employees(CompressedBitmap ordinals) {
+        List<Employee> result = new ArrayList<>(ordinals.cardinality());
+        ordinals.forEach(ordinal -> result.add(employees.get(ordinal)));
+        return result;
+    }
+}
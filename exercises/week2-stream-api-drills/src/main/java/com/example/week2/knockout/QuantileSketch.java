@@ -0,0 +1,241 @@
+package com.example.week2.knockout;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+// メモリに載らない件数向けの、マージ可能なパーセンタイル近似（KLL スケッチ）
+// 値はレベルごとのバッファに入り、レベル h の1件は 2^h 件分の重みを持つ
+// バッファがあふれたらソートして1つおきに上のレベルへ昇格させる（コンパクション）
+//
+// 誤差の目安: k=200 で 順位の誤差 が全体件数の約 1.65%（信頼度 99%）
+// 保持する件数は 件数 n によらず おおよそ 3k + O(log n)
+public class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    private final int k;
+    private final SplittableRandom random;
+    private double[][] levels = new double[1][];
+    private int[] levelSizes = new int[1];
+    private int levelCount = 1;
+    private int retained;
+    private int totalCapacity;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        this(k, 0x5EEDL);
+    }
+
+    // コンパクション時の乱数のシード（同じ入力・同じシードなら結果も同じ）
+    public QuantileSketch(int k, long seed) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8: " + k);
+        }
+        this.k = k;
+        this.random = new SplittableRandom(seed);
+        this.levels[0] = new double[capacity(0)];
+        this.totalCapacity = capacity(0);
+    }
+
+    public static <T> Collector<T, ?, QuantileSketch> collector(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(
+                QuantileSketch::new,
+                (sketch, value) -> sketch.add(mapper.applyAsDouble(value)),
+                QuantileSketch::merge,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN cannot be added");
+        }
+        append(0, value);
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+        compressIfNeeded();
+    }
+
+    // other の内容を取り込む（other は変更しない）
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        for (int level = 0; level < other.levelCount; level++) {
+            for (int i = 0; i < other.levelSizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        compressIfNeeded();
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    // 保持している値の件数（メモリ使用量の目安）
+    public int retainedItems() {
+        return retained;
+    }
+
+    // p は 0.0〜1.0。空なら NaN
+    public double quantile(double p) {
+        if (p < 0.0 || p > 1.0 || Double.isNaN(p)) {
+            throw new IllegalArgumentException("p must be between 0.0 and 1.0: " + p);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (p == 0.0) {
+            return min;
+        }
+        if (p == 1.0) {
+            return max;
+        }
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        sortedItems(values, weights);
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        double target = p * totalWeight;
+        long cumulative = 0;
+        for (int i = 0; i < retained; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    public double median() {
+        return quantile(0.5);
+    }
+
+    // value 以下の値の割合（0.0〜1.0）
+    public double rank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long below = 0;
+        long total = 0;
+        for (int level = 0; level < levelCount; level++) {
+            long weight = 1L << level;
+            for (int i = 0; i < levelSizes[level]; i++) {
+                total += weight;
+                if (levels[level][i] <= value) {
+                    below += weight;
+                }
+            }
+        }
+        return (double) below / total;
+    }
+
+    private void sortedItems(double[] values, long[] weights) {
+        // 各レベルをソートしてから重み付きでマージする
+        int filled = 0;
+        for (int level = 0; level < levelCount; level++) {
+            Arrays.sort(levels[level], 0, levelSizes[level]);
+        }
+        int[] cursors = new int[levelCount];
+        while (filled < values.length) {
+            int best = -1;
+            for (int level = 0; level < levelCount; level++) {
+                if (cursors[level] < levelSizes[level]
+                        && (best < 0 || levels[level][cursors[level]] < levels[best][cursors[best]])) {
+                    best = level;
+                }
+            }
+            values[filled] = levels[best][cursors[best]++];
+            weights[filled++] = 1L << best;
+        }
+    }
+
+    private void append(int level, double value) {
+        while (level >= levelCount) {
+            addLevel();
+        }
+        double[] buffer = levels[level];
+        if (levelSizes[level] == buffer.length) {
+            levels[level] = buffer = Arrays.copyOf(buffer, Math.max(MIN_LEVEL_CAPACITY, buffer.length * 2));
+        }
+        buffer[levelSizes[level]++] = value;
+        retained++;
+    }
+
+    private void addLevel() {
+        if (levelCount == levels.length) {
+            levels = Arrays.copyOf(levels, levelCount * 2);
+            levelSizes = Arrays.copyOf(levelSizes, levelCount * 2);
+        }
+        levels[levelCount] = new double[MIN_LEVEL_CAPACITY];
+        levelSizes[levelCount] = 0;
+        levelCount++;
+        totalCapacity = 0;
+        for (int level = 0; level < levelCount; level++) {
+            totalCapacity += capacity(level);
+        }
+    }
+
+    // 上のレベルほど容量が大きい（最上位が k、下へ行くごとに 2/3 倍）
+    private int capacity(int level) {
+        int depth = levelCount - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void compressIfNeeded() {
+        while (retained >= totalCapacity) {
+            for (int level = 0; level < levelCount; level++) {
+                if (levelSizes[level] >= capacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int level) {
+        if (level + 1 >= levelCount) {
+            addLevel();
+        }
+        double[] buffer = levels[level];
+        int size = levelSizes[level];
+        Arrays.sort(buffer, 0, size);
+        // 奇数件なら先頭の1件はこのレベルに残す
+        int start = size % 2;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = start + offset; i < size; i += 2) {
+            append(level + 1, buffer[i]);
+        }
+        retained -= size - start;
+        levelSizes[level] = start;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.week2.knockout;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// where / orderBy / limit / groupBy / aggregate を組み立てて、最後に1回の走査で実行するクエリ
+// - where は呼んだ順序に関係なく、ソート・グループ化・集計より前に1つの条件にまとめて評価する
+// - orderBy + limit はソートせず大きさ limit のヒープ（TopK）で上位だけを残す
+// - limit だけなら条件に合う要素が limit 件そろった時点で走査をやめる
+// - 複数の集計は1回の走査で同時に計算する
+//   例: Query.from(employees).where(e -> e.getAge() > 30).orderBy(comparingDouble(Employee::getSalary).reversed()).limit(3).list()
+public final class Query<T> {
+
+    private final Collection<T> source;
+    private final List<Predicate<? super T>> predicates = new ArrayList<>();
+    private Comparator<? super T> order;
+    private int limit = -1;
+    private ExecutionPolicy policy = ExecutionPolicy.SEQUENTIAL;
+
+    private Query(Collection<T> source) {
+        this.source = source;
+    }
+
+    public static <T> Query<T> from(Collection<T> source) {
+        return new Query<>(source);
+    }
+
+    public Query<T> where(Predicate<? super T> predicate) {
+        predicates.add(predicate);
+        return this;
+    }
+
+    // 同順位は元の順序（安定ソート）
+    public Query<T> orderBy(Comparator<? super T> comparator) {
+        this.order = comparator;
+        return this;
+    }
+
+    public Query<T> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public Query<T> with(ExecutionPolicy policy) {
+        this.policy = policy;
+        return this;
+    }
+
+    public List<T> list() {
+        Stream<T> rows = filtered();
+        if (order != null && limit >= 0) {
+            // TopK は comparator の大きい順なので、逆順にして小さい方から limit 件を取る
+            return rows.collect(TopK.topK(limit, reversed(order)));
+        }
+        if (order != null) {
+            rows = rows.sorted(order);
+        }
+        if (limit >= 0) {
+            rows = rows.limit(limit);
+        }
+        return rows.collect(Collectors.toList());
+    }
+
+    public <R> List<R> select(Function<? super T, ? extends R> mapper) {
+        if (order == null) {
+            // 並べ替えがなければ変換まで同じ走査で行う
+            Stream<T> rows = filtered();
+            return (limit >= 0 ? rows.limit(limit) : rows).map(mapper).collect(Collectors.toList());
+        }
+        return list().stream().map(mapper).collect(Collectors.toList());
+    }
+
+    public Optional<T> first() {
+        if (order != null) {
+            return filtered().min(order);
+        }
+        return limit == 0 ? Optional.empty() : filtered().findFirst();
+    }
+
+    public long count() {
+        if (order == null && limit < 0) {
+            return filtered().count();
+        }
+        return list().size();
+    }
+
+    // 条件に合う要素（limit があれば orderBy 順の先頭 limit 件）に対する集計を1回の走査でまとめて行う
+    @SafeVarargs
+    public final AggregateRow aggregate(Aggregate<? super T, ?>... aggregates) {
+        if (aggregates.length == 0) {
+            throw new IllegalArgumentException("at least one aggregate is required");
+        }
+        Stream<T> rows = limit >= 0 ? list().stream() : filtered();
+        return rows.collect(AggregateRow.<T>collector(List.of(aggregates)));
+    }
+
+    public <R> R aggregate(Aggregate<? super T, R> aggregate) {
+        Stream<T> rows = limit >= 0 ? list().stream() : filtered();
+        return rows.collect(aggregate.collector());
+    }
+
+    public <K> GroupQuery<T, K> groupBy(Function<? super T, ? extends K> classifier) {
+        return new GroupQuery<>(this, classifier);
+    }
+
+    // where をまとめた1つの条件で絞り込んだストリーム
+    Stream<T> filtered() {
+        Stream<T> rows = policy.stream(source);
+        if (predicates.isEmpty()) {
+            return rows;
+        }
+        Predicate<T> combined = combined();
+        return rows.filter(combined);
+    }
+
+    ExecutionPolicy policy() {
+        return policy;
+    }
+
+    private Predicate<T> combined() {
+        List<Predicate<? super T>> conditions = List.copyOf(predicates);
+        if (conditions.size() == 1) {
+            Predicate<? super T> only = conditions.get(0);
+            return only::test;
+        }
+        return element -> {
+            for (Predicate<? super T> condition : conditions) {
+                if (!condition.test(element)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    static <T> Comparator<T> reversed(Comparator<? super T> comparator) {
+        return (a, b) -> comparator.compare(b, a);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.week2.knockout;
+
+// NumericKernels のスカラー版（Vector API が使えないときの代わり、SIMD 版の検算用）
+final class ScalarKernels implements NumericKernels {
+
+    static final ScalarKernels INSTANCE = new ScalarKernels();
+
+    private ScalarKernels() {
+    }
+
+    @Override
+    public double sum(double[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double sumOfProducts(double[] prices, int[] quantities) {
+        checkSameLength(prices.length, quantities.length);
+        double total = 0;
+        for (int i = 0; i < prices.length; i++) {
+            total += prices[i] * quantities[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double min(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    @Override
+    public double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    @Override
+    public double sumWhereAtLeast(double[] values, int[] keys, int threshold) {
+        checkSameLength(values.length, keys.length);
+        double total = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (keys[i] >= threshold) {
+                total += values[i];
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") out of bounds for length " + length);
+        }
+    }
+
+    static void checkSameLength(int left, int right) {
+        if (left != right) {
+            throw new IllegalArgumentException("array lengths differ: " + left + " != " + right);
+        }
+    }
+}
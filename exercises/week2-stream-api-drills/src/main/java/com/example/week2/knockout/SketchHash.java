@@ -0,0 +1,37 @@
+package com.example.week2.knockout;
+
+import java.time.LocalDate;
+
+// スケッチ用の 64ビットハッシュ。String.hashCode（32ビット）のままだと数十万件で衝突が目立つので、
+// 数値・文字列・日付は値から直接 64ビットを作る
+final class SketchHash {
+
+    private SketchHash() {
+    }
+
+    static long hash(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return mix(((Number) key).longValue());
+        }
+        if (key instanceof CharSequence text) {
+            // FNV-1a
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+        if (key instanceof LocalDate date) {
+            return mix(date.toEpochDay() ^ 0x2545F4914F6CDD1DL);
+        }
+        return mix(key == null ? 0 : key.hashCode());
+    }
+
+    // SplitMix64 の仕上げ（上位・下位どのビットも入力の全ビットに依存させる）
+    static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
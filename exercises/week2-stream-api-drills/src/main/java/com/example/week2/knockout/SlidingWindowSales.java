@@ -0,0 +1,204 @@
+package com.example.week2.knockout;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// 直近 15分 / 24時間 / 30日 のような時間窓での売上を、注文を受け付けながら答える集計器
+// - 時間を固定幅のバケットに区切り、バケットをリング（大きさ固定の配列）で持つ。古いバケットは上書きで捨てる
+// - 粒度の違うリングを複数持ち、問い合わせの窓を覆える最も細かいリングで答える
+//   （既定: 1分 × 60、1時間 × 48、1日 × 31）
+// - バケットの入れ替えは CAS、加算は LongAdder / DoubleAdder なので、ふつうの追加はロックを取らない
+//   ロックを取るのはバケットに従業員や商品のキーを初めて入れるときだけ（ConcurrentHashMap.putIfAbsent は
+//   空でないビンに入れるときビンの先頭で synchronized する）。その間だけ、競合した仮想スレッドは
+//   キャリアスレッドに固定されうる
+// - 問い合わせはバケットを読むだけなので追加を止めない（途中の加算を含むかどうかはその時点しだい）
+// 窓の長さはバケット幅に切り上げ、現在のバケット（途中まで）を含めて数える
+public class SlidingWindowSales {
+
+    private final Clock clock;
+    // バケット幅の小さい順
+    private final List<Ring> rings = new ArrayList<>();
+
+    public SlidingWindowSales(Clock clock) {
+        this.clock = clock;
+        rings.add(new Ring(Duration.ofMinutes(1), 60));
+        rings.add(new Ring(Duration.ofHours(1), 48));
+        rings.add(new Ring(Duration.ofDays(1), 31));
+    }
+
+    public SlidingWindowSales(Clock clock, Duration bucketWidth, int buckets) {
+        this.clock = clock;
+        rings.add(new Ring(bucketWidth, buckets));
+    }
+
+    public void add(Order order) {
+        add(order, clock.instant());
+    }
+
+    // at は注文を受け付けた時刻。リングに残っていないほど古い注文はそのリングでは数えない
+    public void add(Order order, Instant at) {
+        long millis = at.toEpochMilli();
+        double amount = order.getPrice() * order.getQuantity();
+        for (Ring ring : rings) {
+            ring.add(millis, order, amount);
+        }
+    }
+
+    // 各プロデューサーを仮想スレッドで動かし、すべて終わるまで待つ
+    public void ingestOnVirtualThreads(List<? extends Iterable<Order>> producers) throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>(producers.size());
+            for (Iterable<Order> producer : producers) {
+                running.add(executor.submit(() -> producer.forEach(this::add)));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("producer failed", e.getCause());
+        }
+    }
+
+    public Duration maxWindow() {
+        return rings.get(rings.size() - 1).span();
+    }
+
+    public double total(Duration window) {
+        double total = 0;
+        for (Bucket bucket : buckets(window)) {
+            total += bucket.amount.sum();
+        }
+        return total;
+    }
+
+    public long orderCount(Duration window) {
+        long count = 0;
+        for (Bucket bucket : buckets(window)) {
+            count += bucket.count.sum();
+        }
+        return count;
+    }
+
+    public Map<Long, Double> totalOrderAmountByEmployee(Duration window) {
+        Map<Long, Double> result = new HashMap<>();
+        for (Bucket bucket : buckets(window)) {
+            bucket.amountByEmployee.forEach((id, amount) -> result.merge(id, amount.sum(), Double::sum));
+        }
+        return result;
+    }
+
+    public Map<String, Double> totalOrderAmountByProduct(Duration window) {
+        Map<String, Double> result = new HashMap<>();
+        for (Bucket bucket : buckets(window)) {
+            bucket.amountByProduct.forEach((product, amount) -> result.merge(product, amount.sum(), Double::sum));
+        }
+        return result;
+    }
+
+    private List<Bucket> buckets(Duration window) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        for (Ring ring : rings) {
+            if (ring.span().compareTo(window) >= 0) {
+                return ring.buckets(clock.millis(), window);
+            }
+        }
+        throw new IllegalArgumentException("window " + window + " exceeds the longest window " + maxWindow());
+    }
+
+    private static final class Ring {
+        private final long widthMillis;
+        private final AtomicReferenceArray<Bucket> slots;
+
+        Ring(Duration width, int buckets) {
+            if (width.toMillis() <= 0 || buckets <= 0) {
+                throw new IllegalArgumentException("bucket width and count must be positive: " + width + " x " + buckets);
+            }
+            this.widthMillis = width.toMillis();
+            this.slots = new AtomicReferenceArray<>(buckets);
+        }
+
+        Duration span() {
+            return Duration.ofMillis(widthMillis * slots.length());
+        }
+
+        void add(long millis, Order order, double amount) {
+            long number = Math.floorDiv(millis, widthMillis);
+            int slot = (int) Math.floorMod(number, (long) slots.length());
+            Bucket bucket = slots.get(slot);
+            while (bucket == null || bucket.number < number) {
+                // 古いバケットを新しいバケットに入れ替える。失敗したら他のスレッドが入れ替えたので読み直す
+                Bucket fresh = new Bucket(number);
+                if (slots.compareAndSet(slot, bucket, fresh)) {
+                    bucket = fresh;
+                } else {
+                    bucket = slots.get(slot);
+                }
+            }
+            if (bucket.number != number) {
+                return; // リングに残っていないほど古い
+            }
+            bucket.add(order, amount);
+        }
+
+        List<Bucket> buckets(long nowMillis, Duration window) {
+            long newest = Math.floorDiv(nowMillis, widthMillis);
+            long count = Math.min(slots.length(), (window.toMillis() + widthMillis - 1) / widthMillis);
+            long oldest = newest - count + 1;
+            List<Bucket> result = new ArrayList<>();
+            for (int slot = 0; slot < slots.length(); slot++) {
+                Bucket bucket = slots.get(slot);
+                if (bucket != null && bucket.number >= oldest && bucket.number <= newest) {
+                    result.add(bucket);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Bucket {
+        private final long number;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder amount = new DoubleAdder();
+        private final ConcurrentHashMap<Long, DoubleAdder> amountByEmployee = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, DoubleAdder> amountByProduct = new ConcurrentHashMap<>();
+
+        Bucket(long number) {
+            this.number = number;
+        }
+
+        void add(Order order, double amount) {
+            count.increment();
+            this.amount.add(amount);
+            adder(amountByEmployee, order.getEmployeeId()).add(amount);
+            adder(amountByProduct, order.getProduct()).add(amount);
+        }
+
+        // 既にあるキーは get だけで済ませ、初回だけ putIfAbsent する
+        private static <K> DoubleAdder adder(ConcurrentHashMap<K, DoubleAdder> adders, K key) {
+            DoubleAdder adder = adders.get(key);
+            if (adder == null) {
+                DoubleAdder created = new DoubleAdder();
+                adder = adders.putIfAbsent(key, created);
+                if (adder == null) {
+                    adder = created;
+                }
+            }
+            return adder;
+        }
+    }
+}
@@ -8,26 +8,36 @@ import java.util.Comparator;
 
 public class StreamKnockout01 {
 
+    private final ExecutionPolicy policy;
+
+    public StreamKnockout01() {
+        this(ExecutionPolicy.SEQUENTIAL);
+    }
+
+    public StreamKnockout01(ExecutionPolicy policy) {
+        this.policy = policy;
+    }
+
     // Level 1: 基礎
 
     public List<Employee> findEmployeesOver30(List<Employee> employees) {
         // Problem 1 - 30歳以上の従業員を抽出
-        return employees.stream()
-                .filter(e -> e.getAge() > 30)
-                .toList();
+        return EmployeeQuery.from(employees, policy)
+                .where(EmployeeQuery.olderThan(30))
+                .list();
     }
 
     public List<String> getAllNames(List<Employee> employees) {
         // Problem 2 - 全従業員の名前リストを作成
-        return employees.stream()
+        return policy.stream(employees)
                 .map(Employee::getName)
                 .toList();
     }
 
     public long countEngineeringEmployees(List<Employee> employees) {
         // Problem 3 - Engineering部門の従業員数をカウント
-        return employees.stream()
-                .filter(e -> e.getDepartment().equals("Engineering"))
+        return EmployeeQuery.from(employees, policy)
+                .where(EmployeeQuery.inDepartment("Engineering"))
                 .count();
     }
 
@@ -35,28 +45,27 @@ public class StreamKnockout01 {
 
     public Map<String, List<Employee>> groupByDepartment(List<Employee> employees) {
         // Problem 4 - 部門ごとに従業員をグループ化
-        return employees.stream()
+        return policy.stream(employees)
                 .collect(Collectors.groupingBy(Employee::getDepartment));
     }
 
     public String joinHighEarnerNames(List<Employee> employees) {
         // Problem 5 - 給与が50000以上の従業員の名前をカンマ区切りで結合
-        return employees.stream()
-                .filter(e -> e.getSalary() >= 50000)
-                .map(Employee::getName)
-                .collect(Collectors.joining(","));
+        return String.join(",", EmployeeQuery.from(employees, policy)
+                .where(EmployeeQuery.salaryAtLeast(50000))
+                .select(Employee::getName));
     }
 
     public Map<String, Double> averageSalaryByDepartment(List<Employee> employees) {
         // Problem 6 - 部門ごとの平均給与を計算
-        return employees.stream()
-                .collect(Collectors.groupingBy(Employee::getDepartment,
-                        Collectors.averagingDouble(Employee::getSalary)));
+        return EmployeeQuery.from(employees, policy)
+                .groupBy(Employee::getDepartment)
+                .toMap(EmployeeQuery.averageSalary());
     }
 
     public Optional<Employee> findHighestPaidEmployee(List<Employee> employees) {
         // Problem 7 - 最も給与の高い従業員を検索
-        return employees.stream()
+        return policy.stream(employees)
                 .max(Comparator.comparingDouble(Employee::getSalary));
     }
 
@@ -64,27 +73,38 @@ public class StreamKnockout01 {
 
     public Map<String, Optional<Employee>> findTopEarnerPerDepartment(List<Employee> employees) {
         // Problem 8 - 各部門で最も給与の高い従業員を取得
-        return employees.stream()
+        return policy.stream(employees)
                 .collect(Collectors.groupingBy(Employee::getDepartment,
                         Collectors.maxBy(Comparator.comparingDouble(Employee::getSalary))));
     }
 
     public List<Employee> findTop3HighestPaid(List<Employee> employees) {
         // Problem 9 - 給与上位3名の従業員を取得
-        return employees.stream()
-                .sorted(Comparator.comparingDouble(Employee::getSalary).reversed())
-                .limit(3)
-                .toList();
+        return findTopKHighestPaid(employees, 3);
+    }
+
+    public List<Employee> findTopKHighestPaid(List<Employee> employees, int k) {
+        // orderBy + limit は全件ソートせず大きさkのヒープで上位を保持する（同額は先に現れた従業員が上位）
+        return EmployeeQuery.from(employees, policy)
+                .orderBy(EmployeeQuery.bySalaryDescending())
+                .limit(k)
+                .list();
     }
 
     public List<String> findDepartmentsWithHighTotalSalary(List<Employee> employees) {
         // Problem 10 - 部門ごとの給与合計が100000を超える部門名のリストを取得
-        return employees.stream()
-                .collect(Collectors.groupingBy(Employee::getDepartment,
-                        Collectors.summingDouble(Employee::getSalary)))
-                .entrySet().stream()
-                .filter(e -> e.getValue() >= 100000)
-                .map(Map.Entry::getKey)
-                .toList();
+        Aggregate<Employee, Double> totalSalary = EmployeeQuery.totalSalary();
+        return EmployeeQuery.from(employees, policy)
+                .groupBy(Employee::getDepartment)
+                .aggregate(totalSalary)
+                .having(group -> group.get(totalSalary) >= 100000)
+                .keys();
+    }
+
+    // 部門別の集計をまとめて行う場合
+
+    public DepartmentStats departmentStats(List<Employee> employees) {
+        // Problem 6, 8, 10 および StreamKnockout02 の Problem 12, 18 を1回の走査で答える
+        return policy.stream(employees).collect(DepartmentStats.collector());
     }
 }
@@ -1,24 +1,38 @@
 package com.example.week2.knockout;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 public class StreamKnockout02 {
 
+    private final ExecutionPolicy policy;
+
+    public StreamKnockout02() {
+        this(ExecutionPolicy.SEQUENTIAL);
+    }
+
+    public StreamKnockout02(ExecutionPolicy policy) {
+        this.policy = policy;
+    }
+
     // Level 4: 実践
 
     public double calculateTotalSalary(List<Employee> employees) {
         // Problem 11 - 給与の合計を計算
-        return employees.stream()
-                .mapToDouble(Employee::getSalary)
-                .sum();
+        // mapToDouble(...).sum() は足す順序で末尾の桁が変わり、並列だと逐次と一致しないので正確な合計にする
+        return policy.stream(employees)
+                .collect(ExactSum.summing(Employee::getSalary));
+    }
+
+    public Money calculateTotalSalaryMoney(List<Employee> employees) {
+        // Problem 11 の正確な値（給与は cents に丸めて取り込む）
+        return policy.stream(employees).collect(Money.summing(Money::salaryCents));
     }
 
     public Map<String, Double> maxSalaryByDepartment(List<Employee> employees) {
         // Problem 12 - 部門ごとの最高給与を取得
-        return employees.stream()
+        return policy.stream(employees)
                 .collect(Collectors.toMap(
                         Employee::getDepartment, // Key: 部門
                         Employee::getSalary, // Value: 給与
@@ -28,23 +42,30 @@ public class StreamKnockout02 {
 
     public List<Employee> findEmployeesWithNameContaining(List<Employee> employees, String keyword) {
         // Problem 13 - 名前に特定の文字列を含む従業員をフィルタ
-        return employees.stream()
-                .filter(e -> e.getName().toLowerCase().contains(keyword.toLowerCase()))
-                .collect(Collectors.toList());
+        // キーワードの小文字化は1回だけ。同じリストを何度も検索するなら nameIndex を使う
+        String lowerKeyword = keyword.toLowerCase();
+        return EmployeeQuery.from(employees, policy)
+                .where(e -> e.getName().toLowerCase().contains(lowerKeyword))
+                .list();
+    }
+
+    public TrigramIndex<Employee> nameIndex(List<Employee> employees) {
+        // 入力補完のように繰り返し検索する場合の索引（search の結果は Problem 13 と同じ）
+        return TrigramIndex.of(employees, Employee::getName);
     }
 
     public List<Employee> sortEmployeesByAge(List<Employee> employees) {
         // Problem 14 - 年齢で昇順ソートした従業員リストを取得
-        return employees.stream()
-                .sorted(Comparator.comparingInt(Employee::getAge))
-                .collect(Collectors.toList());
+        return EmployeeQuery.from(employees, policy)
+                .orderBy(EmployeeQuery.byAge())
+                .list();
     }
 
     // Level 5: 発展
 
     public Map<String, List<String>> employeeNamesByDepartment(List<Employee> employees) {
         // Problem 15 - 各部門の従業員名リストを作成
-        return employees.stream()
+        return policy.stream(employees)
                 .collect(Collectors.groupingBy(
                         Employee::getDepartment,
                         Collectors.mapping(Employee::getName, Collectors.toList())));
@@ -52,33 +73,42 @@ public class StreamKnockout02 {
 
     public double averageAgeOfProjectMembers(List<Employee> employees, Project project) {
         // Problem 16 - プロジェクトメンバーの平均年齢を計算
-        return employees.stream()
-                .filter(e -> project.getMemberIds().contains(e.getId()))
-                .mapToDouble(Employee::getAge)
+        // 従業員ごとに List.contains で探すと O(従業員数 × メンバー数) なので、メンバーIDの集合との準結合にする
+        // （同じIDの従業員が複数いれば全員がメンバー）
+        return Joins.semiJoin(employees, Employee::getId, project.getMemberIds(), policy).stream()
+                .mapToInt(Employee::getAge)
                 .average()
                 .orElse(0.0);
     }
 
     public double calculateMedianSalary(List<Employee> employees) {
         // Problem 17 - 給与中央値を計算
-        int size = employees.size();
-        if (size == 0)
-            return 0.0;
+        // 全件ソートせず quickselect で中央の値だけを探す
+        return Percentiles.percentileInPlace(salaries(employees), 0.5);
+    }
+
+    public double salaryPercentile(List<Employee> employees, double p) {
+        // p90 なら p = 0.9（厳密値）
+        return Percentiles.percentileInPlace(salaries(employees), p);
+    }
+
+    public QuantileSketch salarySketch(List<Employee> employees) {
+        // メモリに載らない件数向けの近似（並列でもマージできる）
+        return policy.stream(employees)
+                .collect(QuantileSketch.collector(Employee::getSalary));
+    }
 
-        return employees.stream()
+    private double[] salaries(List<Employee> employees) {
+        return policy.stream(employees)
                 .mapToDouble(Employee::getSalary)
-                .sorted()
-                .skip((size - 1) / 2)
-                .limit(2 - size % 2) // 奇数なら1個、偶数なら2個
-                .average()
-                .orElse(0.0);
+                .toArray();
     }
 
     // Level 6: 最難関
 
     public Map<String, Double> salaryRangeByDepartment(List<Employee> employees) {
         // Problem 18 - 部門ごとの給与範囲（最大-最小）を計算
-        return employees.stream()
+        return policy.stream(employees)
                 .collect(Collectors.groupingBy(
                         Employee::getDepartment,
                         Collectors.collectingAndThen(
@@ -88,20 +118,15 @@ public class StreamKnockout02 {
 
     public Map<String, Long> countByAgeGroup(List<Employee> employees) {
         // Problem 19 - 年齢層（10歳刻み）ごとの人数を集計
-        return employees.stream()
-                .collect(Collectors.groupingBy(
-                        e -> (e.getAge() / 10 * 10) + "代",
-                        Collectors.counting()));
+        // 年代（age / 10）を添字にした配列に数え、"NN代" のラベルは年代ごとに1回だけ作る
+        // 負の年齢や極端に大きな年齢の年代は配列の範囲外なので、groupingByCodeCounting が HashMap で数える
+        return policy.stream(employees)
+                .collect(FastCollectors.groupingByCodeCounting(e -> e.getAge() / 10, decade -> decade * 10 + "代"));
     }
 
     public List<Employee> findEmployeesInMultipleProjects(List<Employee> employees, List<Project> projects) {
         // Problem 20 - 複数プロジェクトに参加している従業員を検索
-        Map<Long, Long> participationCounts = projects.stream()
-                .flatMap(p -> p.getMemberIds().stream())
-                .collect(Collectors.groupingBy(id -> id, Collectors.counting()));
-
-        return employees.stream()
-                .filter(e -> participationCounts.getOrDefault(e.getId(), 0L) > 1)
-                .collect(Collectors.toList());
+        // 2件以上のプロジェクトのビットマップに入っている従業員（ID をボックス化して数えない）
+        return new ProjectMembershipIndex(employees, projects).inAtLeastProjects(2);
     }
 }
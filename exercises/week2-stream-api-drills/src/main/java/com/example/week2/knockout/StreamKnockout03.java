@@ -1,7 +1,7 @@
 package com.example.week2.knockout;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -10,105 +10,98 @@ import java.util.stream.Collectors;
 
 public class StreamKnockout03 {
 
+    private final ExecutionPolicy policy;
+
+    public StreamKnockout03() {
+        this(ExecutionPolicy.SEQUENTIAL);
+    }
+
+    public StreamKnockout03(ExecutionPolicy policy) {
+        this.policy = policy;
+    }
+
     // Level 7: 実務レベル
 
     public double calculateTotalOrderAmount(List<Order> orders) {
-        // Problem 21 - 注文の合計金額を計算
-        return orders.stream()
-                .mapToDouble(order -> order.getPrice() * order.getQuantity())
-                .sum();
+        // Problem 21 - 注文の合計金額を計算（並列でも逐次と同じ値になるよう正確な合計にする）
+        return policy.stream(orders)
+                .collect(ExactSum.summing(order -> order.getPrice() * order.getQuantity()));
     }
 
     public Map<Long, Double> totalOrderAmountByEmployee(List<Order> orders) {
         // Problem 22 - 従業員ごとの注文総額を計算
-        return orders.stream()
-                .collect(Collectors.groupingBy(Order::getEmployeeId,
-                        Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())));
+        return OrderQuery.from(orders, policy)
+                .groupBy(Order::getEmployeeId)
+                .toMap(OrderQuery.amount());
     }
 
     public List<Order> findOrdersBetweenDates(List<Order> orders, LocalDate startDate, LocalDate endDate) {
         // Problem 23 - 特定期間の注文をフィルタ
-        return orders.stream()
-                .filter(order -> order.getOrderDate().isAfter(startDate) && order.getOrderDate().isBefore(endDate))
-                .collect(Collectors.toList());
+        return OrderQuery.from(orders, policy)
+                .where(OrderQuery.between(startDate, endDate))
+                .list();
     }
 
     public Map<String, Integer> totalQuantityByProduct(List<Order> orders) {
         // Problem 24 - 商品ごとの販売数量を集計
-        return orders.stream()
-                .collect(Collectors.groupingBy(Order::getProduct,
-                        Collectors.summingInt(Order::getQuantity)));
+        return OrderQuery.from(orders, policy)
+                .groupBy(Order::getProduct)
+                .toMap(OrderQuery.quantity());
     }
 
     // Level 8: エキスパート
 
     public Optional<Employee> findTopSalesEmployee(List<Employee> employees, List<Order> orders) {
         // Problem 25 - 最も売上の高い従業員を検索
-        return orders.stream()
-                .collect(Collectors.groupingBy(Order::getEmployeeId,
-                        Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())))
-                .entrySet().stream()
+        // 集計した全員の中で最大を決めてから、その1人だけを従業員リストから探す
+        // 最大の従業員IDが employees にいなければ空（従業員だけの中から最大を探すのではない）
+        return totalOrderAmountByEmployee(orders).entrySet().stream()
                 .max(Map.Entry.comparingByValue())
-                .map(entry -> employees.stream()
-                        .filter(employee -> employee.getId().equals(entry.getKey()))
-                        .findFirst()
-                        .orElse(null));
+                .flatMap(top -> employees.stream()
+                        .filter(e -> e.getId().equals(top.getKey()))
+                        .findFirst());
     }
 
     public Map<String, List<String>> top3ProductsByDepartment(List<Employee> employees, List<Order> orders) {
         // Problem 26 - 部門ごとの売上トップ3商品を取得
-        // employeeIdから部門を取得するためのMapを作成
-        Map<Long, String> employeeDepartmentMap = employees.stream()
-                .collect(Collectors.toMap(Employee::getId, Employee::getDepartment));
-
-        return orders.stream()
-                // employeeIdから部門を取得してグルーピング
+        // 注文を従業員と結合し（従業員側をハッシュ表にする）、部門ごとに上位3件だけをヒープで保持
+        // 結合結果は注文の順序なので、同額の順位は注文の出現順
+        return policy.stream(Joins.hashJoin(orders, Order::getEmployeeId, employees, Employee::getId, policy))
                 .collect(Collectors.groupingBy(
-                        order -> employeeDepartmentMap.get(order.getEmployeeId()),
-                        Collectors.collectingAndThen(Collectors.toList(), list -> list.stream()
-                                .sorted(Comparator
-                                        .comparingDouble((Order order) -> order.getPrice() * order.getQuantity())
-                                        .reversed())
-                                .limit(3)
-                                .map(Order::getProduct)
-                                .collect(Collectors.toList()))));
+                        match -> match.right().getDepartment(),
+                        Collectors.collectingAndThen(
+                                TopK.topK(3, Comparator.comparingDouble(
+                                        (Joins.Match<Order, Employee> match) -> match.left().getPrice() * match.left().getQuantity())),
+                                list -> list.stream()
+                                        .map(match -> match.left().getProduct())
+                                        .collect(Collectors.toList()))));
     }
 
     public Map<String, Double> monthlySales(List<Order> orders) {
         // Problem 27 - 月ごとの売上推移を計算
-        return orders.stream()
+        // 行ごとに DateTimeFormatter と文字列を作らず YearMonth で集計し、"yyyy-MM" の文字列は月ごとに1回だけ作る
+        Map<YearMonth, Double> salesByMonth = policy.stream(orders)
                 .collect(Collectors.groupingBy(
-                        order -> order.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                        Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())));
+                        order -> YearMonth.from(order.getOrderDate()),
+                        ExactSum.summing(order -> order.getPrice() * order.getQuantity())));
+        return salesByMonth.entrySet().stream()
+                .collect(Collectors.toMap(e -> e.getKey().toString(), Map.Entry::getValue));
     }
 
     // Level 9: マスター
 
     public List<Employee> findAboveAverageSalesEmployees(List<Employee> employees, List<Order> orders) {
         // Problem 28 - 全従業員の平均売上を超える従業員を抽出
-        return orders.stream()
-                .collect(Collectors.groupingBy(Order::getEmployeeId,
-                        Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())))
-                .entrySet().stream()
-                .filter(entry -> entry.getValue() > orders.stream()
-                        .collect(Collectors.groupingBy(Order::getEmployeeId,
-                                Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())))
-                        .entrySet().stream()
-                        .mapToDouble(Map.Entry::getValue)
-                        .average()
-                        .orElse(0.0))
-                .map(entry -> employees.stream()
-                        .filter(employee -> employee.getId().equals(entry.getKey()))
-                        .findFirst()
-                        .orElse(null))
-                .collect(Collectors.toList());
+        // 従業員ごとの売上と平均は事前に1回だけ計算する
+        return new OrderAnalytics(employees, orders, policy).findAboveAverageSalesEmployees();
     }
 
     public Optional<LocalDate> findBusiestOrderDate(List<Order> orders) {
         // Problem 29 - 最も注文が集中した日を特定
-        return orders.stream()
-                .collect(Collectors.groupingBy(Order::getOrderDate,
-                        Collectors.counting()))
+        // 日付は epochDay（long）のまま数え、結果の Map を作るときだけ LocalDate に戻す
+        return policy.stream(orders)
+                .collect(FastCollectors.groupingByLongCounting(order -> order.getOrderDate().toEpochDay(),
+                        LocalDate::ofEpochDay))
                 .entrySet().stream()
                 .max(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey);
@@ -116,15 +109,105 @@ public class StreamKnockout03 {
 
     public List<Employee> createSalesRanking(List<Employee> employees, List<Order> orders) {
         // Problem 30 - 従業員の売上ランキングを作成
-        // 従業員ごとの売上を事前に計算
-        Map<Long, Double> salesByEmployee = orders.stream()
-                .collect(Collectors.groupingBy(Order::getEmployeeId,
-                        Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())));
-
-        return employees.stream()
-                .sorted(Comparator
-                        .comparingDouble((Employee employee) -> salesByEmployee.getOrDefault(employee.getId(), 0.0))
-                        .reversed())
+        // 注文のない従業員の売上は 0。sorted は安定なので、同額は従業員リストの順序
+        Map<Long, Double> sales = totalOrderAmountByEmployee(orders);
+        return policy.stream(employees)
+                .sorted(Comparator.comparingDouble((Employee e) -> sales.getOrDefault(e.getId(), 0.0)).reversed())
                 .collect(Collectors.toList());
     }
+
+    // 注文金額の分布
+
+    public double orderAmountPercentile(List<Order> orders, double p) {
+        // p99 なら p = 0.99（厳密値、quickselect で O(n)）
+        return Percentiles.percentileInPlace(policy.stream(orders)
+                .mapToDouble(order -> order.getPrice() * order.getQuantity())
+                .toArray(), p);
+    }
+
+    public QuantileSketch orderAmountSketch(List<Order> orders) {
+        // メモリに載らない件数向けの近似（並列でもマージできる）
+        return policy.stream(orders)
+                .collect(QuantileSketch.collector(order -> order.getPrice() * order.getQuantity()));
+    }
+
+    // 近似（メモリ上限あり）。キーの種類が増えても groupingBy のように Map が伸びない
+
+    public HeavyHitters<String> productQuantitySketch(List<Order> orders) {
+        // Problem 24 の近似。topK / heavyHitters で販売数量の多い商品を取り出す
+        return policy.stream(orders)
+                .collect(HeavyHitters.collector(Order::getProduct, Order::getQuantity, HeavyHitters.DEFAULT_CAPACITY));
+    }
+
+    public Optional<LocalDate> approximateBusiestOrderDate(List<Order> orders) {
+        // Problem 29 の近似
+        return policy.stream(orders)
+                .collect(HeavyHitters.collector(Order::getOrderDate, order -> 1L, HeavyHitters.DEFAULT_CAPACITY))
+                .topK(1).stream()
+                .findFirst()
+                .map(HeavyHitters.Entry::key);
+    }
+
+    public Map<String, Long> approximateDistinctOrderingEmployeesByDepartment(List<Employee> employees,
+            List<Order> orders) {
+        // 部門ごとに、注文を受けた従業員の異なり数（部門ごとに HyperLogLog 1つ分のメモリ）
+        Map<Long, String> departmentById = policy.stream(employees)
+                .collect(Collectors.toMap(Employee::getId, Employee::getDepartment, (first, second) -> first));
+        return policy.stream(orders)
+                .filter(order -> departmentById.containsKey(order.getEmployeeId()))
+                .collect(Collectors.groupingBy(order -> departmentById.get(order.getEmployeeId()),
+                        Collectors.collectingAndThen(HyperLogLog.collector(Order::getEmployeeId), HyperLogLog::estimate)));
+    }
+
+    // 金額を Money（cents の long）で正確に集計する版。単価は cents に丸めて取り込む
+    // double を返す上のメソッドと同じ問題を答え、Money.toDouble / Money.toDoubles で同じ型に戻せる
+
+    public Money calculateTotalOrderMoney(List<Order> orders) {
+        // Problem 21
+        return policy.stream(orders).collect(Money.summing(Money::amountCents));
+    }
+
+    public Map<Long, Money> totalOrderMoneyByEmployee(List<Order> orders) {
+        // Problem 22
+        return OrderQuery.from(orders, policy)
+                .groupBy(Order::getEmployeeId)
+                .toMap(OrderQuery.money());
+    }
+
+    public Map<String, Money> monthlySalesMoney(List<Order> orders) {
+        // Problem 27
+        Map<YearMonth, Money> salesByMonth = policy.stream(orders)
+                .collect(Collectors.groupingBy(order -> YearMonth.from(order.getOrderDate()),
+                        Money.summing(Money::amountCents)));
+        return salesByMonth.entrySet().stream()
+                .collect(Collectors.toMap(e -> e.getKey().toString(), Map.Entry::getValue));
+    }
+
+    // ヒープ外（OrderSegmentStore）の注文に対する集計。レコードを直接読み、1行ごとに Order を作らない
+
+    public double calculateTotalOrderAmount(OrderSegmentStore orders) {
+        // Problem 21
+        return orders.calculateTotalOrderAmount(policy);
+    }
+
+    public Map<Long, Double> totalOrderAmountByEmployee(OrderSegmentStore orders) {
+        // Problem 22
+        return orders.totalOrderAmountByEmployee(policy);
+    }
+
+    public Map<String, Integer> totalQuantityByProduct(OrderSegmentStore orders) {
+        // Problem 24
+        return orders.totalQuantityByProduct(policy);
+    }
+
+    public Map<String, Double> monthlySales(OrderSegmentStore orders) {
+        // Problem 27
+        return orders.monthlySales(policy);
+    }
+
+    public Optional<LocalDate> findBusiestOrderDate(OrderSegmentStore orders) {
+        // Problem 29 - List 版と違い、件数が同じ日が複数あれば最も早い日を返す
+        // （List 版は HashMap の走査順で最初に見つかった日なので、同数のときの結果は決まっていない）
+        return orders.findBusiestOrderDate(policy);
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.week2.knockout;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+// 文字列（部門名・商品名など）と 0 から詰めた int コードの辞書
+// 取り込み時に1行につき1回だけ encode し、集計はコードを添字にした配列で行う
+// （行ごとに String のハッシュ計算や equals をしない）。ラベルは結果の Map を作るときにだけ引く
+// encode は同期しないので取り込みは1スレッドで行う。取り込み後の code / label は並列に読んでよい
+public final class StringDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] labels = new String[16];
+    private int size;
+
+    // 未登録なら次のコードを割り当てる
+    public int encode(String label) {
+        Integer code = codes.get(label);
+        if (code != null) {
+            return code;
+        }
+        Objects.requireNonNull(label, "label");
+        if (size == labels.length) {
+            labels = Arrays.copyOf(labels, size * 2);
+        }
+        labels[size] = label;
+        codes.put(label, size);
+        return size++;
+    }
+
+    // 未登録なら -1
+    public int code(String label) {
+        Integer code = codes.get(label);
+        return code == null ? -1 : code;
+    }
+
+    public String label(int code) {
+        return labels[Objects.checkIndex(code, size)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // コードごとの集計結果（配列など）を ラベル -> 値 の Map にする
+    public <V> Map<String, V> toMap(IntFunction<? extends V> valueOfCode) {
+        Map<String, V> result = new HashMap<>(size * 2);
+        for (int code = 0; code < size; code++) {
+            result.put(labels[code], valueOfCode.apply(code));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.week2.knockout;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// Employee / Order / Project の大量データをシード固定で生成する
+// - i 件目はシードと i だけから決まる（前の要素に依存しない）ので、何百万件でも遅延ストリームで作れ、
+//   並列ストリームで作っても、途中から作っても同じデータになる
+// - 商品は Zipf 分布で偏らせる（productSkew = 0 で一様、1 前後で上位数商品に集中）
+// - 注文日は期間内で季節変動をつける（年末が多く夏が少ない。seasonality = 0 で一様）
+// - プロジェクトのメンバーは、近い ID の従業員（チーム）から主に選び、一部を全体から選ぶので
+//   隣り合うプロジェクトのメンバーが重なる
+// - 金額・給与は既定で整数値。fractionalAmounts(true) で 0.01 単位にする（double の合計の丸めを検証する用）
+// 出力先は List（stream(...).toList()）、EmployeeTable、OrderLog / OrderSegmentStore、CSV（KnockoutCsv の形式）
+//
+//   SyntheticData data = new SyntheticData(42).productSkew(1.2).seasonality(0.5);
+//   data.writeOrdersCsv(path, 10_000_000, 100_000);
+public class SyntheticData {
+
+    private static final String[] DEFAULT_DEPARTMENTS = {
+            "Engineering", "Sales", "HR", "Marketing", "Finance", "Support", "Legal", "Operations" };
+    private static final String[] DEFAULT_PRODUCTS = {
+            "Laptop", "Mouse", "Keyboard", "Monitor", "Desk", "Chair", "Headset", "Webcam",
+            "Dock", "Cable", "Tablet", "Phone", "Printer", "Router", "Speaker", "Lamp" };
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private String[] departments = DEFAULT_DEPARTMENTS;
+    private String[] products = DEFAULT_PRODUCTS;
+    private double productSkew = 1.0;
+    private LocalDate firstOrderDate = LocalDate.of(2023, 1, 1);
+    private int orderDays = 730;
+    private double seasonality = 0.5;
+    private int membersPerProject = 20;
+    // プロジェクトのメンバーのうち、チーム外（全体）から選ぶ割合
+    private double outsideMemberRatio = 0.2;
+    private boolean fractionalAmounts;
+
+    // 分布の累積表（設定を変えたら作り直す）
+    private double[] productCumulative;
+    private double[] dayCumulative;
+
+    public SyntheticData(long seed) {
+        this.seed = seed;
+    }
+
+    // --- 設定 ---
+
+    public SyntheticData departments(String... departments) {
+        if (departments.length == 0) {
+            throw new IllegalArgumentException("departments must not be empty");
+        }
+        this.departments = departments.clone();
+        return this;
+    }
+
+    public SyntheticData products(String... products) {
+        if (products.length == 0) {
+            throw new IllegalArgumentException("products must not be empty");
+        }
+        this.products = products.clone();
+        this.productCumulative = null;
+        return this;
+    }
+
+    // "Product00001" 形式の商品を count 種類にする（ロングテールの検証用）
+    public SyntheticData productCount(int count) {
+        String[] generated = new String[count];
+        Arrays.setAll(generated, i -> String.format("Product%05d", i + 1));
+        return products(generated);
+    }
+
+    // Zipf 分布の指数。k 番目の商品の出やすさは 1 / k^skew
+    public SyntheticData productSkew(double skew) {
+        if (skew < 0) {
+            throw new IllegalArgumentException("skew must be >= 0: " + skew);
+        }
+        this.productSkew = skew;
+        this.productCumulative = null;
+        return this;
+    }
+
+    public SyntheticData orderDates(LocalDate first, int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("days must be positive: " + days);
+        }
+        this.firstOrderDate = first;
+        this.orderDays = days;
+        this.dayCumulative = null;
+        return this;
+    }
+
+    // 最も多い日は平均の (1 + amplitude) 倍、最も少ない日は (1 - amplitude) 倍
+    public SyntheticData seasonality(double amplitude) {
+        if (amplitude < 0 || amplitude >= 1) {
+            throw new IllegalArgumentException("amplitude must be in [0, 1): " + amplitude);
+        }
+        this.seasonality = amplitude;
+        this.dayCumulative = null;
+        return this;
+    }
+
+    public SyntheticData membersPerProject(int members, double outsideRatio) {
+        if (members <= 0 || outsideRatio < 0 || outsideRatio > 1) {
+            throw new IllegalArgumentException("invalid project membership: " + members + ", " + outsideRatio);
+        }
+        this.membersPerProject = members;
+        this.outsideMemberRatio = outsideRatio;
+        return this;
+    }
+
+    // 給与と単価を 0.01 単位にする（false なら給与は 100 単位、単価は 1 単位）
+    public SyntheticData fractionalAmounts(boolean enabled) {
+        this.fractionalAmounts = enabled;
+        return this;
+    }
+
+    // --- 遅延ストリーム（ID は 1 から） ---
+
+    public Stream<Employee> employees(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(this::employee);
+    }
+
+    public Stream<Order> orders(long count, int employeeCount) {
+        double[] products = productCumulative();
+        double[] days = dayCumulative();
+        return LongStream.rangeClosed(1, count).mapToObj(id -> order(id, employeeCount, products, days));
+    }
+
+    public Stream<Project> projects(int count, int employeeCount) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> project(id, count, employeeCount));
+    }
+
+    // --- 列指向・バイナリ ---
+
+    public EmployeeTable employeeTable(int count) {
+        return EmployeeTable.from(employees(count).toList());
+    }
+
+    public long writeOrderLog(Path path, long count, int employeeCount) throws IOException {
+        try (OrderLogWriter writer = new OrderLogWriter(path)) {
+            for (Order order : (Iterable<Order>) orders(count, employeeCount)::iterator) {
+                writer.append(order);
+            }
+            return writer.count();
+        }
+    }
+
+    public OrderSegmentStore orderSegmentStore(long count, int employeeCount) {
+        OrderSegmentStore store = new OrderSegmentStore();
+        orders(count, employeeCount).forEachOrdered(store::append);
+        return store;
+    }
+
+    // --- CSV（KnockoutCsv で読める形式） ---
+
+    public void writeEmployeesCsv(Path path, int count) throws IOException {
+        writeCsv(path, "id,name,department,age,salary", employees(count).map(e ->
+                e.getId() + "," + e.getName() + "," + e.getDepartment() + "," + e.getAge() + "," + amount(e.getSalary())));
+    }
+
+    public void writeOrdersCsv(Path path, long count, int employeeCount) throws IOException {
+        writeCsv(path, "id,employeeId,product,quantity,price,orderDate", orders(count, employeeCount).map(o ->
+                o.getId() + "," + o.getEmployeeId() + "," + o.getProduct() + "," + o.getQuantity() + ","
+                        + amount(o.getPrice()) + "," + o.getOrderDate()));
+    }
+
+    public void writeProjectsCsv(Path path, int count, int employeeCount) throws IOException {
+        writeCsv(path, "id,name,memberIds", projects(count, employeeCount).map(p ->
+                p.getId() + "," + p.getName() + ","
+                        + p.getMemberIds().stream().map(String::valueOf).collect(Collectors.joining(";"))));
+    }
+
+    private String amount(double value) {
+        return fractionalAmounts ? String.valueOf(value) : String.valueOf((long) value);
+    }
+
+    private static void writeCsv(Path path, String header, Stream<String> lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(header);
+            writer.newLine();
+            lines.forEachOrdered(line -> {
+                try {
+                    writer.write(line);
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // --- 1件の生成 ---
+
+    private Employee employee(long id) {
+        SplitMix random = random(1, id);
+        String department = departments[random.nextInt(departments.length)];
+        int age = 22 + random.nextInt(44);
+        // 年齢とともに上がる給与に ±20% のばらつき（100 単位）
+        double base = 30_000 + (age - 22) * 1_500;
+        double salary = base * (0.8 + 0.4 * random.nextDouble());
+        return new Employee(id, "Employee" + id, department, age,
+                fractionalAmounts ? Math.round(salary * 100) / 100.0 : Math.round(salary / 100) * 100);
+    }
+
+    private Order order(long id, int employeeCount, double[] productCumulative, double[] dayCumulative) {
+        SplitMix random = random(2, id);
+        int product = pick(productCumulative, random.nextDouble());
+        // 商品ごとの基準価格（商品コードから決まる）に ±10% のばらつき
+        long basePrice = 10 + Math.floorMod(SketchHash.mix(seed ^ product), 2_000L);
+        double factor = 0.9 + 0.2 * random.nextDouble();
+        double price = fractionalAmounts
+                ? Math.max(0.01, Math.round(basePrice * factor * 100) / 100.0)
+                : Math.max(1, Math.round(basePrice * factor));
+        // 数量は 1 が最も多く、大口はまれ
+        int quantity = 1 + (int) (-Math.log(1 - random.nextDouble()) * 2);
+        return new Order(id, 1L + random.nextInt(employeeCount), products[product], Math.min(quantity, 50), price,
+                firstOrderDate.plusDays(pick(dayCumulative, random.nextDouble())));
+    }
+
+    private Project project(long id, int projectCount, int employeeCount) {
+        SplitMix random = random(3, id);
+        int members = Math.min(membersPerProject, employeeCount);
+        // プロジェクトの並びに沿ってチームの位置をずらすので、ID が近いプロジェクトほどメンバーが重なる
+        long teamStart = (id - 1) * employeeCount / Math.max(1, projectCount);
+        int teamSize = Math.max(members, membersPerProject * 2);
+        List<Long> memberIds = new ArrayList<>(members);
+        while (memberIds.size() < members) {
+            long memberId = random.nextDouble() < outsideMemberRatio
+                    ? 1 + random.nextInt(employeeCount)
+                    : 1 + Math.floorMod(teamStart + random.nextInt(teamSize), employeeCount);
+            if (!memberIds.contains(memberId)) {
+                memberIds.add(memberId);
+            }
+        }
+        return new Project(id, "Project" + id, memberIds);
+    }
+
+    private synchronized double[] productCumulative() {
+        if (productCumulative == null) {
+            double[] weights = new double[products.length];
+            Arrays.setAll(weights, k -> 1 / Math.pow(k + 1, productSkew));
+            productCumulative = cumulative(weights);
+        }
+        return productCumulative;
+    }
+
+    private synchronized double[] dayCumulative() {
+        if (dayCumulative == null) {
+            double[] weights = new double[orderDays];
+            for (int day = 0; day < orderDays; day++) {
+                // 12月下旬に山、6月下旬に谷がくる年周期
+                int dayOfYear = firstOrderDate.plusDays(day).getDayOfYear();
+                weights[day] = 1 + seasonality * Math.cos(2 * Math.PI * (dayOfYear - 358) / 365.25);
+            }
+            dayCumulative = cumulative(weights);
+        }
+        return dayCumulative;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    // 累積確率が u を超える最初の位置
+    private static int pick(double[] cumulative, double u) {
+        int index = Arrays.binarySearch(cumulative, u);
+        return Math.min(cumulative.length - 1, index >= 0 ? index + 1 : -index - 1);
+    }
+
+    private SplitMix random(int stream, long id) {
+        return new SplitMix(SketchHash.mix(seed * 31 + stream) ^ (id * GOLDEN_GAMMA));
+    }
+
+    // SplitMix64。要素ごとに作るので java.util.Random より軽いものを使う
+    private static final class SplitMix {
+        private long state;
+
+        SplitMix(long seed) {
+            this.state = seed;
+        }
+
+        long nextLong() {
+            long current = state;
+            state += GOLDEN_GAMMA;
+            return SketchHash.mix(current);
+        }
+
+        int nextInt(int bound) {
+            return (int) Math.floorMod(nextLong(), (long) bound);
+        }
+
+        double nextDouble() {
+            return (nextLong() >>> 11) * 0x1.0p-53;
+        }
+    }
+}
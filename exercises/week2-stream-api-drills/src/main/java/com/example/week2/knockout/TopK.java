@@ -0,0 +1,95 @@
+package com.example.week2.knockout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+// 上位K件だけを大きさKのヒープで保持する Collector
+// sorted().limit(k) は全件をソートするが、こちらは O(n log k) 時間・O(k) メモリ
+// 結果は comparator の大きい順。同順位は出現順（先に現れた方が上位）で、sorted() の安定ソートと同じ並びになる
+public final class TopK {
+
+    private TopK() {
+    }
+
+    public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return Collector.of(
+                () -> new Accumulator<T>(k, comparator),
+                Accumulator::add,
+                Accumulator::merge,
+                Accumulator::toList);
+    }
+
+    // 同順位を出現順ではなく tieBreaker で決める（tieBreaker で大きい方が上位）
+    public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> comparator,
+            Comparator<? super T> tieBreaker) {
+        Comparator<T> ordering = (a, b) -> comparator.compare(a, b);
+        return topK(k, ordering.thenComparing(tieBreaker));
+    }
+
+    // groupingBy(classifier, topK(k, comparator)) の省略形
+    public static <T, K> Collector<T, ?, Map<K, List<T>>> topKPerGroup(Function<? super T, ? extends K> classifier,
+            int k, Comparator<? super T> comparator) {
+        return Collectors.groupingBy(classifier, topK(k, comparator));
+    }
+
+    private record Entry<T>(T value, long sequence) {
+    }
+
+    private static final class Accumulator<T> {
+        private final int k;
+        private final Comparator<Entry<T>> ranking;
+        // 先頭が最も順位の低い要素（最小ヒープ）
+        private final PriorityQueue<Entry<T>> heap;
+        private long seen;
+
+        Accumulator(int k, Comparator<? super T> comparator) {
+            this.k = k;
+            // 値が大きいほど上位、同値なら sequence が小さいほど上位
+            Comparator<Entry<T>> byValue = (a, b) -> comparator.compare(a.value(), b.value());
+            this.ranking = byValue.thenComparing(Entry::sequence, Comparator.reverseOrder());
+            this.heap = new PriorityQueue<>(Math.max(1, k), ranking);
+        }
+
+        void add(T value) {
+            offer(new Entry<>(value, seen++));
+        }
+
+        private void offer(Entry<T> entry) {
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (k > 0 && ranking.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        Accumulator<T> merge(Accumulator<T> other) {
+            // other は出現順で後ろの部分なので、sequence をずらして全体の出現順を保つ
+            long offset = seen;
+            for (Entry<T> entry : other.heap) {
+                offer(new Entry<>(entry.value(), entry.sequence() + offset));
+            }
+            seen += other.seen;
+            return this;
+        }
+
+        List<T> toList() {
+            List<Entry<T>> entries = new ArrayList<>(heap);
+            entries.sort(ranking.reversed());
+            List<T> result = new ArrayList<>(entries.size());
+            for (Entry<T> entry : entries) {
+                result.add(entry.value());
+            }
+            return result;
+        }
+    }
+}
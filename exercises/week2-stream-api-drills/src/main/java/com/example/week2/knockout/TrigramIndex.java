@@ -0,0 +1,191 @@
+package com.example.week2.knockout;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// 名前の部分一致検索（大文字小文字を区別しない）のための 3-gram 転置索引
+// - 名前は追加時に1回だけ小文字にして保持し、検索のたびに全件を toLowerCase しない
+// - 3文字以上のキーワードは、キーワード中の 3-gram のポスティングリストを短い順に積集合して候補を絞り、
+//   最後に contains で確かめる（3-gram がそろっていても並び順が違う名前を落とすため）
+// - 2文字以下のキーワードは保持している小文字の名前を順に調べる
+// - 追加・削除は逐次反映する。削除はまず印だけ付け、削除済みが生きている件数を超えたら詰め直す
+// Employee でも day1/day3/day4 の User でも、名前の取り出し方を渡せば使える
+//   例: new TrigramIndex<>(Employee::getName)、TrigramIndex.of(users, User::getName)
+// 要素を索引に入れたまま名前を書き換えないこと（削除してから変更し、追加し直す）
+public class TrigramIndex<T> {
+
+    private static final int MIN_COMPACT_SIZE = 1024;
+
+    private final Function<? super T, String> nameOf;
+    // 文書番号 -> 要素と小文字の名前（削除済みは null）
+    private final List<T> items = new ArrayList<>();
+    private final List<String> lowerNames = new ArrayList<>();
+    private final Map<T, Deque<Integer>> documentsByItem = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private int removed;
+
+    public TrigramIndex(Function<? super T, String> nameOf) {
+        this.nameOf = nameOf;
+    }
+
+    public static <T> TrigramIndex<T> of(Collection<? extends T> items, Function<? super T, String> nameOf) {
+        TrigramIndex<T> index = new TrigramIndex<>(nameOf);
+        for (T item : items) {
+            index.add(item);
+        }
+        return index;
+    }
+
+    public synchronized void add(T item) {
+        String lowerName = nameOf.apply(item).toLowerCase();
+        int document = items.size();
+        items.add(item);
+        lowerNames.add(lowerName);
+        documentsByItem.computeIfAbsent(item, key -> new ArrayDeque<>()).addLast(document);
+        // 文書番号は増える一方なので、ポスティングリストは末尾に足すだけで昇順のまま
+        for (long trigram : trigrams(lowerName)) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(document);
+        }
+    }
+
+    // 同じ要素が複数あれば先に追加した方を削除する
+    public synchronized boolean remove(T item) {
+        Deque<Integer> documents = documentsByItem.get(item);
+        if (documents == null) {
+            return false;
+        }
+        int document = documents.removeFirst();
+        if (documents.isEmpty()) {
+            documentsByItem.remove(item);
+        }
+        items.set(document, null);
+        lowerNames.set(document, null);
+        removed++;
+        if (removed >= MIN_COMPACT_SIZE && removed > items.size() - removed) {
+            compact();
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return items.size() - removed;
+    }
+
+    // 名前に keyword を含む要素（大文字小文字を区別しない）を追加順に返す
+    public synchronized List<T> search(String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        List<T> result = new ArrayList<>();
+        if (lowerKeyword.length() < 3) {
+            for (int document = 0; document < items.size(); document++) {
+                String lowerName = lowerNames.get(document);
+                if (lowerName != null && lowerName.contains(lowerKeyword)) {
+                    result.add(items.get(document));
+                }
+            }
+            return result;
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (long trigram : trigrams(lowerKeyword)) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                return result;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] candidates = Arrays.copyOf(lists.get(0).documents, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = intersect(candidates, count, lists.get(i));
+        }
+        for (int i = 0; i < count; i++) {
+            String lowerName = lowerNames.get(candidates[i]);
+            if (lowerName != null && lowerName.contains(lowerKeyword)) {
+                result.add(items.get(candidates[i]));
+            }
+        }
+        return result;
+    }
+
+    // candidates[0, count) のうち other にもあるものを前に詰め、その件数を返す
+    private static int intersect(int[] candidates, int count, Postings other) {
+        int kept = 0;
+        if (other.size > count * 16) {
+            // 長さの差が大きいときは長い方を二分探索する
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int found = Arrays.binarySearch(other.documents, from, other.size, candidates[i]);
+                if (found >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return kept;
+        }
+        int j = 0;
+        for (int i = 0; i < count && j < other.size; ) {
+            if (candidates[i] < other.documents[j]) {
+                i++;
+            } else if (candidates[i] > other.documents[j]) {
+                j++;
+            } else {
+                candidates[kept++] = candidates[i];
+                i++;
+                j++;
+            }
+        }
+        return kept;
+    }
+
+    // 文字列中の異なる 3-gram（char 3つを long に詰める）
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    // 削除済みの文書を取り除いて番号を振り直す
+    private void compact() {
+        List<T> liveItems = new ArrayList<>(items.size() - removed);
+        for (T item : items) {
+            if (item != null) {
+                liveItems.add(item);
+            }
+        }
+        items.clear();
+        lowerNames.clear();
+        documentsByItem.clear();
+        postings.clear();
+        removed = 0;
+        for (T item : liveItems) {
+            add(item);
+        }
+    }
+
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.week2.knockout;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// NumericKernels の SIMD 版（jdk.incubator.vector）。このクラスだけが Vector API を参照する
+// - double は CPU の推奨幅（AVX2 なら 4 レーン、AVX-512 なら 8 レーン、NEON なら 2 レーン）で処理し、
+//   端数の要素はスカラーで足す
+// - int の列（数量・年齢）は double と同じレーン数になる半分の幅で読み、double に変換して使う
+// - 合計は2本のアキュムレータに交互に足し、加算の待ち時間を隠す
+final class VectorApiKernels implements NumericKernels {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private final VectorSpecies<Integer> ints;
+
+    private VectorApiKernels(VectorSpecies<Integer> ints) {
+        this.ints = ints;
+    }
+
+    // 128 ビット未満（SIMD がない、または無効）なら使っても速くならない
+    static NumericKernels create() {
+        if (DOUBLES.vectorBitSize() < 128) {
+            return ScalarKernels.INSTANCE;
+        }
+        return new VectorApiKernels(VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2)));
+    }
+
+    @Override
+    public double sum(double[] values, int from, int to) {
+        ScalarKernels.checkRange(values.length, from, to);
+        int lanes = DOUBLES.length();
+        DoubleVector even = DoubleVector.zero(DOUBLES);
+        DoubleVector odd = DoubleVector.zero(DOUBLES);
+        int i = from;
+        for (; i <= to - 2 * lanes; i += 2 * lanes) {
+            even = even.add(DoubleVector.fromArray(DOUBLES, values, i));
+            odd = odd.add(DoubleVector.fromArray(DOUBLES, values, i + lanes));
+        }
+        for (; i <= to - lanes; i += lanes) {
+            even = even.add(DoubleVector.fromArray(DOUBLES, values, i));
+        }
+        double total = even.add(odd).reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double sumOfProducts(double[] prices, int[] quantities) {
+        ScalarKernels.checkSameLength(prices.length, quantities.length);
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        int bound = DOUBLES.loopBound(prices.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector quantity = (DoubleVector) IntVector.fromArray(ints, quantities, i)
+                    .convertShape(VectorOperators.I2D, DOUBLES, 0);
+            // fma にしない（スカラー版と同じく積を丸めてから足す）
+            acc = acc.add(DoubleVector.fromArray(DOUBLES, prices, i).mul(quantity));
+        }
+        double total = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < prices.length; i++) {
+            total += prices[i] * quantities[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double min(double[] values) {
+        DoubleVector acc = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        int i = 0;
+        int bound = DOUBLES.loopBound(values.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            acc = acc.min(DoubleVector.fromArray(DOUBLES, values, i));
+        }
+        double min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < values.length; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    @Override
+    public double max(double[] values) {
+        DoubleVector acc = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        int bound = DOUBLES.loopBound(values.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            acc = acc.max(DoubleVector.fromArray(DOUBLES, values, i));
+        }
+        double max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < values.length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    @Override
+    public double sumWhereAtLeast(double[] values, int[] keys, int threshold) {
+        ScalarKernels.checkSameLength(values.length, keys.length);
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        int bound = DOUBLES.loopBound(values.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            VectorMask<Integer> selected = IntVector.fromArray(ints, keys, i).compare(VectorOperators.GE, threshold);
+            // 条件を満たさないレーンは足さない（分岐なし）
+            acc = acc.add(DoubleVector.fromArray(DOUBLES, values, i), selected.cast(DOUBLES));
+        }
+        double total = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < values.length; i++) {
+            if (keys[i] >= threshold) {
+                total += values[i];
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + DOUBLES.vectorBitSize() + " bit)";
+    }
+}
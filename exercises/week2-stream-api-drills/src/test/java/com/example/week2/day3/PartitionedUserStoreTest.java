@@ -0,0 +1,78 @@
+package com.example.week2.day3;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedUserStoreTest {
+
+    private final MatchingDrill drill = new MatchingDrill();
+
+    @Test
+    void matchesListQueriesForEveryPartitionSize() {
+        List<User> users = generateUsers(5_000, 11);
+        for (int partitionSize : List.of(1, 7, 64, 1000, 10_000)) {
+            PartitionedUserStore store = new PartitionedUserStore(users, partitionSize);
+            assertEquals(drill.hasUnderage(users), drill.hasUnderage(store));
+            assertEquals(drill.findYoungestUser(users), drill.findYoungestUser(store));
+            for (String department : List.of("Engineering", "Sales", "HR", "Legal", "Marketing")) {
+                assertEquals(drill.areAllInDepartment(users, department), drill.areAllInDepartment(store, department));
+                assertEquals(drill.findFirstUserInDepartment(users, department),
+                        drill.findFirstUserInDepartment(store, department), department + " / " + partitionSize);
+            }
+        }
+    }
+
+    @Test
+    void answersFromPartitionSummaries() {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            users.add(new User(id, "User" + id, 30 + (int) (id % 20), "Engineering"));
+        }
+        // 最後のパーティションにだけ別部門と最年少（同い年が2人）を置く
+        users.add(new User(1_001L, "Young", 19, "Sales"));
+        users.add(new User(1_002L, "Young2", 19, "Sales"));
+        PartitionedUserStore store = new PartitionedUserStore(users, 100);
+
+        assertEquals(11, store.partitionCount());
+        assertTrue(store.anyYoungerThan(20));
+        assertFalse(store.anyYoungerThan(19));
+        assertTrue(store.anyOlderThan(48));
+        assertFalse(store.anyOlderThan(49));
+        assertFalse(store.allInDepartment("Engineering"));
+        assertEquals(1_001L, store.findYoungest().orElseThrow().getId());
+        assertEquals(1_001L, store.findFirstInDepartment("Sales").orElseThrow().getId());
+        assertEquals(1L, store.findFirstInDepartment("Engineering").orElseThrow().getId());
+
+        PartitionedUserStore engineers = new PartitionedUserStore(users.subList(0, 1_000), 100);
+        assertTrue(engineers.allInDepartment("Engineering"));
+        assertFalse(engineers.allInDepartment("Sales"));
+        assertTrue(engineers.findFirstInDepartment("Sales").isEmpty());
+    }
+
+    @Test
+    void emptyStoreBehavesLikeEmptyStream() {
+        PartitionedUserStore store = new PartitionedUserStore(List.of());
+        assertEquals(0, store.partitionCount());
+        assertFalse(drill.hasUnderage(store));
+        assertTrue(drill.areAllInDepartment(store, "Engineering"));
+        assertTrue(drill.findYoungestUser(store).isEmpty());
+        assertTrue(drill.findFirstUserInDepartment(store, "Engineering").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedUserStore(List.of(), 0));
+    }
+
+    // 年齢は 18〜65、部門は偏りあり（Legal は後ろの方に少しだけ）
+    private static List<User> generateUsers(int count, long seed) {
+        Random random = new Random(seed);
+        String[] departments = { "Engineering", "Engineering", "Sales", "HR" };
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            String department = id > count - 50 && random.nextInt(10) == 0 ? "Legal"
+                    : departments[random.nextInt(departments.length)];
+            users.add(new User(id, "User" + id, 18 + random.nextInt(48), department));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.util.BitSet;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    @Test
+    void addAndContains() {
+        CompressedBitmap bitmap = CompressedBitmap.of(5, 1, 70_000, 5, 0);
+        assertEquals(4, bitmap.cardinality());
+        assertArrayEquals(new int[] { 0, 1, 5, 70_000 }, bitmap.toArray());
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(-1));
+        assertTrue(new CompressedBitmap().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+
+    @Test
+    void switchesBetweenArrayAndBitmapContainers() {
+        // 1コンテナ内で 4096 件を超えるとビットマップになり、積集合で少なくなれば配列に戻る
+        CompressedBitmap evens = new CompressedBitmap();
+        CompressedBitmap threes = new CompressedBitmap();
+        for (int i = 0; i < 65_536; i++) {
+            if (i % 2 == 0) {
+                evens.add(i);
+            }
+            if (i % 3 == 0) {
+                threes.add(i);
+            }
+        }
+        assertEquals(32_768, evens.cardinality());
+        CompressedBitmap sixes = evens.and(threes);
+        assertEquals(10_923, sixes.cardinality());
+        assertTrue(sixes.contains(65_532));
+        assertFalse(sixes.contains(65_534));
+        assertEquals(32_768 + 21_846 - 10_923, evens.or(threes).cardinality());
+
+        CompressedBitmap sparse = CompressedBitmap.of(6, 7, 65_534);
+        assertArrayEquals(new int[] { 6 }, sparse.and(sixes).toArray());
+        assertEquals(10_925, sparse.or(sixes).cardinality());
+    }
+
+    @Test
+    void matchesBitSetOnRandomSets() {
+        Random random = new Random(12);
+        for (int round = 0; round < 20; round++) {
+            int range = 1 + random.nextInt(300_000);
+            int count = random.nextInt(20_000);
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            CompressedBitmap a = new CompressedBitmap();
+            CompressedBitmap b = new CompressedBitmap();
+            for (int i = 0; i < count; i++) {
+                int x = random.nextInt(range);
+                int y = random.nextInt(range);
+                expectedA.set(x);
+                a.add(x);
+                expectedB.set(y);
+                b.add(y);
+            }
+            assertArrayEquals(expectedA.stream().toArray(), a.toArray());
+
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            assertArrayEquals(and.stream().toArray(), a.and(b).toArray());
+
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            assertArrayEquals(or.stream().toArray(), a.or(b).toArray());
+            assertEquals(or.cardinality(), b.or(a).cardinality());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void sizeFollowsEpsilonAndDelta() {
+        CountMinSketch sketch = new CountMinSketch(0.01, 0.01);
+        assertEquals(272, sketch.width());
+        assertEquals(5, sketch.depth());
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> sketch.add("x", -1));
+    }
+
+    @Test
+    void neverUnderestimatesAndStaysWithinBound() {
+        Random random = new Random(16);
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.001);
+        Map<Long, Long> exact = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // 偏りのある分布（小さいIDほど多い）
+            long key = (long) Math.floor(Math.pow(random.nextDouble(), 3) * 50_000);
+            sketch.add(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+        assertEquals(200_000, sketch.totalCount());
+        double bound = sketch.errorBound();
+        assertEquals(200_000 * Math.E / sketch.width(), bound, 1e-9);
+        int overBound = 0;
+        for (Map.Entry<Long, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue());
+            if (estimate - entry.getValue() > bound) {
+                overBound++;
+            }
+        }
+        // 上限を超える確率は delta = 0.001 以下
+        assertTrue(overBound <= exact.size() * 0.001 + 1, "over bound: " + overBound);
+    }
+
+    @Test
+    void mergeEqualsSingleSketch() {
+        CountMinSketch whole = new CountMinSketch(0.01, 0.01);
+        CountMinSketch left = new CountMinSketch(0.01, 0.01);
+        CountMinSketch right = new CountMinSketch(0.01, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            String key = "P" + (i % 137);
+            whole.add(key, i % 5);
+            (i % 2 == 0 ? left : right).add(key, i % 5);
+        }
+        left.merge(right);
+        assertEquals(whole.totalCount(), left.totalCount());
+        for (int i = 0; i < 137; i++) {
+            assertEquals(whole.estimate("P" + i), left.estimate("P" + i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new CountMinSketch(10, 2)));
+    }
+}
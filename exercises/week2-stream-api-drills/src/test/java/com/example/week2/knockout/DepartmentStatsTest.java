@@ -0,0 +1,73 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepartmentStatsTest {
+
+    private final StreamKnockout01 knockout01 = new StreamKnockout01();
+    private final StreamKnockout02 knockout02 = new StreamKnockout02();
+    private List<Employee> employees;
+
+    @BeforeEach
+    void setUp() {
+        employees = List.of(
+                new Employee(1L, "Alice", "Engineering", 28, 55000.0),
+                new Employee(2L, "Bob", "Sales", 35, 48000.0),
+                new Employee(3L, "Charlie", "Engineering", 42, 75000.0),
+                new Employee(4L, "Dave", "HR", 29, 42000.0),
+                new Employee(5L, "Eve", "Engineering", 31, 62000.0),
+                new Employee(6L, "Frank", "Sales", 38, 51000.0),
+                new Employee(7L, "Grace", "HR", 45, 58000.0));
+    }
+
+    @Test
+    void summaryPerDepartment() {
+        DepartmentStats stats = knockout01.departmentStats(employees);
+        DepartmentStats.Summary engineering = stats.summary("Engineering").orElseThrow();
+        assertEquals(3, engineering.count());
+        assertEquals(192000.0, engineering.sum(), 0.01);
+        assertEquals(55000.0, engineering.min());
+        assertEquals(75000.0, engineering.max());
+        assertEquals(64000.0, engineering.average(), 0.01);
+        assertEquals(20000.0, engineering.range());
+        assertEquals("Charlie", engineering.topEarner().getName());
+        assertTrue(stats.summary("Marketing").isEmpty());
+    }
+
+    @Test
+    void matchesStreamKnockoutQueries() {
+        assertSameResults(employees, DepartmentStats.of(employees));
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        Random random = new Random(7);
+        String[] departments = { "Engineering", "Sales", "HR", "Marketing", "Finance" };
+        List<Employee> generated = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            // 給与を粗くして同額のトップが出るようにする
+            generated.add(new Employee(id, "emp" + id, departments[random.nextInt(departments.length)],
+                    20 + random.nextInt(40), 30000 + random.nextInt(20) * 5000));
+        }
+        DepartmentStats parallel = DepartmentStats.ofParallel(generated);
+        assertEquals(DepartmentStats.of(generated).findTopEarnerPerDepartment(), parallel.findTopEarnerPerDepartment());
+        assertSameResults(generated, parallel);
+    }
+
+    private void assertSameResults(List<Employee> employees, DepartmentStats stats) {
+        knockout01.averageSalaryByDepartment(employees)
+                .forEach((department, average) -> assertEquals(average,
+                        stats.averageSalaryByDepartment().get(department), 1e-6));
+        assertEquals(knockout01.findTopEarnerPerDepartment(employees), stats.findTopEarnerPerDepartment());
+        assertEquals(new HashSet<>(knockout01.findDepartmentsWithHighTotalSalary(employees)),
+                new HashSet<>(stats.findDepartmentsWithHighTotalSalary(100000)));
+        assertEquals(knockout02.maxSalaryByDepartment(employees), stats.maxSalaryByDepartment());
+        assertEquals(knockout02.salaryRangeByDepartment(employees), stats.salaryRangeByDepartment());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeTableTest {
+
+    private final StreamKnockout01 knockout01 = new StreamKnockout01();
+    private final StreamKnockout02 knockout02 = new StreamKnockout02();
+    private List<Employee> employees;
+    private EmployeeTable table;
+
+    @BeforeEach
+    void setUp() {
+        employees = List.of(
+                new Employee(1L, "Alice", "Engineering", 28, 55000.0),
+                new Employee(2L, "Bob", "Sales", 35, 48000.0),
+                new Employee(3L, "Charlie", "Engineering", 42, 75000.0),
+                new Employee(4L, "Dave", "HR", 29, 42000.0),
+                new Employee(5L, "Eve", "Engineering", 31, 62000.0),
+                new Employee(6L, "Frank", "Sales", 38, 51000.0),
+                new Employee(7L, "Grace", "HR", 45, 58000.0),
+                new Employee(8L, "Henry", "Engineering", 26, 50000.0));
+        table = EmployeeTable.from(employees);
+    }
+
+    @Test
+    void rowRoundTrip() {
+        assertEquals(8, table.size());
+        assertEquals(3, table.departmentCount());
+        for (int row = 0; row < employees.size(); row++) {
+            assertEquals(employees.get(row), table.row(row));
+        }
+        assertEquals(-1, table.departmentCode("Marketing"));
+    }
+
+    @Test
+    void kernelAggregates() {
+        assertEquals(441000.0, table.calculateTotalSalary());
+        // 30歳以上: Bob, Charlie, Eve, Frank, Grace
+        assertEquals(294000.0, table.totalSalaryOfAgeAtLeast(30));
+        assertEquals(42000.0, table.minSalary());
+        assertEquals(75000.0, table.maxSalary());
+    }
+
+    @Test
+    void matchesStreamKnockout01() {
+        assertSameResults(employees, table);
+    }
+
+    @Test
+    void matchesStreamKnockoutOnGeneratedData() {
+        Random random = new Random(42);
+        String[] departments = { "Engineering", "Sales", "HR", "Marketing", "Finance" };
+        List<Employee> generated = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            generated.add(new Employee(id, "emp" + id, departments[random.nextInt(departments.length)],
+                    18 + random.nextInt(50), 30000 + random.nextInt(100) * 1000));
+        }
+        assertSameResults(generated, EmployeeTable.from(generated));
+    }
+
+    @Test
+    void departmentSumsMatchStreamVersionWithFractionalSalaries() {
+        // cents 単位の給与を部門ごとに数万件足しても、Stream 版とビット単位で一致する
+        List<Employee> generated = new SyntheticData(11).fractionalAmounts(true).employees(60_000).toList();
+        EmployeeTable generatedTable = EmployeeTable.from(generated);
+        assertEquals(knockout01.averageSalaryByDepartment(generated), generatedTable.averageSalaryByDepartment());
+        Map<String, Double> totals = EmployeeQuery.from(generated, ExecutionPolicy.SEQUENTIAL)
+                .groupBy(Employee::getDepartment)
+                .toMap(EmployeeQuery.totalSalary());
+        double[] sums = generatedTable.sumSalaryByDepartmentCode();
+        assertEquals(totals.size(), sums.length);
+        totals.forEach((department, total) -> assertEquals(total, sums[generatedTable.departmentCode(department)]));
+    }
+
+    @Test
+    void emptyTable() {
+        EmployeeTable empty = EmployeeTable.from(List.of());
+        assertEquals(0.0, empty.calculateTotalSalary());
+        assertEquals(0.0, empty.totalSalaryOfAgeAtLeast(30));
+        assertEquals(Double.NEGATIVE_INFINITY, empty.maxSalary());
+        assertTrue(empty.findHighestPaidEmployee().isEmpty());
+        assertTrue(empty.findTop3HighestPaid().isEmpty());
+        assertTrue(empty.sortEmployeesByAge().isEmpty());
+        assertTrue(empty.countByAgeGroup().isEmpty());
+        assertTrue(empty.averageSalaryByDepartment().isEmpty());
+    }
+
+    private void assertSameResults(List<Employee> employees, EmployeeTable table) {
+        assertEquals(knockout01.findEmployeesOver30(employees), table.rows(table.findEmployeesOver30()));
+        assertEquals(knockout01.countEngineeringEmployees(employees), table.countEngineeringEmployees());
+        assertEquals(knockout01.findHighestPaidEmployee(employees), table.findHighestPaidEmployee());
+        assertEquals(knockout01.findTopEarnerPerDepartment(employees), table.findTopEarnerPerDepartment());
+        assertEquals(knockout01.findTop3HighestPaid(employees), table.findTop3HighestPaid());
+        assertEquals(new HashSet<>(knockout01.findDepartmentsWithHighTotalSalary(employees)),
+                new HashSet<>(table.findDepartmentsWithHighTotalSalary()));
+
+        Map<String, Double> expectedAverage = knockout01.averageSalaryByDepartment(employees);
+        Map<String, Double> actualAverage = table.averageSalaryByDepartment();
+        assertEquals(expectedAverage.keySet(), actualAverage.keySet());
+        expectedAverage.forEach((department, average) -> assertEquals(average, actualAverage.get(department), 1e-6));
+
+        assertEquals(knockout02.calculateTotalSalary(employees), table.calculateTotalSalary(), 1e-6);
+        assertEquals(knockout02.maxSalaryByDepartment(employees), table.maxSalaryByDepartment());
+        assertEquals(knockout02.sortEmployeesByAge(employees), table.sortEmployeesByAge());
+        assertEquals(knockout02.salaryRangeByDepartment(employees), table.salaryRangeByDepartment());
+        assertEquals(knockout02.countByAgeGroup(employees), table.countByAgeGroup());
+    }
+}
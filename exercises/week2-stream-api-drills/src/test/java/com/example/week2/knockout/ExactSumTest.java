@@ -0,0 +1,55 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExactSumTest {
+
+    @Test
+    void givesTheCorrectlyRoundedSumInAnyOrder() {
+        // 桁の大きく違う値と打ち消し合う値を混ぜる（素朴な加算や Kahan では順序で末尾の桁が変わる）
+        Random random = new Random(3);
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            values.add(value);
+            if (i % 10 == 0) {
+                values.add(-value * 0.999);
+            }
+        }
+        BigDecimal exact = values.stream().map(BigDecimal::new).reduce(BigDecimal.ZERO, BigDecimal::add);
+        double expected = exact.doubleValue();
+
+        assertEquals(expected, values.stream().collect(ExactSum.summing(Double::doubleValue)));
+        assertEquals(expected, values.parallelStream().collect(ExactSum.summing(Double::doubleValue)));
+        Collections.shuffle(values, random);
+        assertEquals(expected, values.stream().collect(ExactSum.summing(Double::doubleValue)));
+        assertEquals(expected / values.size(), values.parallelStream().collect(ExactSum.averaging(Double::doubleValue)));
+    }
+
+    @Test
+    void smallInputs() {
+        assertEquals(0.0, List.<Double>of().stream().collect(ExactSum.summing(Double::doubleValue)));
+        assertEquals(0.0, List.<Double>of().stream().collect(ExactSum.averaging(Double::doubleValue)));
+        assertEquals(0.30000000000000004, List.of(0.1, 0.2).stream().collect(ExactSum.summing(Double::doubleValue)));
+        // 0.1 を10回: 素朴な加算は 0.9999999999999999
+        assertEquals(1.0, Collections.nCopies(10, 0.1).stream().collect(ExactSum.summing(Double::doubleValue)));
+        assertEquals(1e100, List.of(1e100, 1.0, -1.0).stream().collect(ExactSum.summing(Double::doubleValue)));
+        assertEquals(2.0, List.of(1e100, 2.0, -1e100).stream().collect(ExactSum.summing(Double::doubleValue)));
+    }
+
+    @Test
+    void nonFiniteValuesFollowSummingDouble() {
+        for (List<Double> values : List.of(List.of(1.0, Double.POSITIVE_INFINITY), List.of(Double.NEGATIVE_INFINITY, 2.0),
+                List.of(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY), List.of(1.0, Double.NaN))) {
+            assertEquals(values.stream().collect(Collectors.summingDouble(Double::doubleValue)),
+                    values.stream().collect(ExactSum.summing(Double::doubleValue)), values.toString());
+        }
+    }
+}
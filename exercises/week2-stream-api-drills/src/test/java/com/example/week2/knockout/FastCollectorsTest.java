@@ -0,0 +1,116 @@
+package com.example.week2.knockout;
+
+import com.example.week2.day2.CollectorsDrill;
+import com.example.week2.day2.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastCollectorsTest {
+
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        orders = new SyntheticData(21).orders(200_000, 5_000).toList();
+    }
+
+    @Test
+    void countingMatchesJdkCollectors() {
+        // 商品は注文から作る（注文の商品名をカテゴリにする）
+        List<Product> products = new SyntheticData(22).products("Electronics", "Books", "Food", "Toys")
+                .orders(100_000, 1)
+                .map(order -> new Product(order.getId(), "Product" + order.getId(), order.getProduct(), order.getPrice()))
+                .toList();
+        // ドリルの模範解答（groupingBy + counting）をそのまま置き換えられること
+        Map<String, Long> expected = new CollectorsDrill().countByCategory(products);
+        assertEquals(expected, products.stream().collect(FastCollectors.groupingByCounting(Product::getCategory)));
+        assertEquals(expected, products.parallelStream().collect(FastCollectors.groupingByCounting(Product::getCategory)));
+
+        Map<LocalDate, Long> byDate = orders.stream().collect(Collectors.groupingBy(Order::getOrderDate, Collectors.counting()));
+        assertEquals(byDate, orders.parallelStream().collect(FastCollectors.groupingByLongCounting(
+                order -> order.getOrderDate().toEpochDay(), LocalDate::ofEpochDay)));
+        assertEquals(byDate, orders.parallelStream().collect(FastCollectors.groupingByCounting(Order::getOrderDate)));
+    }
+
+    @Test
+    void summingMatchesJdkCollectors() {
+        // 金額は整数なので補正なしの加算でも一致する
+        Map<Long, Double> byEmployee = orders.stream().collect(Collectors.groupingBy(Order::getEmployeeId,
+                Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())));
+        for (boolean parallel : List.of(false, true)) {
+            assertEquals(byEmployee, (parallel ? orders.parallelStream() : orders.stream()).collect(
+                    FastCollectors.groupingByLongSummingDouble(Order::getEmployeeId,
+                            order -> order.getPrice() * order.getQuantity())));
+            assertEquals(byEmployee, (parallel ? orders.parallelStream() : orders.stream()).collect(
+                    FastCollectors.groupingBySummingDouble(Order::getEmployeeId,
+                            order -> order.getPrice() * order.getQuantity())));
+        }
+
+        Map<String, Long> quantities = orders.stream().collect(Collectors.groupingBy(Order::getProduct,
+                Collectors.summingLong(Order::getQuantity)));
+        assertEquals(quantities, orders.parallelStream().collect(
+                FastCollectors.groupingBySummingLong(Order::getProduct, Order::getQuantity)));
+    }
+
+    @Test
+    void knockoutQueriesKeepTheirResults() {
+        List<Employee> employees = new SyntheticData(23).employees(50_000).toList();
+        Map<String, Long> ageGroups = employees.stream().collect(Collectors.groupingBy(
+                e -> (e.getAge() / 10 * 10) + "代", Collectors.counting()));
+        assertEquals(ageGroups, new StreamKnockout02().countByAgeGroup(employees));
+        assertEquals(ageGroups, new StreamKnockout02(ExecutionPolicy.PARALLEL).countByAgeGroup(employees));
+        assertTrue(StreamKnockout03Test.busiestDates(orders).contains(
+                new StreamKnockout03(ExecutionPolicy.PARALLEL).findBusiestOrderDate(orders).orElseThrow()));
+    }
+
+    @Test
+    void primitiveMapGrowsPastManyKeys() {
+        // 負のキーや 0 も含め、リサイズをまたいでも値が残る
+        LongDoubleHashMap map = new LongDoubleHashMap();
+        for (long key = -50_000; key < 50_000; key++) {
+            map.add(key, key);
+            map.add(key, 1);
+        }
+        assertEquals(100_000, map.size());
+        assertEquals(1.0, map.get(0));
+        assertEquals(-49_999.0, map.get(-50_000));
+        assertEquals(0.0, map.get(123_456_789));
+        assertTrue(orders.stream().collect(FastCollectors.groupingByLongSummingDouble(Order::getEmployeeId,
+                order -> 1.0)).size() <= 5_000);
+        assertTrue(new ArrayList<Order>().stream().collect(FastCollectors.groupingByCounting(Order::getProduct)).isEmpty());
+    }
+
+    @Test
+    void codeCollectorsMatchJdkCollectors() {
+        Map<Integer, Long> byQuantity = orders.stream().collect(Collectors.groupingBy(Order::getQuantity, Collectors.counting()));
+        assertEquals(byQuantity, orders.parallelStream().collect(FastCollectors.groupingByCodeCounting(
+                Order::getQuantity, Integer::valueOf)));
+
+        StringDictionary products = new StringDictionary();
+        orders.forEach(order -> products.encode(order.getProduct()));
+        Map<String, Long> quantityByProduct = orders.stream().collect(Collectors.groupingBy(Order::getProduct,
+                Collectors.summingLong(Order::getQuantity)));
+        assertEquals(quantityByProduct, orders.parallelStream().collect(FastCollectors.groupingByCodeSummingLong(
+                order -> products.code(order.getProduct()), Order::getQuantity, products::label)));
+
+        // 合計が 0 のグループも残す（summingLong と同じ）
+        assertEquals(Map.of("a", 0L), List.of(1, -1).stream()
+                .collect(FastCollectors.groupingByCodeSummingLong(value -> 0, value -> value, code -> "a")));
+
+        // 負のコードや配列の範囲外のコードも数える（並列で合わせても同じ）
+        List<Integer> codes = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            codes.add(List.of(-1, 0, 3, FastCollectors.DENSE_CODES, Integer.MAX_VALUE, Integer.MIN_VALUE).get(i % 6));
+        }
+        Map<Integer, Long> expected = codes.stream().collect(Collectors.groupingBy(code -> code, Collectors.counting()));
+        assertEquals(expected, codes.stream().collect(FastCollectors.groupingByCodeCounting(code -> code, code -> code)));
+        assertEquals(expected, codes.parallelStream()
+                .collect(FastCollectors.groupingByCodeCounting(code -> code, code -> code)));
+    }
+}
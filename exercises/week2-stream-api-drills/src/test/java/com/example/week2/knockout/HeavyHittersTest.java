@@ -0,0 +1,68 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void findsFrequentKeysInSkewedStream() {
+        Random random = new Random(17);
+        HeavyHitters<String> hitters = new HeavyHitters<>(20);
+        // "hot0".."hot4" が全体の半分、残りは 100,000 種類のロングテール
+        for (int i = 0; i < 300_000; i++) {
+            if (random.nextBoolean()) {
+                hitters.add("hot" + random.nextInt(5));
+            } else {
+                hitters.add("cold" + random.nextInt(100_000));
+            }
+        }
+        List<HeavyHitters.Entry<String>> top = hitters.topK(5);
+        assertEquals(5, top.size());
+        for (HeavyHitters.Entry<String> entry : top) {
+            assertTrue(entry.key().startsWith("hot"), entry.key());
+            assertEquals(30_000, entry.estimate(), 1_000);
+        }
+        assertEquals(5, hitters.heavyHitters(0.05).size());
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters<String>(0));
+    }
+
+    @Test
+    void parallelCollectorMatchesExactTopProducts() {
+        List<Order> orders = skewedOrders(200_000, 18);
+        StreamKnockout03 sequential = new StreamKnockout03();
+        StreamKnockout03 parallel = new StreamKnockout03(ExecutionPolicy.PARALLEL);
+        Map<String, Integer> exact = sequential.totalQuantityByProduct(orders);
+
+        for (StreamKnockout03 knockout : List.of(sequential, parallel)) {
+            HeavyHitters<String> sketch = knockout.productQuantitySketch(orders);
+            List<HeavyHitters.Entry<String>> top = sketch.topK(3);
+            assertEquals(List.of("Laptop", "Mouse", "Keyboard"), top.stream().map(HeavyHitters.Entry::key).toList());
+            for (HeavyHitters.Entry<String> entry : top) {
+                long truth = exact.get(entry.key());
+                assertTrue(entry.estimate() >= truth);
+                assertTrue(entry.estimate() - truth <= sketch.errorBound());
+            }
+            assertEquals(LocalDate.of(2024, 5, 5), knockout.approximateBusiestOrderDate(orders).orElseThrow());
+        }
+        assertTrue(sequential.approximateBusiestOrderDate(List.of()).isEmpty());
+    }
+
+    // 商品は Laptop > Mouse > Keyboard の順に多く、残りは 5,000 種類に散らばる
+    private static List<Order> skewedOrders(int count, long seed) {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            int pick = random.nextInt(100);
+            String product = pick < 20 ? "Laptop" : pick < 35 ? "Mouse" : pick < 45 ? "Keyboard" : "Item" + random.nextInt(5_000);
+            LocalDate date = id % 20 == 0 ? LocalDate.of(2024, 5, 5) : LocalDate.of(2024, 1, 1).plusDays(random.nextInt(366));
+            orders.add(new Order(id, 1L + random.nextInt(1_000), product, 1 + random.nextInt(5), 10, date));
+        }
+        return orders;
+    }
+}
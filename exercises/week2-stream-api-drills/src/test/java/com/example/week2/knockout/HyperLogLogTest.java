@@ -0,0 +1,68 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinStandardError() {
+        for (int distinct : new int[] { 0, 10, 1_000, 50_000, 1_000_000 }) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (long i = 0; i < distinct; i++) {
+                sketch.add(i * 7919);
+                // 重複は数に入らない
+                sketch.add(i * 7919);
+            }
+            // 標準誤差の 4 倍（約 0.81% × 4）以内
+            double tolerance = Math.max(1, distinct * sketch.relativeStandardError() * 4);
+            assertEquals(distinct, sketch.estimate(), tolerance, "distinct=" + distinct);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+
+    @Test
+    void mergeIsUnion() {
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        HyperLogLog whole = new HyperLogLog(12);
+        for (int i = 0; i < 40_000; i++) {
+            String key = "customer" + i;
+            (i < 25_000 ? left : right).add(key);
+            if (i >= 15_000 && i < 25_000) {
+                right.add(key);
+            }
+            whole.add(key);
+        }
+        assertEquals(whole.estimate(), left.merge(right).estimate());
+        assertEquals(40_000, whole.estimate(), 40_000 * whole.relativeStandardError() * 4);
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void distinctOrderingEmployeesByDepartment() {
+        List<Employee> employees = new SyntheticData(19).employees(20_000).toList();
+        List<Order> orders = new ArrayList<>(new SyntheticData(19).orders(300_000, 20_000).toList());
+        orders.add(new Order(0L, 99_999L, "Unknown", 1, 1, LocalDate.of(2024, 1, 1)));
+        Map<Long, String> departmentById = employees.stream()
+                .collect(Collectors.toMap(Employee::getId, Employee::getDepartment));
+        Map<String, Set<Long>> exact = orders.stream()
+                .filter(order -> departmentById.containsKey(order.getEmployeeId()))
+                .collect(Collectors.groupingBy(order -> departmentById.get(order.getEmployeeId()),
+                        Collectors.mapping(Order::getEmployeeId, Collectors.toSet())));
+
+        for (ExecutionPolicy policy : List.of(ExecutionPolicy.SEQUENTIAL, ExecutionPolicy.PARALLEL)) {
+            Map<String, Long> approximate = new StreamKnockout03(policy)
+                    .approximateDistinctOrderingEmployeesByDepartment(employees, orders);
+            assertEquals(exact.keySet(), approximate.keySet());
+            exact.forEach((department, ids) ->
+                    assertEquals(ids.size(), approximate.get(department), ids.size() * 0.04, department));
+        }
+    }
+}
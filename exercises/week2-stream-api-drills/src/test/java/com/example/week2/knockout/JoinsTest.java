@@ -0,0 +1,100 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JoinsTest {
+
+    private List<Employee> employees;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        employees = new ArrayList<>(new SyntheticData(11).employees(2_000).toList());
+        // 同じIDの従業員（2人とも結合される）
+        employees.add(new Employee(7L, "Duplicate", "Legal", 50, 1000));
+        // 偏り: 注文の半分が従業員1に集中し、一部は存在しない従業員の注文
+        Random random = new Random(12);
+        orders = new ArrayList<>();
+        for (long id = 1; id <= 60_000; id++) {
+            long employeeId = id % 2 == 0 ? 1L : 1L + random.nextInt(2_100);
+            orders.add(new Order(id, employeeId, "P" + random.nextInt(10), 1 + random.nextInt(5), 10 + random.nextInt(100),
+                    LocalDate.of(2024, 1, 1).plusDays(random.nextInt(300))));
+        }
+    }
+
+    @Test
+    void hashJoinMatchesNestedLoop() {
+        List<Joins.Match<Order, Employee>> expected = new ArrayList<>();
+        for (Order order : orders) {
+            for (Employee employee : employees) {
+                if (employee.getId().equals(order.getEmployeeId())) {
+                    expected.add(new Joins.Match<>(order, employee));
+                }
+            }
+        }
+        for (ExecutionPolicy policy : ExecutionPolicy.values()) {
+            assertEquals(expected, Joins.hashJoin(orders, Order::getEmployeeId, employees, Employee::getId, policy));
+        }
+    }
+
+    @Test
+    void leftJoinKeepsUnmatchedRows() {
+        List<Joins.Match<Order, Employee>> joined = Joins.hashLeftJoin(orders, Order::getEmployeeId, employees,
+                Employee::getId, ExecutionPolicy.PARALLEL);
+        long unmatched = orders.stream().filter(order -> order.getEmployeeId() > 2_000).count();
+        long duplicates = orders.stream().filter(order -> order.getEmployeeId() == 7L).count();
+        assertEquals(orders.size() + duplicates, joined.size());
+        assertEquals(unmatched, joined.stream().filter(match -> match.right() == null).count());
+        assertEquals(orders.get(0), joined.get(0).left());
+    }
+
+    @Test
+    void sortMergeJoinMatchesHashJoinInKeyOrder() {
+        List<Joins.Match<Order, Employee>> expected = new ArrayList<>(
+                Joins.hashJoin(orders, Order::getEmployeeId, employees, Employee::getId, ExecutionPolicy.SEQUENTIAL));
+        // キーの昇順、同じキーは注文の順序、次に従業員の順序（hashJoin の並びを安定ソートしたもの）
+        expected.sort(Comparator.comparingLong(match -> match.left().getEmployeeId()));
+        for (ExecutionPolicy policy : ExecutionPolicy.values()) {
+            assertEquals(expected, Joins.sortMergeJoin(orders, Order::getEmployeeId, employees, Employee::getId, policy));
+        }
+    }
+
+    @Test
+    void sortMergeJoinWithKeysOutsideIntRange() {
+        List<Long> left = List.of(Long.MAX_VALUE, -5L, 1L << 40, -5L);
+        List<Long> right = List.of(1L << 40, -5L, 3L);
+        assertEquals(List.of(new Joins.Match<>(-5L, -5L), new Joins.Match<>(-5L, -5L), new Joins.Match<>(1L << 40, 1L << 40)),
+                Joins.sortMergeJoin(left, Long::longValue, right, Long::longValue, ExecutionPolicy.SEQUENTIAL));
+        assertTrue(Joins.sortMergeJoin(List.<Long>of(), Long::longValue, right, Long::longValue, ExecutionPolicy.PARALLEL)
+                .isEmpty());
+    }
+
+    @Test
+    void semiAndAntiJoin() {
+        List<Long> members = new ArrayList<>(List.of(3L, 7L, 9_999L));
+        members.add(null);
+        List<Employee> semi = Joins.semiJoin(employees, Employee::getId, members, ExecutionPolicy.PARALLEL);
+        assertEquals(List.of(3L, 7L, 7L), semi.stream().map(Employee::getId).toList());
+        assertEquals("Duplicate", semi.get(2).getName());
+        List<Employee> anti = Joins.antiJoin(employees, Employee::getId, members, ExecutionPolicy.SEQUENTIAL);
+        assertEquals(employees.size() - 3, anti.size());
+        assertEquals(employees.get(0), anti.get(0));
+    }
+
+    @Test
+    void nullKeysNeverMatch() {
+        List<String> left = new ArrayList<>(List.of("a", "b"));
+        left.add(null);
+        List<String> right = new ArrayList<>(List.of("b"));
+        right.add(null);
+        assertEquals(List.of(new Joins.Match<>("b", "b")),
+                Joins.hashJoin(left, value -> value, right, value -> value, ExecutionPolicy.SEQUENTIAL));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnockoutCacheTest {
+
+    private final StreamKnockout02 knockout02 = new StreamKnockout02();
+    private final StreamKnockout03 knockout03 = new StreamKnockout03();
+    private List<Employee> employees;
+    private List<Order> orders;
+    private KnockoutCache cache;
+
+    @BeforeEach
+    void setUp() {
+        employees = new ArrayList<>(new SyntheticData(5).employees(1_000).toList());
+        orders = new ArrayList<>(new SyntheticData(5).orders(20_000, 1_000).toList());
+        cache = new KnockoutCache(employees, orders);
+    }
+
+    @Test
+    void secondCallIsAHit() {
+        Map<String, Double> first = cache.monthlySales();
+        assertEquals(knockout03.monthlySales(orders), first);
+        assertSame(first, cache.monthlySales());
+        assertEquals(knockout03.createSalesRanking(employees, orders), cache.createSalesRanking());
+        cache.createSalesRanking();
+
+        KnockoutCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(2, stats.entries());
+        assertEquals(0.5, stats.hitRate());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    @Test
+    void replacingOrdersInvalidatesOnlyQueriesThatUseThem() {
+        Map<String, Long> ageGroups = cache.countByAgeGroup();
+        cache.monthlySales();
+        cache.createSalesRanking();
+
+        List<Order> newOrders = new SyntheticData(6).orders(5_000, 1_000).toList();
+        cache.replaceOrders(newOrders);
+        assertEquals(1, cache.version(KnockoutCache.Dataset.ORDERS));
+        assertEquals(0, cache.version(KnockoutCache.Dataset.EMPLOYEES));
+        assertEquals(2, cache.stats().invalidations());
+        assertEquals(1, cache.stats().entries());
+
+        assertSame(ageGroups, cache.countByAgeGroup());
+        assertEquals(knockout03.monthlySales(newOrders), cache.monthlySales());
+        assertEquals(knockout03.createSalesRanking(employees, newOrders), cache.createSalesRanking());
+
+        cache.replaceEmployees(employees.subList(0, 10));
+        assertEquals(knockout02.countByAgeGroup(employees.subList(0, 10)), cache.countByAgeGroup());
+    }
+
+    @Test
+    void resultsAreUnmodifiableSnapshots() {
+        Map<String, Double> sales = cache.monthlySales();
+        assertThrows(UnsupportedOperationException.class, () -> sales.put("2099-01", 1.0));
+        assertThrows(UnsupportedOperationException.class, () -> cache.createSalesRanking().clear());
+
+        // 元のリストを変更してもキャッシュのデータセットは変わらない
+        orders.clear();
+        cache.clear();
+        assertEquals(sales, cache.monthlySales());
+    }
+
+    @Test
+    void nestedCollectionsAreUnmodifiableToo() {
+        Map<String, List<Employee>> byDepartment = cache.groupByDepartment();
+        String department = byDepartment.keySet().iterator().next();
+        assertThrows(UnsupportedOperationException.class, () -> byDepartment.get(department).clear());
+        assertEquals(new StreamKnockout01().groupByDepartment(employees), cache.groupByDepartment());
+
+        Map<String, List<String>> top3 = cache.top3ProductsByDepartment();
+        List<String> products = top3.values().iterator().next();
+        assertThrows(UnsupportedOperationException.class, () -> products.add("Extra"));
+        assertEquals(knockout03.top3ProductsByDepartment(employees, orders), cache.top3ProductsByDepartment());
+
+        // 値が null でも写せる
+        Map<String, List<String>> withNull = cache.query("withNull", List.of(), EnumSet.noneOf(KnockoutCache.Dataset.class),
+                (employees, orders) -> {
+                    Map<String, List<String>> map = new HashMap<>();
+                    map.put("none", null);
+                    map.put("some", new ArrayList<>(List.of("a")));
+                    return map;
+                });
+        assertNull(withNull.get("none"));
+        assertThrows(UnsupportedOperationException.class, () -> withNull.get("some").add("b"));
+    }
+
+    @Test
+    void argumentsArePartOfTheKey() {
+        LocalDate start = LocalDate.of(2024, 2, 1);
+        LocalDate end = LocalDate.of(2024, 3, 1);
+        assertEquals(knockout03.findOrdersBetweenDates(orders, start, end), cache.findOrdersBetweenDates(start, end));
+        assertNotEquals(cache.findOrdersBetweenDates(start, end), cache.findOrdersBetweenDates(start, end.plusDays(10)));
+        assertEquals(1, cache.stats().hits());
+        assertEquals(2, cache.stats().misses());
+
+        Integer count = cache.query("orderCount", List.of(), EnumSet.of(KnockoutCache.Dataset.ORDERS),
+                (employees, orders) -> orders.size());
+        assertEquals(orders.size(), count);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedByCount() {
+        KnockoutCache small = new KnockoutCache(employees, orders, ExecutionPolicy.SEQUENTIAL, 2, Long.MAX_VALUE);
+        small.monthlySales();
+        small.totalQuantityByProduct();
+        small.monthlySales();
+        // totalQuantityByProduct が最も長く使われていない
+        small.countByAgeGroup();
+        assertEquals(1, small.stats().evictions());
+        small.monthlySales();
+        assertEquals(2, small.stats().hits());
+        small.totalQuantityByProduct();
+        assertEquals(4, small.stats().misses());
+    }
+
+    @Test
+    void evictsByEstimatedSize() {
+        long rankingBytes = KnockoutCache.estimateBytes(knockout03.createSalesRanking(employees, orders));
+        long monthlyBytes = KnockoutCache.estimateBytes(knockout03.monthlySales(orders));
+        KnockoutCache small = new KnockoutCache(employees, orders, ExecutionPolicy.SEQUENTIAL, 100,
+                rankingBytes + monthlyBytes / 2);
+        small.monthlySales();
+        small.createSalesRanking();
+        // 2つ合わせると上限を超えるので、古い方（monthlySales）を捨てる
+        assertEquals(1, small.stats().entries());
+        assertEquals(rankingBytes, small.stats().estimatedBytes());
+        assertEquals(1, small.stats().evictions());
+        assertThrows(IllegalArgumentException.class,
+                () -> new KnockoutCache(employees, orders, ExecutionPolicy.AUTO, 0, 1));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnockoutCsvTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final StreamKnockout03 knockout = new StreamKnockout03();
+
+    @Test
+    void readsEmployeesOrdersAndProjects() throws IOException {
+        Path employeesCsv = write("employees.csv", """
+                id,name,department,age,salary
+                1,Alice,Engineering,30,80000.0
+                2,"Bob, Jr.",Sales,25,60000.5\r
+                3,"Carol ""CJ""\",Engineering,35,-1.25
+
+                """);
+        try (Stream<Employee> employees = KnockoutCsv.employees(employeesCsv, ExecutionPolicy.SEQUENTIAL)) {
+            assertEquals(List.of(
+                    new Employee(1L, "Alice", "Engineering", 30, 80000.0),
+                    new Employee(2L, "Bob, Jr.", "Sales", 25, 60000.5),
+                    new Employee(3L, "Carol \"CJ\"", "Engineering", 35, -1.25)), employees.toList());
+        }
+
+        Path ordersCsv = write("orders.csv", """
+                id,employeeId,product,quantity,price,orderDate
+                1,1,Laptop,2,1000.0,2024-01-15
+                2,3,Mouse,5,49.99,2024-02-29""");
+        try (Stream<Order> orders = KnockoutCsv.orders(ordersCsv, ExecutionPolicy.SEQUENTIAL)) {
+            assertEquals(List.of(
+                    new Order(1L, 1L, "Laptop", 2, 1000.0, LocalDate.of(2024, 1, 15)),
+                    new Order(2L, 3L, "Mouse", 5, 49.99, LocalDate.of(2024, 2, 29))), orders.toList());
+        }
+
+        Path projectsCsv = write("projects.csv", """
+                id,name,memberIds
+                1,Apollo,1;2;3
+                2,Empty,
+                """);
+        try (Stream<Project> projects = KnockoutCsv.projects(projectsCsv, ExecutionPolicy.SEQUENTIAL)) {
+            assertEquals(List.of(
+                    new Project(1L, "Apollo", List.of(1L, 2L, 3L)),
+                    new Project(2L, "Empty", List.of())), projects.toList());
+        }
+    }
+
+    @Test
+    void headerOnlyAndEmptyFiles() throws IOException {
+        try (Stream<Employee> employees = KnockoutCsv.employees(write("header.csv", "id,name\n"), ExecutionPolicy.PARALLEL)) {
+            assertEquals(0, employees.count());
+        }
+        try (Stream<Employee> employees = KnockoutCsv.employees(write("empty.csv", ""), ExecutionPolicy.SEQUENTIAL)) {
+            assertEquals(0, employees.count());
+        }
+    }
+
+    @Test
+    void reportsMalformedRows() throws IOException {
+        Path badNumber = write("bad.csv", "id,name,department,age,salary\n1,Alice,Engineering,3x,100\n");
+        try (Stream<Employee> employees = KnockoutCsv.employees(badNumber, ExecutionPolicy.SEQUENTIAL)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, employees::toList);
+            assertTrue(e.getMessage().contains("3x"));
+        }
+        Path missingField = write("short.csv", "id,name,department,age,salary\n1,Alice,Engineering\n");
+        try (Stream<Employee> employees = KnockoutCsv.employees(missingField, ExecutionPolicy.SEQUENTIAL)) {
+            assertThrows(IllegalArgumentException.class, employees::toList);
+        }
+    }
+
+    @Test
+    void parsesDoublesExactly() throws IOException {
+        Random random = new Random(11);
+        StringBuilder csv = new StringBuilder("id,name,department,age,salary\n");
+        double[] salaries = new double[5_000];
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = switch (i % 4) {
+                case 0 -> random.nextDouble() * 100_000;
+                case 1 -> Math.round(random.nextDouble() * 1_000_000) / 100.0;
+                case 2 -> random.nextDouble() * 1e-5;
+                default -> random.nextGaussian() * 1e12;
+            };
+            csv.append(i).append(",e,D,30,").append(salaries[i]).append('\n');
+        }
+        try (Stream<Employee> employees = KnockoutCsv.employees(write("doubles.csv", csv.toString()),
+                ExecutionPolicy.SEQUENTIAL)) {
+            double[] parsed = employees.mapToDouble(Employee::getSalary).toArray();
+            assertArrayEquals(salaries, parsed);
+        }
+    }
+
+    @Test
+    void parallelReadMatchesSourceOnLargeFile() throws IOException {
+        List<Order> source = new SyntheticData(12).orders(200_000, 1_000).toList();
+        StringBuilder csv = new StringBuilder("id,employeeId,product,quantity,price,orderDate\n");
+        for (Order order : source) {
+            csv.append(order.getId()).append(',').append(order.getEmployeeId()).append(',')
+                    .append(order.getProduct()).append(',').append(order.getQuantity()).append(',')
+                    .append(order.getPrice()).append(',').append(order.getOrderDate()).append('\n');
+        }
+        Path ordersCsv = write("large.csv", csv.toString());
+
+        try (Stream<Order> orders = KnockoutCsv.orders(ordersCsv, ExecutionPolicy.PARALLEL)) {
+            assertTrue(orders.isParallel());
+            assertEquals(source, orders.toList());
+        }
+        // 読み込みながら集計する
+        try (Stream<Order> orders = KnockoutCsv.orders(ordersCsv, ExecutionPolicy.PARALLEL)) {
+            Map<Long, Double> byEmployee = orders.collect(Collectors.groupingBy(Order::getEmployeeId,
+                    Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())));
+            assertEquals(knockout.totalOrderAmountByEmployee(source), byEmployee);
+        }
+
+        Path log = tempDir.resolve("large.bin");
+        assertEquals(source.size(), KnockoutCsv.writeOrderLog(ordersCsv, log));
+        try (OrderLog orderLog = OrderLog.open(log)) {
+            assertEquals(knockout.totalQuantityByProduct(source), orderLog.totalQuantityByProduct(ExecutionPolicy.PARALLEL));
+        }
+    }
+
+    @Test
+    void employeeTableFromCsv() throws IOException {
+        List<Employee> source = new SyntheticData(4).employees(1_000).toList();
+        StringBuilder csv = new StringBuilder("id,name,department,age,salary\n");
+        source.forEach(e -> csv.append(e.getId()).append(',').append(e.getName()).append(',').append(e.getDepartment())
+                .append(',').append(e.getAge()).append(',').append(e.getSalary()).append('\n'));
+        EmployeeTable table = KnockoutCsv.employeeTable(write("employees.csv", csv.toString()), ExecutionPolicy.AUTO);
+        assertEquals(source.size(), table.size());
+        assertEquals(source.get(999), table.row(999));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        // 単価 0.10 / 19.99 は double では正確に表せない
+        orders = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            orders.add(new Order(id, id % 7, id % 2 == 0 ? "Cable" : "Pen", (int) (id % 3) + 1,
+                    id % 2 == 0 ? 19.99 : 0.10, LocalDate.of(2024, 1, 1).plusDays(id % 90)));
+        }
+    }
+
+    @Test
+    void conversionAndArithmetic() {
+        assertEquals(1999, Money.of(19.99).cents());
+        assertEquals(-5, Money.of(-0.05).cents());
+        assertEquals("19.99", Money.of(19.99).toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals(19.99, Money.of(19.99).toDouble());
+        assertEquals(Money.ofCents(12346), Money.of(new BigDecimal("123.455")));
+        assertEquals(Money.of(59.97), Money.of(19.99).times(3));
+        assertEquals(Money.of(20.09), Money.of(19.99).plus(Money.of(0.10)));
+        assertEquals(Money.of(19.89), Money.of(19.99).minus(Money.of(0.10)));
+        assertTrue(Money.of(0.10).compareTo(Money.of(0.09)) > 0);
+        assertThrows(IllegalArgumentException.class, () -> Money.of(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Money.of(1e17));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+    }
+
+    @Test
+    void totalsAreExact() {
+        // 50,000件 × 0.10 × 数量 と 50,000件 × 19.99 × 数量 を cents の整数で数えた正解
+        long expectedCents = 0;
+        for (Order order : orders) {
+            expectedCents += (order.getPrice() == 0.10 ? 10 : 1999) * order.getQuantity();
+        }
+        double naive = 0;
+        for (Order order : orders) {
+            naive += order.getPrice() * order.getQuantity();
+        }
+        assertNotEquals(expectedCents / 100.0, naive);
+
+        StreamKnockout03 sequential = new StreamKnockout03();
+        StreamKnockout03 parallel = new StreamKnockout03(ExecutionPolicy.PARALLEL);
+        assertEquals(Money.ofCents(expectedCents), sequential.calculateTotalOrderMoney(orders));
+        assertEquals(Money.ofCents(expectedCents), parallel.calculateTotalOrderMoney(orders));
+        assertEquals(expectedCents / 100.0, parallel.calculateTotalOrderMoney(orders).toDouble());
+        assertEquals(Money.ofCents(expectedCents), OrderTable.from(orders).totalOrderAmount());
+
+        // 並列でも逐次と1セントも違わない
+        Map<Long, Money> byEmployee = sequential.totalOrderMoneyByEmployee(orders);
+        assertEquals(byEmployee, parallel.totalOrderMoneyByEmployee(orders));
+        assertEquals(sequential.monthlySalesMoney(orders), parallel.monthlySalesMoney(orders));
+        assertEquals(Money.ofCents(expectedCents), byEmployee.values().stream().reduce(Money.ZERO, Money::plus));
+
+        // double 版と同じキー・ほぼ同じ値に戻る
+        Map<Long, Double> converted = Money.toDoubles(byEmployee);
+        Map<Long, Double> doubles = sequential.totalOrderAmountByEmployee(orders);
+        assertEquals(doubles.keySet(), converted.keySet());
+        doubles.forEach((id, amount) -> assertEquals(amount, converted.get(id), 1e-6));
+    }
+
+    @Test
+    void salaryTotals() {
+        List<Employee> employees = List.of(
+                new Employee(1L, "Alice", "Engineering", 28, 55000.10),
+                new Employee(2L, "Bob", "Sales", 35, 48000.20),
+                new Employee(3L, "Charlie", "Engineering", 42, 75000.30));
+        assertEquals(Money.of(178000.60), new StreamKnockout02().calculateTotalSalaryMoney(employees));
+        assertEquals(178000.60, new StreamKnockout02().calculateTotalSalary(employees));
+        assertEquals(Money.of(178000.60), EmployeeTable.from(employees).totalSalary());
+    }
+
+    @Test
+    void sumOfCentsArray() {
+        Random random = new Random(42);
+        long[] cents = new long[10_001];
+        long expected = 0;
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = random.nextLong() >> 20;
+            expected = Math.addExact(expected, cents[i]);
+        }
+        assertEquals(expected, Money.sum(cents));
+        assertEquals(0, Money.sum(new long[0]));
+        assertThrows(ArithmeticException.class, () -> Money.sum(new long[] { Long.MAX_VALUE, Long.MAX_VALUE }));
+    }
+}
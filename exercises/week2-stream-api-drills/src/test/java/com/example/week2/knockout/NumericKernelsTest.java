@@ -0,0 +1,94 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericKernelsTest {
+
+    private final NumericKernels scalar = NumericKernels.scalar();
+    private final NumericKernels best = NumericKernels.best();
+    private double[] values;
+    private int[] keys;
+
+    @BeforeEach
+    void setUp() {
+        // 整数値なので足す順序が違っても合計は一致する
+        Random random = new Random(42);
+        values = new double[1_003];
+        keys = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 30_000 + random.nextInt(1_000) * 100;
+            keys[i] = 18 + random.nextInt(50);
+        }
+    }
+
+    @Test
+    void bestIsVectorWhenModuleIsLoaded() {
+        // surefire は --add-modules jdk.incubator.vector 付きで動かす
+        boolean moduleLoaded = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                && !"scalar".equals(System.getProperty("knockout.kernels"));
+        assertEquals(moduleLoaded, best.name().startsWith("vector"), best.name());
+        assertEquals("scalar", scalar.name());
+    }
+
+    @Test
+    void matchesScalarForEveryLength() {
+        // レーン数の倍数でない長さ（端数の処理）と短い配列を含めて比べる
+        for (int length = 0; length <= 40; length++) {
+            assertKernelsAgree(length);
+        }
+        assertKernelsAgree(values.length);
+    }
+
+    @Test
+    void rangedSum() {
+        double expected = 0;
+        for (int i = 5; i < 900; i++) {
+            expected += values[i];
+        }
+        assertEquals(expected, best.sum(values, 5, 900));
+        assertEquals(0.0, best.sum(values, 7, 7));
+        assertThrows(IndexOutOfBoundsException.class, () -> best.sum(values, 10, values.length + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> best.sum(values, 10, 9));
+    }
+
+    @Test
+    void sumOfProductsMatchesOrderAmount() {
+        List<Order> orders = new SyntheticData(7).orders(10_001, 100).toList();
+        OrderTable table = OrderTable.from(orders);
+        assertEquals(new StreamKnockout03().calculateTotalOrderAmount(orders), table.calculateTotalOrderAmount());
+        assertEquals(orders.get(42), table.row(42));
+        assertEquals(orders.stream().mapToDouble(Order::getPrice).max().orElseThrow(), table.maxPrice());
+    }
+
+    @Test
+    void edgeCases() {
+        double[] empty = new double[0];
+        assertEquals(Double.POSITIVE_INFINITY, best.min(empty));
+        assertEquals(Double.NEGATIVE_INFINITY, best.max(empty));
+        assertEquals(0.0, best.sumOfProducts(empty, new int[0]));
+        double[] withNaN = values.clone();
+        withNaN[3] = Double.NaN;
+        assertTrue(Double.isNaN(best.max(withNaN)));
+        assertTrue(Double.isNaN(best.min(withNaN)));
+        assertThrows(IllegalArgumentException.class, () -> best.sumWhereAtLeast(values, new int[3], 0));
+        assertThrows(IllegalArgumentException.class, () -> best.sumOfProducts(values, new int[3]));
+    }
+
+    private void assertKernelsAgree(int length) {
+        double[] v = Arrays.copyOf(values, length);
+        int[] k = Arrays.copyOf(keys, length);
+        String message = "length " + length;
+        assertEquals(scalar.sum(v), best.sum(v), message);
+        assertEquals(scalar.sumOfProducts(v, k), best.sumOfProducts(v, k), message);
+        assertEquals(scalar.min(v), best.min(v), message);
+        assertEquals(scalar.max(v), best.max(v), message);
+        for (int threshold : new int[] { Integer.MIN_VALUE, 18, 40, 67, Integer.MAX_VALUE }) {
+            assertEquals(scalar.sumWhereAtLeast(v, k, threshold), best.sumWhereAtLeast(v, k, threshold), message);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderAnalyticsTest {
+
+    private List<Employee> employees;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        employees = List.of(
+                new Employee(1L, "Alice", "Engineering", 28, 55000.0),
+                new Employee(2L, "Bob", "Sales", 35, 48000.0),
+                new Employee(3L, "Charlie", "Engineering", 42, 75000.0),
+                new Employee(4L, "Dave", "HR", 29, 42000.0));
+
+        orders = List.of(
+                new Order(1L, 1L, "Laptop", 2, 1000.0, LocalDate.of(2024, 1, 15)),
+                new Order(2L, 1L, "Mouse", 5, 50.0, LocalDate.of(2024, 1, 20)),
+                new Order(3L, 2L, "Keyboard", 3, 100.0, LocalDate.of(2024, 2, 10)),
+                new Order(4L, 3L, "Monitor", 1, 500.0, LocalDate.of(2024, 2, 15)),
+                new Order(5L, 2L, "Laptop", 1, 1000.0, LocalDate.of(2024, 3, 5)),
+                new Order(6L, 4L, "Mouse", 10, 50.0, LocalDate.of(2024, 3, 20)),
+                new Order(7L, 1L, "Monitor", 2, 500.0, LocalDate.of(2024, 4, 1)));
+    }
+
+    @Test
+    void precomputedSales() {
+        OrderAnalytics analytics = new OrderAnalytics(employees, orders);
+        assertEquals(3250.0, analytics.salesOf(1L), 0.01);
+        assertEquals(0.0, analytics.salesOf(99L));
+        assertEquals(1387.5, analytics.averageSales(), 0.01);
+        assertEquals("Bob", analytics.findEmployee(2L).orElseThrow().getName());
+        assertTrue(analytics.findEmployee(99L).isEmpty());
+    }
+
+    @Test
+    void queries() {
+        OrderAnalytics analytics = new OrderAnalytics(employees, orders);
+        assertEquals(List.of(employees.get(0)), analytics.findAboveAverageSalesEmployees());
+    }
+
+    @Test
+    void emptyOrders() {
+        OrderAnalytics analytics = new OrderAnalytics(employees, List.of());
+        assertTrue(analytics.findAboveAverageSalesEmployees().isEmpty());
+    }
+
+    @Test
+    void matchesQuadraticReferenceImplementation() {
+        Dataset data = generate(500, 3_000, 1);
+        OrderAnalytics analytics = new OrderAnalytics(data.employees, data.orders);
+        assertEquals(referenceAboveAverage(data.employees, data.orders), analytics.findAboveAverageSalesEmployees());
+    }
+
+    @Test
+    void aboveAverageScalesLinearly() {
+        // 元の実装は 従業員数 × 注文数 の計算量で、このサイズでは数分かかる
+        Dataset data = generate(50_000, 400_000, 2);
+        StreamKnockout03 knockout = new StreamKnockout03();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertFalse(knockout.findAboveAverageSalesEmployees(data.employees, data.orders).isEmpty());
+            assertTrue(knockout.findTopSalesEmployee(data.employees, data.orders).isPresent());
+            assertEquals(data.employees.size(), knockout.createSalesRanking(data.employees, data.orders).size());
+        });
+    }
+
+    @Test
+    void readsEachRowAConstantNumberOfTimes() {
+        // 実行時間の比ではなく、行のキーを読んだ回数で計算量を確かめる（マシンの負荷に左右されない）
+        for (Dataset data : List.of(generate(1_000, 5_000, 3), generate(8_000, 40_000, 4))) {
+            AtomicLong reads = new AtomicLong();
+            Dataset counted = counting(data, reads);
+            assertFalse(new OrderAnalytics(counted.employees, counted.orders).findAboveAverageSalesEmployees().isEmpty());
+            long rows = data.employees.size() + data.orders.size();
+            // 入力が8倍になっても1行あたりの回数は一定（索引で従業員ごと1回、集計で注文ごと1回）
+            assertTrue(reads.get() <= 2 * rows, "reads=" + reads.get() + " rows=" + rows);
+        }
+
+        // 元の実装は 売上のある従業員数 × 注文数 回読むので、同じ上限には収まらない
+        AtomicLong reads = new AtomicLong();
+        Dataset counted = counting(generate(100, 500, 5), reads);
+        referenceAboveAverage(counted.employees, counted.orders);
+        assertTrue(reads.get() > 10 * (100 + 500), "reads=" + reads.get());
+    }
+
+    // employeeId / id を読むたびに数える Order / Employee に差し替える
+    private static Dataset counting(Dataset data, AtomicLong reads) {
+        List<Employee> employees = new ArrayList<>(data.employees.size());
+        for (Employee employee : data.employees) {
+            employees.add(new Employee(employee.getId(), employee.getName(), employee.getDepartment(), employee.getAge(),
+                    employee.getSalary()) {
+                @Override
+                public Long getId() {
+                    reads.incrementAndGet();
+                    return super.getId();
+                }
+            });
+        }
+        List<Order> orders = new ArrayList<>(data.orders.size());
+        for (Order order : data.orders) {
+            orders.add(new Order(order.getId(), order.getEmployeeId(), order.getProduct(), order.getQuantity(),
+                    order.getPrice(), order.getOrderDate()) {
+                @Override
+                public Long getEmployeeId() {
+                    reads.incrementAndGet();
+                    return super.getEmployeeId();
+                }
+            });
+        }
+        return new Dataset(employees, orders);
+    }
+
+    private static List<Employee> referenceAboveAverage(List<Employee> employees, List<Order> orders) {
+        // リファクタリング前の StreamKnockout03.findAboveAverageSalesEmployees
+        return orders.stream()
+                .collect(Collectors.groupingBy(Order::getEmployeeId,
+                        Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())))
+                .entrySet().stream()
+                .filter(entry -> entry.getValue() > orders.stream()
+                        .collect(Collectors.groupingBy(Order::getEmployeeId,
+                                Collectors.summingDouble(order -> order.getPrice() * order.getQuantity())))
+                        .entrySet().stream()
+                        .mapToDouble(Map.Entry::getValue)
+                        .average()
+                        .orElse(0.0))
+                .map(entry -> employees.stream()
+                        .filter(employee -> employee.getId().equals(entry.getKey()))
+                        .findFirst()
+                        .orElse(null))
+                .collect(Collectors.toList());
+    }
+
+    private record Dataset(List<Employee> employees, List<Order> orders) {
+    }
+
+    private static Dataset generate(int employeeCount, int orderCount, long seed) {
+        Random random = new Random(seed);
+        String[] products = { "Laptop", "Mouse", "Keyboard", "Monitor", "Desk" };
+        List<Employee> employees = new ArrayList<>(employeeCount);
+        for (long id = 1; id <= employeeCount; id++) {
+            employees.add(new Employee(id, "emp" + id, "Dept" + (id % 7), 20 + (int) (id % 40), 40000));
+        }
+        List<Order> orders = new ArrayList<>(orderCount);
+        for (long id = 1; id <= orderCount; id++) {
+            orders.add(new Order(id, 1L + random.nextInt(employeeCount), products[random.nextInt(products.length)],
+                    1 + random.nextInt(5), 10 + random.nextInt(1000), LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365))));
+        }
+        return new Dataset(employees, orders);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderDateIndexTest {
+
+    private final StreamKnockout03 knockout = new StreamKnockout03();
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        orders = List.of(
+                new Order(1L, 1L, "Laptop", 2, 1000.0, LocalDate.of(2024, 1, 15)),
+                new Order(2L, 1L, "Mouse", 5, 50.0, LocalDate.of(2024, 1, 20)),
+                new Order(3L, 2L, "Keyboard", 3, 100.0, LocalDate.of(2024, 2, 10)),
+                new Order(4L, 3L, "Monitor", 1, 500.0, LocalDate.of(2024, 2, 15)),
+                new Order(5L, 2L, "Laptop", 1, 1000.0, LocalDate.of(2024, 3, 5)),
+                new Order(6L, 4L, "Mouse", 10, 50.0, LocalDate.of(2024, 3, 20)),
+                new Order(7L, 1L, "Monitor", 2, 500.0, LocalDate.of(2024, 4, 1)));
+    }
+
+    @Test
+    void rangeScan() {
+        OrderDateIndex index = new OrderDateIndex(orders);
+        List<Order> february = index.range(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1));
+        assertEquals(List.of(3L, 4L), february.stream().map(Order::getId).toList());
+        assertTrue(index.range(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1)).isEmpty());
+        assertTrue(index.range(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 2, 1)).isEmpty());
+        assertEquals(800.0, index.totalAmountBetween(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    void ordersByDateKeepsOriginalOrderWithinADay() {
+        List<Order> unsorted = List.of(
+                new Order(1L, 1L, "A", 1, 1.0, LocalDate.of(2024, 5, 2)),
+                new Order(2L, 1L, "B", 1, 1.0, LocalDate.of(2024, 5, 1)),
+                new Order(3L, 1L, "C", 1, 1.0, LocalDate.of(2024, 5, 2)),
+                new Order(4L, 1L, "D", 1, 1.0, LocalDate.of(1960, 1, 1)));
+        OrderDateIndex index = new OrderDateIndex(unsorted);
+        assertEquals(List.of(4L, 2L, 1L, 3L), index.ordersByDate().stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void monthlySalesKeyedByYearMonth() {
+        OrderDateIndex index = new OrderDateIndex(orders);
+        Map<YearMonth, Double> byMonth = index.salesByYearMonth();
+        assertEquals(List.of(YearMonth.of(2024, 1), YearMonth.of(2024, 2), YearMonth.of(2024, 3), YearMonth.of(2024, 4)),
+                new ArrayList<>(byMonth.keySet()));
+        assertEquals(knockout.monthlySales(orders), index.monthlySales());
+    }
+
+    @Test
+    void epochMonthRoundTrip() {
+        for (LocalDate date : List.of(LocalDate.of(2024, 1, 31), LocalDate.of(1999, 12, 1), LocalDate.of(-5, 3, 3))) {
+            assertEquals(YearMonth.from(date), OrderDateIndex.toYearMonth(OrderDateIndex.epochMonth(date)));
+        }
+    }
+
+    @Test
+    void matchesBatchMethodsOnGeneratedOrders() {
+        Random random = new Random(9);
+        List<Order> generated = new ArrayList<>();
+        for (long id = 1; id <= 30_000; id++) {
+            generated.add(new Order(id, 1L + random.nextInt(100), "P" + random.nextInt(20), 1 + random.nextInt(5),
+                    random.nextDouble() * 100, LocalDate.of(2022, 6, 1).plusDays(random.nextInt(900))));
+        }
+        OrderDateIndex index = new OrderDateIndex(generated);
+        LocalDate start = LocalDate.of(2023, 2, 14);
+        LocalDate end = LocalDate.of(2023, 8, 1);
+        assertEquals(knockout.findOrdersBetweenDates(generated, start, end), index.findOrdersBetweenDates(start, end));
+        assertTrue(index.findOrdersBetweenDates(end, start).isEmpty());
+
+        // 加算の順序が日付順になる分だけ丸め誤差が変わりうる
+        Map<String, Double> expected = knockout.monthlySales(generated);
+        Map<String, Double> actual = index.monthlySales();
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((month, sales) -> assertEquals(sales, actual.get(month), 1e-6));
+    }
+}
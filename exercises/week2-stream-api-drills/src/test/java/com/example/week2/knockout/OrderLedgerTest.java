@@ -0,0 +1,80 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLedgerTest {
+
+    private final StreamKnockout03 knockout = new StreamKnockout03();
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        orders = List.of(
+                new Order(1L, 1L, "Laptop", 2, 1000.0, LocalDate.of(2024, 1, 15)),
+                new Order(2L, 1L, "Mouse", 5, 50.0, LocalDate.of(2024, 1, 20)),
+                new Order(3L, 2L, "Keyboard", 3, 100.0, LocalDate.of(2024, 2, 10)),
+                new Order(4L, 3L, "Monitor", 1, 500.0, LocalDate.of(2024, 2, 15)),
+                new Order(5L, 2L, "Laptop", 1, 1000.0, LocalDate.of(2024, 3, 5)),
+                new Order(6L, 4L, "Mouse", 10, 50.0, LocalDate.of(2024, 3, 20)),
+                new Order(7L, 1L, "Monitor", 2, 500.0, LocalDate.of(2024, 4, 1)));
+    }
+
+    @Test
+    void aggregatesMatchBatchQueries() {
+        OrderLedger ledger = OrderLedger.of(orders);
+        assertEquals(7, ledger.orderCount());
+        assertEquals(5550.0, ledger.calculateTotalOrderAmount(), 0.01);
+        assertEquals(knockout.totalOrderAmountByEmployee(orders), ledger.totalOrderAmountByEmployee());
+        assertEquals(knockout.totalQuantityByProduct(orders), ledger.totalQuantityByProduct());
+        assertEquals(knockout.monthlySales(orders), ledger.monthlySales());
+        assertEquals(3250.0, ledger.totalOrderAmountOf(1L));
+        assertEquals(0.0, ledger.totalOrderAmountOf(99L));
+    }
+
+    @Test
+    void appendUpdatesTotalsIncrementally() {
+        OrderLedger ledger = new OrderLedger();
+        assertTrue(ledger.findBusiestOrderDate().isEmpty());
+        assertTrue(ledger.monthlySales().isEmpty());
+
+        ledger.appendAll(orders);
+        ledger.append(new Order(8L, 4L, "Laptop", 1, 1000.0, LocalDate.of(2024, 3, 20)));
+
+        assertEquals(1500.0, ledger.totalOrderAmountOf(4L));
+        assertEquals(4, ledger.totalQuantityByProduct().get("Laptop"));
+        assertEquals(2500.0, ledger.monthlySales().get("2024-03"), 0.01);
+        assertEquals(LocalDate.of(2024, 3, 20), ledger.findBusiestOrderDate().orElseThrow());
+        assertEquals(2L, ledger.orderCountByDate().get(LocalDate.of(2024, 3, 20)));
+    }
+
+    @Test
+    void matchesBatchMethodsExactlyOnGeneratedOrders() {
+        Random random = new Random(8);
+        String[] products = { "Laptop", "Mouse", "Keyboard", "Monitor", "Desk" };
+        List<Order> generated = new ArrayList<>();
+        OrderLedger ledger = new OrderLedger();
+        for (long id = 1; id <= 50_000; id++) {
+            Order order = new Order(id, 1L + random.nextInt(500), products[random.nextInt(products.length)],
+                    1 + random.nextInt(9), random.nextDouble() * 1000, LocalDate.of(2023, 1, 1).plusDays(random.nextInt(700)));
+            generated.add(order);
+            ledger.append(order);
+        }
+        // どちらも正確な合計（ExactSum）なので、浮動小数点の合計もビット単位で一致する
+        assertEquals(knockout.calculateTotalOrderAmount(generated), ledger.calculateTotalOrderAmount());
+        assertEquals(knockout.totalOrderAmountByEmployee(generated), ledger.totalOrderAmountByEmployee());
+        assertEquals(knockout.totalQuantityByProduct(generated), ledger.totalQuantityByProduct());
+        assertEquals(knockout.monthlySales(generated), ledger.monthlySales());
+
+        Map<LocalDate, Long> counts = ledger.orderCountByDate();
+        long busiest = counts.get(ledger.findBusiestOrderDate().orElseThrow());
+        long expected = counts.get(knockout.findBusiestOrderDate(generated).orElseThrow());
+        assertEquals(expected, busiest);
+    }
+}
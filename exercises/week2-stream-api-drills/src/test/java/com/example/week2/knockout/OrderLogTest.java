@@ -0,0 +1,158 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final StreamKnockout03 knockout = new StreamKnockout03();
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        orders = List.of(
+                new Order(1L, 1L, "Laptop", 2, 1000.0, LocalDate.of(2024, 1, 15)),
+                new Order(2L, 1L, "Mouse", 5, 50.0, LocalDate.of(2024, 1, 20)),
+                new Order(3L, 2L, "Keyboard", 3, 100.0, LocalDate.of(2024, 2, 10)),
+                new Order(4L, 3L, "Monitor", 1, 500.0, LocalDate.of(2024, 2, 15)),
+                new Order(5L, 2L, "Laptop", 1, 1000.0, LocalDate.of(2024, 3, 5)),
+                new Order(6L, 4L, "Mouse", 10, 50.0, LocalDate.of(2024, 3, 20)),
+                new Order(7L, 1L, "Monitor", 2, 500.0, LocalDate.of(2024, 4, 1)));
+    }
+
+    @Test
+    void roundTripsOrdersThroughTheFile() throws IOException {
+        Path file = tempDir.resolve("orders.bin");
+        OrderLogWriter.write(file, orders);
+        try (OrderLog log = OrderLog.open(file)) {
+            assertEquals(7, log.count());
+            assertEquals(4, log.productCount());
+            assertEquals("Laptop", log.product(0));
+            for (int i = 0; i < orders.size(); i++) {
+                assertEquals(orders.get(i), log.order(i));
+            }
+            assertEquals(orders, log.stream(ExecutionPolicy.SEQUENTIAL).map(OrderRecord::toOrder).toList());
+        }
+    }
+
+    @Test
+    void aggregatesMatchBatchQueries() throws IOException {
+        Path file = tempDir.resolve("orders.bin");
+        OrderLogWriter.write(file, orders);
+        try (OrderLog log = OrderLog.open(file)) {
+            assertEquals(5550.0, log.calculateTotalOrderAmount(ExecutionPolicy.SEQUENTIAL), 0.01);
+            assertEquals(knockout.totalOrderAmountByEmployee(orders), log.totalOrderAmountByEmployee(ExecutionPolicy.SEQUENTIAL));
+            assertEquals(knockout.totalQuantityByProduct(orders), log.totalQuantityByProduct(ExecutionPolicy.SEQUENTIAL));
+            assertEquals(knockout.monthlySales(orders), log.monthlySales(ExecutionPolicy.SEQUENTIAL));
+            LocalDate start = LocalDate.of(2024, 1, 31);
+            LocalDate end = LocalDate.of(2024, 3, 20);
+            assertEquals(knockout.findOrdersBetweenDates(orders, start, end),
+                    log.findOrdersBetweenDates(start, end, ExecutionPolicy.SEQUENTIAL));
+        }
+    }
+
+    @Test
+    void forEachPassesEveryRecordInOrder() throws IOException {
+        Path file = tempDir.resolve("orders.bin");
+        OrderLogWriter.write(file, orders);
+        try (OrderLog log = OrderLog.open(file)) {
+            List<Order> visited = new ArrayList<>();
+            log.forEach((id, employeeId, productCode, quantity, price, epochDay) -> visited.add(
+                    new Order(id, employeeId, log.product(productCode), quantity, price, LocalDate.ofEpochDay(epochDay))));
+            assertEquals(orders, visited);
+            // ストリームの要素は使い回しのカーソルなので IMMUTABLE を名乗らない
+            assertFalse(log.spliterator().hasCharacteristics(Spliterator.IMMUTABLE));
+        }
+    }
+
+    @Test
+    void keepsProductsWhoseTotalQuantityIsZero() throws IOException {
+        List<Order> withZero = new ArrayList<>(orders);
+        withZero.add(new Order(8L, 2L, "Cable", 0, 10.0, LocalDate.of(2024, 4, 2)));
+        Path file = tempDir.resolve("zero.bin");
+        OrderLogWriter.write(file, withZero);
+        try (OrderLog log = OrderLog.open(file)) {
+            for (ExecutionPolicy policy : ExecutionPolicy.values()) {
+                Map<String, Integer> quantities = log.totalQuantityByProduct(policy);
+                assertEquals(0, quantities.get("Cable"));
+                assertEquals(knockout.totalQuantityByProduct(withZero), quantities);
+            }
+        }
+    }
+
+    @Test
+    void emptyLog() throws IOException {
+        Path file = tempDir.resolve("empty.bin");
+        OrderLogWriter.write(file, List.of());
+        try (OrderLog log = OrderLog.open(file)) {
+            assertEquals(0, log.count());
+            assertEquals(0.0, log.calculateTotalOrderAmount(ExecutionPolicy.PARALLEL));
+            assertTrue(log.findBusiestOrderDate(ExecutionPolicy.SEQUENTIAL).isEmpty());
+            assertTrue(log.totalQuantityByProduct(ExecutionPolicy.SEQUENTIAL).isEmpty());
+        }
+    }
+
+    @Test
+    void rejectsFilesWithoutTheHeader() throws IOException {
+        Path file = tempDir.resolve("garbage.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> OrderLog.open(file));
+    }
+
+    @Test
+    void spliteratorSplitsIntoDisjointHalves() throws IOException {
+        Path file = tempDir.resolve("orders.bin");
+        OrderLogWriter.write(file, orders);
+        try (OrderLog log = OrderLog.open(file)) {
+            Spliterator<OrderRecord> suffix = log.spliterator();
+            Spliterator<OrderRecord> prefix = suffix.trySplit();
+            assertNotNull(prefix);
+            assertEquals(3, prefix.estimateSize());
+            assertEquals(4, suffix.estimateSize());
+            assertTrue(suffix.hasCharacteristics(Spliterator.SUBSIZED));
+
+            List<Long> ids = new ArrayList<>();
+            prefix.forEachRemaining(record -> ids.add(record.id()));
+            suffix.forEachRemaining(record -> ids.add(record.id()));
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids);
+        }
+    }
+
+    @Test
+    void parallelScanMatchesBatchQueriesOnLargeLog() throws IOException {
+        List<Order> largeOrders = new SyntheticData(10).orders(200_000, 1_000).toList();
+        Path file = tempDir.resolve("large.bin");
+        OrderLogWriter.write(file, largeOrders);
+        try (OrderLog log = OrderLog.open(file)) {
+            assertEquals(largeOrders.size(), log.count());
+            LocalDate start = LocalDate.of(2024, 3, 1);
+            LocalDate end = LocalDate.of(2024, 6, 30);
+            for (ExecutionPolicy policy : List.of(ExecutionPolicy.SEQUENTIAL, ExecutionPolicy.PARALLEL)) {
+                assertEquals(knockout.calculateTotalOrderAmount(largeOrders), log.calculateTotalOrderAmount(policy));
+                assertEquals(knockout.totalOrderAmountByEmployee(largeOrders), log.totalOrderAmountByEmployee(policy));
+                assertEquals(knockout.totalQuantityByProduct(largeOrders), log.totalQuantityByProduct(policy));
+                assertEquals(knockout.monthlySales(largeOrders), log.monthlySales(policy));
+                assertEquals(knockout.findOrdersBetweenDates(largeOrders, start, end),
+                        log.findOrdersBetweenDates(start, end, policy));
+                assertTrue(StreamKnockout03Test.busiestDates(largeOrders).contains(log.findBusiestOrderDate(policy).orElseThrow()));
+            }
+            // 並列でもカーソルが分割ごとに独立していること
+            assertEquals(largeOrders.stream().map(Order::getId).collect(Collectors.toSet()),
+                    log.stream(ExecutionPolicy.PARALLEL).map(OrderRecord::id).collect(Collectors.toSet()));
+        }
+    }
+}
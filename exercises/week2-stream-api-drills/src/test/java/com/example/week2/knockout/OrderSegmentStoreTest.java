@@ -0,0 +1,139 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSegmentStoreTest {
+
+    private final StreamKnockout03 knockout = new StreamKnockout03();
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        orders = List.of(
+                new Order(1L, 1L, "Laptop", 2, 1000.0, LocalDate.of(2024, 1, 15)),
+                new Order(2L, 1L, "Mouse", 5, 50.0, LocalDate.of(2024, 1, 20)),
+                new Order(3L, 2L, "Keyboard", 3, 100.0, LocalDate.of(2024, 2, 10)),
+                new Order(4L, 3L, "Monitor", 1, 500.0, LocalDate.of(2024, 2, 15)),
+                new Order(5L, 2L, "Laptop", 1, 1000.0, LocalDate.of(2024, 3, 5)),
+                new Order(6L, 4L, "Mouse", 10, 50.0, LocalDate.of(2024, 3, 20)),
+                new Order(7L, 1L, "Monitor", 2, 500.0, LocalDate.of(2024, 4, 1)));
+    }
+
+    @Test
+    void appendsAndReadsBackByOrdinalAcrossChunks() {
+        // 3件ごとのチャンクにして、チャンクの境目をまたがせる
+        try (OrderSegmentStore store = new OrderSegmentStore(3)) {
+            for (Order order : orders) {
+                store.append(order);
+            }
+            assertEquals(7, store.count());
+            assertEquals(4, store.productCount());
+            assertEquals(3 * 3 * 40, store.reservedBytes());
+            for (int i = 0; i < orders.size(); i++) {
+                assertEquals(orders.get(i), store.order(i));
+            }
+            assertEquals(6L, store.id(5));
+            assertEquals("Mouse", store.product(store.productCode(5)));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.order(7));
+
+            List<Order> scanned = new ArrayList<>();
+            store.forEach((id, employeeId, productCode, quantity, price, epochDay) -> scanned.add(
+                    new Order(id, employeeId, store.product(productCode), quantity, price, LocalDate.ofEpochDay(epochDay))));
+            assertEquals(orders, scanned);
+        }
+    }
+
+    @Test
+    void aggregatesMatchListQueries() {
+        try (OrderSegmentStore store = OrderSegmentStore.of(orders)) {
+            assertEquals(5550.0, knockout.calculateTotalOrderAmount(store), 0.01);
+            assertEquals(knockout.totalOrderAmountByEmployee(orders), knockout.totalOrderAmountByEmployee(store));
+            assertEquals(knockout.totalQuantityByProduct(orders), knockout.totalQuantityByProduct(store));
+            assertEquals(knockout.monthlySales(orders), knockout.monthlySales(store));
+            LocalDate start = LocalDate.of(2024, 1, 31);
+            LocalDate end = LocalDate.of(2024, 3, 20);
+            assertEquals(knockout.findOrdersBetweenDates(orders, start, end),
+                    store.findOrdersBetweenDates(start, end, ExecutionPolicy.SEQUENTIAL));
+            // 件数が同じなら早い日
+            assertEquals(LocalDate.of(2024, 1, 15), knockout.findBusiestOrderDate(store).orElseThrow());
+        }
+    }
+
+    @Test
+    void parallelAggregatesMatchSequentialOnLargeInput() {
+        List<Order> largeOrders = new SyntheticData(7).orders(200_000, 500).toList();
+        StreamKnockout03 parallel = new StreamKnockout03(ExecutionPolicy.PARALLEL);
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        LocalDate end = LocalDate.of(2024, 6, 30);
+        try (OrderSegmentStore store = new OrderSegmentStore(50_000)) {
+            largeOrders.forEach(store::append);
+            for (StreamKnockout03 target : List.of(knockout, parallel)) {
+                assertEquals(knockout.calculateTotalOrderAmount(largeOrders), target.calculateTotalOrderAmount(store));
+                assertEquals(knockout.totalOrderAmountByEmployee(largeOrders), target.totalOrderAmountByEmployee(store));
+                assertEquals(knockout.totalQuantityByProduct(largeOrders), target.totalQuantityByProduct(store));
+                assertEquals(knockout.monthlySales(largeOrders), target.monthlySales(store));
+                assertTrue(StreamKnockout03Test.busiestDates(largeOrders).contains(target.findBusiestOrderDate(store).orElseThrow()));
+            }
+            assertEquals(knockout.findOrdersBetweenDates(largeOrders, start, end),
+                    store.findOrdersBetweenDates(start, end, ExecutionPolicy.PARALLEL));
+        }
+    }
+
+    @Test
+    void fractionalPricesGiveExactlyTheListResults() {
+        // 単価が cents 単位だと足す順序で末尾の桁が変わりうるので、逐次・並列とも List 版とビット単位で比べる
+        List<Order> largeOrders = new SyntheticData(8).fractionalAmounts(true).orders(200_000, 500).toList();
+        StreamKnockout03 parallel = new StreamKnockout03(ExecutionPolicy.PARALLEL);
+        try (OrderSegmentStore store = new OrderSegmentStore(30_000)) {
+            largeOrders.forEach(store::append);
+            for (StreamKnockout03 target : List.of(knockout, parallel)) {
+                assertEquals(knockout.calculateTotalOrderAmount(largeOrders), target.calculateTotalOrderAmount(store));
+                assertEquals(knockout.totalOrderAmountByEmployee(largeOrders), target.totalOrderAmountByEmployee(store));
+                assertEquals(knockout.monthlySales(largeOrders), target.monthlySales(store));
+                // 件数が同じ日は最も早い日
+                assertEquals(StreamKnockout03Test.busiestDates(largeOrders).stream().min(LocalDate::compareTo),
+                        target.findBusiestOrderDate(store));
+            }
+        }
+    }
+
+    @Test
+    void keepsProductsWhoseTotalQuantityIsZero() {
+        List<Order> withZero = new ArrayList<>(orders);
+        withZero.add(new Order(8L, 2L, "Cable", 0, 10.0, LocalDate.of(2024, 4, 2)));
+        try (OrderSegmentStore store = OrderSegmentStore.of(withZero)) {
+            for (ExecutionPolicy policy : ExecutionPolicy.values()) {
+                Map<String, Integer> quantities = store.totalQuantityByProduct(policy);
+                assertEquals(0, quantities.get("Cable"));
+                assertEquals(knockout.totalQuantityByProduct(withZero), quantities);
+            }
+        }
+    }
+
+    @Test
+    void epochMonthMatchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.isBefore(LocalDate.of(2101, 3, 1)); date = date.plusDays(1)) {
+            assertEquals(OrderDateIndex.epochMonth(date), OrderSegmentStore.epochMonth((int) date.toEpochDay()), date.toString());
+        }
+    }
+
+    @Test
+    void emptyAndClosedStore() {
+        OrderSegmentStore store = new OrderSegmentStore();
+        assertEquals(0.0, store.calculateTotalOrderAmount(ExecutionPolicy.PARALLEL));
+        assertTrue(store.totalOrderAmountByEmployee(ExecutionPolicy.SEQUENTIAL).isEmpty());
+        assertTrue(store.findBusiestOrderDate(ExecutionPolicy.SEQUENTIAL).isEmpty());
+        store.append(orders.get(0));
+        store.close();
+        // Arena を閉じた後はメモリに触れない
+        assertThrows(IllegalStateException.class, () -> store.price(0));
+        assertThrows(IllegalStateException.class, () -> store.append(orders.get(1)));
+        assertThrows(IllegalArgumentException.class, () -> new OrderSegmentStore(0));
+    }
+}
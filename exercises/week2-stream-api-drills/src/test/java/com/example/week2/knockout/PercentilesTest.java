@@ -0,0 +1,71 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PercentilesTest {
+
+    @Test
+    void medianOfOddAndEvenLength() {
+        assertEquals(3.0, Percentiles.median(new double[] { 5, 1, 3, 4, 2 }));
+        assertEquals(53000.0, Percentiles.median(new double[] { 55000, 48000, 75000, 42000, 62000, 51000, 58000, 50000 }));
+        assertEquals(0.0, Percentiles.median(new double[0]));
+    }
+
+    @Test
+    void percentileDoesNotModifyInput() {
+        double[] values = { 9, 7, 5, 3, 1 };
+        assertEquals(9.0, Percentiles.percentile(values, 1.0));
+        assertEquals(1.0, Percentiles.percentile(values, 0.0));
+        assertEquals(8.2, Percentiles.percentile(values, 0.9), 1e-9);
+        assertArrayEquals(new double[] { 9, 7, 5, 3, 1 }, values);
+    }
+
+    @Test
+    void matchesSortingOnRandomDataWithDuplicates() {
+        Random random = new Random(3);
+        for (int n : new int[] { 1, 2, 3, 10, 101, 10_000 }) {
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                // 重複を多く含める
+                values[i] = random.nextInt(50) * 1000.0;
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (double p : new double[] { 0.0, 0.1, 0.5, 0.9, 0.99, 1.0 }) {
+                double h = (n - 1) * p;
+                int lower = (int) Math.floor(h);
+                double expected = lower + 1 < n ? sorted[lower] + (h - lower) * (sorted[lower + 1] - sorted[lower]) : sorted[lower];
+                assertEquals(expected, Percentiles.percentile(values, p), 1e-6, "n=" + n + " p=" + p);
+            }
+        }
+    }
+
+    @Test
+    void selectPartitionsAroundRank() {
+        double[] values = { 4, 4, 4, 1, 9, 4, 0, 4 };
+        assertEquals(4.0, Percentiles.select(values, 3));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(values[i] <= 4.0);
+        }
+        for (int i = 4; i < values.length; i++) {
+            assertTrue(values[i] >= 4.0);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> Percentiles.select(values, 8));
+    }
+
+    @Test
+    void allEqualValuesStayLinear() {
+        double[] values = new double[2_000_000];
+        Arrays.fill(values, 42.0);
+        assertEquals(42.0, Percentiles.percentileInPlace(values, 0.99));
+    }
+
+    @Test
+    void invalidPercentile() {
+        assertThrows(IllegalArgumentException.class, () -> Percentiles.percentile(new double[] { 1 }, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> Percentiles.percentile(new double[] { 1 }, -0.1));
+    }
+}
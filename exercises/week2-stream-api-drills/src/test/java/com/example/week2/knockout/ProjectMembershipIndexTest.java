@@ -0,0 +1,103 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectMembershipIndexTest {
+
+    private List<Employee> employees;
+    private List<Project> projects;
+
+    @BeforeEach
+    void setUp() {
+        employees = List.of(
+                new Employee(1L, "Alice", "Engineering", 28, 75000),
+                new Employee(2L, "Bob", "Sales", 35, 65000),
+                new Employee(3L, "Charlie", "Engineering", 42, 95000),
+                new Employee(4L, "Diana", "HR", 29, 55000),
+                new Employee(5L, "Eve", "Engineering", 31, 85000),
+                new Employee(6L, "Frank", "Sales", 45, 70000));
+        projects = List.of(
+                new Project(1L, "Project Alpha", List.of(1L, 3L, 5L)),
+                new Project(2L, "Project Beta", List.of(1L, 2L, 4L, 99L)),
+                new Project(3L, "Project Gamma", List.of(3L, 5L, 6L, 1L)));
+    }
+
+    @Test
+    void membershipQueries() {
+        ProjectMembershipIndex index = new ProjectMembershipIndex(employees, projects);
+        assertEquals(3, index.projectCount());
+        assertTrue(index.isMember(2L, 4L));
+        assertFalse(index.isMember(2L, 3L));
+        assertFalse(index.isMember(9L, 1L));
+        assertFalse(index.isMember(2L, 99L));
+
+        assertEquals(List.of(1L, 2L, 4L), ids(index.membersOf(2L)));
+        assertEquals(List.of(1L, 3L, 5L), ids(index.inAllProjects(List.of(1L, 3L))));
+        assertEquals(List.of(1L), ids(index.inAllProjects(List.of(1L, 2L, 3L))));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(index.inAnyProject(List.of(1L, 2L))));
+        assertTrue(index.inAllProjects(List.of()).isEmpty());
+        assertTrue(index.membersOf(9L).isEmpty());
+    }
+
+    @Test
+    void inAtLeastNProjects() {
+        ProjectMembershipIndex index = new ProjectMembershipIndex(employees, projects);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), ids(index.inAtLeastProjects(1)));
+        assertEquals(List.of(1L, 3L, 5L), ids(index.inAtLeastProjects(2)));
+        assertEquals(List.of(1L), ids(index.inAtLeastProjects(3)));
+        assertTrue(index.inAtLeastProjects(4).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.inAtLeast(0));
+    }
+
+    @Test
+    void averageAgeAndDuplicateIds() {
+        List<Employee> withDuplicate = new ArrayList<>(employees);
+        withDuplicate.add(new Employee(3L, "Charlie2", "Sales", 20, 1000));
+        ProjectMembershipIndex index = new ProjectMembershipIndex(withDuplicate, projects);
+        // List.contains で判定したときと同じく、同じIDの従業員は両方メンバー
+        assertEquals((28 + 42 + 31 + 20) / 4.0, index.averageAgeOfMembers(1L));
+        assertEquals(0.0, index.averageAgeOfMembers(9L));
+        assertEquals(List.of(1L, 3L, 5L, 3L), ids(index.membersOf(1L)));
+    }
+
+    @Test
+    void matchesNaiveListScanOnGeneratedData() {
+        Random random = new Random(13);
+        List<Employee> large = new SyntheticData(13).employees(150_000).toList();
+        List<Project> generated = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            List<Long> members = new ArrayList<>();
+            int size = random.nextInt(20_000);
+            for (int i = 0; i < size; i++) {
+                members.add(1L + random.nextInt(160_000));
+            }
+            generated.add(new Project(id, "P" + id, members));
+        }
+        ProjectMembershipIndex index = new ProjectMembershipIndex(large, generated);
+        // 参照実装は HashSet で判定する（List.contains のままでは遅すぎる）
+        List<Set<Long>> memberSets = generated.stream().map(p -> (Set<Long>) new HashSet<>(p.getMemberIds())).toList();
+        for (int n = 1; n <= 4; n++) {
+            int threshold = n;
+            List<Employee> expected = large.stream()
+                    .filter(e -> memberSets.stream().filter(members -> members.contains(e.getId())).count() >= threshold)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.inAtLeastProjects(n));
+        }
+        Set<Long> members = memberSets.get(3);
+        double expected = large.stream().filter(e -> members.contains(e.getId()))
+                .mapToDouble(Employee::getAge).average().orElse(0.0);
+        assertEquals(expected, index.averageAgeOfMembers(generated.get(3).getId()));
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    // k=200 の順位誤差の目安は約 1.65%。テストは余裕を持って 2.5% で判定する
+    private static final double RANK_TOLERANCE = 0.025;
+
+    @Test
+    void smallInputIsExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i);
+        }
+        assertEquals(100, sketch.count());
+        assertEquals(100, sketch.retainedItems());
+        assertEquals(1.0, sketch.quantile(0.0));
+        assertEquals(100.0, sketch.quantile(1.0));
+        assertEquals(50.0, sketch.median());
+        assertEquals(90.0, sketch.quantile(0.9));
+        assertEquals(0.5, sketch.rank(50.0));
+    }
+
+    @Test
+    void emptySketch() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(sketch.isEmpty());
+        assertTrue(Double.isNaN(sketch.median()));
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(2.0));
+    }
+
+    @Test
+    void boundedErrorAndMemoryOnLargeInput() {
+        Random random = new Random(5);
+        int n = 1_000_000;
+        double[] values = new double[n];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextGaussian() * 10_000 + 60_000;
+            sketch.add(values[i]);
+        }
+        assertTrue(sketch.retainedItems() < 4 * QuantileSketch.DEFAULT_K, "retained=" + sketch.retainedItems());
+        assertRankError(values, sketch);
+    }
+
+    @Test
+    void mergedSketchesKeepTheErrorBound() {
+        Random random = new Random(6);
+        int n = 400_000;
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextDouble() * random.nextDouble() * 1_000;
+        }
+        // 8分割して別々に作ってからマージ（並列集約と同じ形）
+        QuantileSketch merged = new QuantileSketch();
+        for (int part = 0; part < 8; part++) {
+            QuantileSketch partial = new QuantileSketch(QuantileSketch.DEFAULT_K, part);
+            for (int i = part; i < n; i += 8) {
+                partial.add(values[i]);
+            }
+            merged.merge(partial);
+        }
+        assertEquals(n, merged.count());
+        assertRankError(values, merged);
+
+        QuantileSketch parallel = IntStream.range(0, n).parallel().boxed()
+                .collect(QuantileSketch.collector(i -> values[i]));
+        assertEquals(n, parallel.count());
+        assertRankError(values, parallel);
+    }
+
+    @Test
+    void knockoutPercentiles() {
+        List<Employee> employees = List.of(
+                new Employee(1L, "Alice", "Engineering", 28, 55000.0),
+                new Employee(2L, "Bob", "Sales", 35, 48000.0),
+                new Employee(3L, "Charlie", "Engineering", 42, 75000.0),
+                new Employee(4L, "Dave", "HR", 29, 42000.0),
+                new Employee(5L, "Eve", "Engineering", 31, 62000.0));
+        StreamKnockout02 knockout = new StreamKnockout02();
+        assertEquals(55000.0, knockout.calculateMedianSalary(employees));
+        assertEquals(69800.0, knockout.salaryPercentile(employees, 0.9), 1e-6);
+        assertEquals(55000.0, knockout.salarySketch(employees).median());
+
+        List<Order> orders = List.of(
+                new Order(1L, 1L, "Laptop", 2, 1000.0, null),
+                new Order(2L, 1L, "Mouse", 5, 50.0, null),
+                new Order(3L, 2L, "Keyboard", 3, 100.0, null));
+        StreamKnockout03 knockout03 = new StreamKnockout03();
+        assertEquals(300.0, knockout03.orderAmountPercentile(orders, 0.5));
+        assertEquals(2000.0, knockout03.orderAmountSketch(orders).quantile(1.0));
+    }
+
+    private static void assertRankError(double[] values, QuantileSketch sketch) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double p : new double[] { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99 }) {
+            double estimate = sketch.quantile(p);
+            // 推定値の真の順位
+            int index = Arrays.binarySearch(sorted, estimate);
+            double trueRank = (double) Math.abs(index < 0 ? -index - 1 : index) / sorted.length;
+            assertEquals(p, trueRank, RANK_TOLERANCE, "p=" + p);
+        }
+    }
+}
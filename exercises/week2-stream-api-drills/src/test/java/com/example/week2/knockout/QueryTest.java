@@ -0,0 +1,156 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTest {
+
+    private List<Employee> employees;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        employees = List.of(
+                new Employee(1L, "Alice", "Engineering", 28, 75000),
+                new Employee(2L, "Bob", "Sales", 35, 65000),
+                new Employee(3L, "Charlie", "Engineering", 42, 95000),
+                new Employee(4L, "Diana", "HR", 29, 55000),
+                new Employee(5L, "Eve", "Engineering", 31, 85000),
+                new Employee(6L, "Frank", "Sales", 45, 65000));
+        orders = List.of(
+                new Order(1L, 1L, "Laptop", 2, 1000.0, LocalDate.of(2024, 1, 15)),
+                new Order(2L, 1L, "Mouse", 5, 50.0, LocalDate.of(2024, 1, 20)),
+                new Order(3L, 2L, "Keyboard", 3, 100.0, LocalDate.of(2024, 2, 10)),
+                new Order(4L, 3L, "Monitor", 1, 500.0, LocalDate.of(2024, 2, 15)),
+                new Order(5L, 2L, "Laptop", 1, 1000.0, LocalDate.of(2024, 3, 5)));
+    }
+
+    @Test
+    void whereOrderByLimit() {
+        List<Employee> result = EmployeeQuery.from(employees)
+                .orderBy(EmployeeQuery.bySalaryDescending())
+                .where(EmployeeQuery.olderThan(30))
+                .limit(2)
+                .list();
+        assertEquals(List.of(3L, 5L), ids(result));
+
+        // 同額（Bob と Frank）は元の順序
+        assertEquals(List.of(4L, 2L, 6L), ids(EmployeeQuery.from(employees)
+                .orderBy(Comparator.comparingDouble(Employee::getSalary)).limit(3).list()));
+        assertEquals(List.of(1L, 4L, 5L, 2L, 3L, 6L), ids(EmployeeQuery.from(employees).orderBy(EmployeeQuery.byAge()).list()));
+        assertEquals(List.of("Charlie", "Eve"), EmployeeQuery.from(employees)
+                .where(EmployeeQuery.inDepartment("Engineering")).where(EmployeeQuery.olderThan(30)).select(Employee::getName));
+        assertEquals(3L, EmployeeQuery.from(employees).where(EmployeeQuery.inDepartment("Engineering")).count());
+        assertEquals(1L, EmployeeQuery.from(employees).orderBy(EmployeeQuery.byAge()).first().orElseThrow().getId());
+        assertTrue(EmployeeQuery.from(employees).limit(0).list().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> EmployeeQuery.from(employees).limit(-1));
+    }
+
+    @Test
+    void limitShortCircuitsTheScan() {
+        AtomicInteger tested = new AtomicInteger();
+        List<Employee> result = EmployeeQuery.from(employees)
+                .where(e -> {
+                    tested.incrementAndGet();
+                    return e.getDepartment().equals("Engineering");
+                })
+                .limit(2)
+                .list();
+        assertEquals(List.of(1L, 3L), ids(result));
+        assertEquals(3, tested.get());
+    }
+
+    @Test
+    void severalAggregatesShareOneScan() {
+        AtomicInteger scanned = new AtomicInteger();
+        Aggregate<Employee, Long> headcount = EmployeeQuery.headcount();
+        Aggregate<Employee, Double> total = EmployeeQuery.totalSalary();
+        Aggregate<Employee, Double> average = EmployeeQuery.averageSalary();
+        AggregateRow row = EmployeeQuery.from(employees)
+                .where(e -> scanned.incrementAndGet() > 0)
+                .aggregate(headcount, total, average);
+        assertEquals(6, scanned.get());
+        assertEquals(6L, row.get(headcount));
+        assertEquals(440000.0, row.get(total));
+        assertEquals(440000.0 / 6, row.get(average), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> row.get(EmployeeQuery.totalSalary()));
+
+        // limit があれば orderBy 順の先頭だけを集計する
+        assertEquals(180000.0, EmployeeQuery.from(employees).orderBy(EmployeeQuery.bySalaryDescending()).limit(2)
+                .aggregate(total));
+    }
+
+    @Test
+    void groupByWithHavingOrderByAndLimit() {
+        Aggregate<Employee, Long> headcount = EmployeeQuery.headcount();
+        Aggregate<Employee, Double> total = EmployeeQuery.totalSalary();
+        List<GroupQuery.Group<String>> groups = EmployeeQuery.from(employees)
+                .groupBy(Employee::getDepartment)
+                .aggregate(headcount, total)
+                .having(group -> group.get(headcount) > 1)
+                .orderBy(Comparator.comparing((GroupQuery.Group<String> group) -> group.get(total)).reversed())
+                .list();
+        assertEquals(List.of("Engineering", "Sales"), groups.stream().map(GroupQuery.Group::key).toList());
+        assertEquals(255000.0, groups.get(0).get(total));
+        assertEquals(2L, groups.get(1).get(headcount));
+
+        Aggregate<Order, Integer> quantity = OrderQuery.quantity();
+        Map<String, Integer> topProduct = OrderQuery.from(orders)
+                .groupBy(Order::getProduct)
+                .aggregate(quantity)
+                .orderBy(Comparator.comparing((GroupQuery.Group<String> group) -> group.get(quantity)).reversed())
+                .limit(1)
+                .toMap(quantity);
+        assertEquals(Map.of("Mouse", 5), topProduct);
+
+        Map<YearMonth, Double> monthly = OrderQuery.from(orders).groupBy(OrderQuery.yearMonth()).toMap(OrderQuery.amount());
+        assertEquals(2250.0, monthly.get(YearMonth.of(2024, 1)));
+    }
+
+    @Test
+    void toMapDoesNotAddColumnsToTheQuery() {
+        Aggregate<Order, Integer> quantity = OrderQuery.quantity();
+        GroupQuery<Order, String> byProduct = OrderQuery.from(orders)
+                .groupBy(Order::getProduct)
+                .aggregate(quantity)
+                .orderBy(Comparator.comparing((GroupQuery.Group<String> group) -> group.get(quantity)).reversed());
+        Map<String, Double> first = byProduct.toMap(OrderQuery.amount());
+        Map<String, Double> second = byProduct.toMap(OrderQuery.amount());
+        assertEquals(first, second);
+        assertEquals(List.copyOf(first.keySet()), byProduct.keys());
+        // 呼んだ後も list() の列は aggregate で指定した1つだけ
+        for (GroupQuery.Group<String> group : byProduct.list()) {
+            assertEquals("{" + quantity.name() + "=" + group.get(quantity) + "}", group.values().toString());
+        }
+    }
+
+    @Test
+    void wrappersMatchHandWrittenPipelinesInParallel() {
+        List<Employee> large = new SyntheticData(15).employees(100_000).toList();
+        List<Employee> expectedTop = new ArrayList<>(large);
+        expectedTop.sort(Comparator.comparingDouble(Employee::getSalary).reversed());
+        Map<String, Double> expectedAverage = large.stream().collect(Collectors.groupingBy(Employee::getDepartment,
+                Collectors.averagingDouble(Employee::getSalary)));
+        for (ExecutionPolicy policy : ExecutionPolicy.values()) {
+            assertEquals(expectedTop.subList(0, 50),
+                    EmployeeQuery.from(large, policy).orderBy(EmployeeQuery.bySalaryDescending()).limit(50).list());
+            assertEquals(expectedAverage, EmployeeQuery.from(large, policy).groupBy(Employee::getDepartment)
+                    .toMap(EmployeeQuery.averageSalary()));
+            assertEquals(large.stream().filter(e -> e.getAge() > 50).toList(),
+                    EmployeeQuery.from(large, policy).where(EmployeeQuery.olderThan(50)).list());
+        }
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).toList();
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowSalesTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:30Z");
+
+    @Test
+    void answersEachWindowFromMatchingResolution() {
+        SlidingWindowSales sales = new SlidingWindowSales(Clock.fixed(NOW, ZoneOffset.UTC));
+        sales.add(order(1L, "Laptop", 100), NOW.minus(Duration.ofMinutes(5)));
+        sales.add(order(2L, "Mouse", 20), NOW.minus(Duration.ofMinutes(30)));
+        sales.add(order(1L, "Mouse", 3), NOW.minus(Duration.ofHours(5)));
+        sales.add(order(3L, "Laptop", 4000), NOW.minus(Duration.ofDays(3)));
+        // 最も長いリング（31日）より古いので数えない
+        sales.add(order(3L, "Laptop", 50000), NOW.minus(Duration.ofDays(40)));
+
+        assertEquals(100.0, sales.total(Duration.ofMinutes(15)));
+        assertEquals(1, sales.orderCount(Duration.ofMinutes(15)));
+        assertEquals(120.0, sales.total(Duration.ofHours(1)));
+        assertEquals(123.0, sales.total(Duration.ofHours(24)));
+        assertEquals(4123.0, sales.total(Duration.ofDays(30)));
+        assertEquals(4, sales.orderCount(Duration.ofDays(30)));
+
+        assertEquals(Map.of(1L, 103.0, 2L, 20.0), sales.totalOrderAmountByEmployee(Duration.ofHours(24)));
+        assertEquals(Map.of("Laptop", 4100.0, "Mouse", 23.0), sales.totalOrderAmountByProduct(Duration.ofDays(30)));
+
+        assertEquals(Duration.ofDays(31), sales.maxWindow());
+        assertThrows(IllegalArgumentException.class, () -> sales.total(Duration.ofDays(32)));
+        assertThrows(IllegalArgumentException.class, () -> sales.total(Duration.ZERO));
+    }
+
+    @Test
+    void bucketsExpireAsClockAdvances() {
+        MutableClock clock = new MutableClock(NOW);
+        SlidingWindowSales sales = new SlidingWindowSales(clock, Duration.ofMinutes(1), 10);
+        sales.add(order(1L, "Laptop", 100));
+        clock.advance(Duration.ofMinutes(4));
+        sales.add(order(2L, "Mouse", 20));
+
+        assertEquals(120.0, sales.total(Duration.ofMinutes(10)));
+        // 窓は現在のバケットを含めて数えるので、4分前のバケットは 5分窓に入り 4分窓には入らない
+        assertEquals(120.0, sales.total(Duration.ofMinutes(5)));
+        assertEquals(20.0, sales.total(Duration.ofMinutes(4)));
+
+        // 同じスロットを使う 10分後のバケットに入れ替わる
+        clock.advance(Duration.ofMinutes(6));
+        sales.add(order(3L, "Keyboard", 7));
+        assertEquals(27.0, sales.total(Duration.ofMinutes(10)));
+        assertEquals(Map.of(2L, 20.0, 3L, 7.0), sales.totalOrderAmountByEmployee(Duration.ofMinutes(10)));
+
+        // リングより古い注文は捨てる
+        sales.add(order(4L, "Laptop", 999), NOW);
+        assertEquals(27.0, sales.total(Duration.ofMinutes(10)));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowSales(clock, Duration.ZERO, 10));
+    }
+
+    @Test
+    void virtualThreadProducersDoNotLoseUpdatesWhileQueried() throws Exception {
+        SlidingWindowSales sales = new SlidingWindowSales(Clock.fixed(NOW, ZoneOffset.UTC));
+        int producerCount = 200;
+        int ordersPerProducer = 2_000;
+        List<List<Order>> producers = new ArrayList<>();
+        Map<Long, Double> expectedByEmployee = new HashMap<>();
+        Map<String, Double> expectedByProduct = new HashMap<>();
+        double expectedTotal = 0;
+        for (int p = 0; p < producerCount; p++) {
+            List<Order> batch = new ArrayList<>(ordersPerProducer);
+            for (int i = 0; i < ordersPerProducer; i++) {
+                Order order = order((long) (i % 37), "P" + ((p + i) % 11), (p * 7 + i) % 50 + 1);
+                batch.add(order);
+                double amount = order.getPrice() * order.getQuantity();
+                expectedByEmployee.merge(order.getEmployeeId(), amount, Double::sum);
+                expectedByProduct.merge(order.getProduct(), amount, Double::sum);
+                expectedTotal += amount;
+            }
+            producers.add(batch);
+        }
+
+        // 取り込み中も問い合わせ続け、件数が減らないこと（問い合わせが取り込みを止めないこと）を確かめる
+        // 読み手は回りっぱなしなので、キャリアスレッドを占有しないようにプラットフォームスレッドで動かす
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> readerFailure = new AtomicReference<>();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            long previous = 0;
+            try {
+                while (!done.get()) {
+                    long count = sales.orderCount(Duration.ofMinutes(15));
+                    assertTrue(count >= previous, count + " < " + previous);
+                    previous = count;
+                    sales.totalOrderAmountByProduct(Duration.ofHours(24));
+                }
+            } catch (Throwable e) {
+                readerFailure.set(e);
+            }
+        });
+        sales.ingestOnVirtualThreads(producers);
+        done.set(true);
+        reader.join();
+        assertNull(readerFailure.get());
+
+        long expectedCount = (long) producerCount * ordersPerProducer;
+        for (Duration window : List.of(Duration.ofMinutes(15), Duration.ofHours(24), Duration.ofDays(30))) {
+            assertEquals(expectedCount, sales.orderCount(window));
+            // 金額はすべて整数なので加算順によらず一致する
+            assertEquals(expectedTotal, sales.total(window));
+            assertEquals(expectedByEmployee, sales.totalOrderAmountByEmployee(window));
+            assertEquals(expectedByProduct, sales.totalOrderAmountByProduct(window));
+        }
+    }
+
+    @Test
+    void concurrentRotationKeepsOnlyRecentBuckets() throws Exception {
+        MutableClock clock = new MutableClock(NOW);
+        SlidingWindowSales sales = new SlidingWindowSales(clock, Duration.ofSeconds(1), 4);
+        // 各プロデューサーが 0〜19 秒後の注文を順に入れ、同じスロットの入れ替えを奪い合わせる
+        List<List<Order>> producers = new ArrayList<>();
+        for (int p = 0; p < 64; p++) {
+            List<Order> batch = new ArrayList<>();
+            for (int second = 0; second < 20; second++) {
+                batch.add(order((long) second, "P", 1));
+            }
+            producers.add(batch);
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (List<Order> batch : producers) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (Order order : batch) {
+                    sales.add(order, NOW.plusSeconds(order.getEmployeeId()));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        clock.advance(Duration.ofSeconds(19));
+        // 残るのは最後の 4 秒分（16〜19秒）だけ
+        assertEquals(Map.of(16L, 64.0, 17L, 64.0, 18L, 64.0, 19L, 64.0),
+                sales.totalOrderAmountByEmployee(Duration.ofSeconds(4)));
+    }
+
+    private static Order order(Long employeeId, String product, int amount) {
+        Order order = new Order();
+        order.setEmployeeId(employeeId);
+        order.setProduct(product);
+        order.setQuantity(1);
+        order.setPrice(amount);
+        order.setOrderDate(LocalDate.of(2024, 6, 1));
+        return order;
+    }
+
+    private static final class MutableClock extends Clock {
+        private final AtomicReference<Instant> now;
+
+        MutableClock(Instant now) {
+            this.now = new AtomicReference<>(now);
+        }
+
+        void advance(Duration duration) {
+            now.updateAndGet(instant -> instant.plus(duration));
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    }
+}
@@ -122,4 +122,34 @@ class StreamKnockout01Test {
         assertTrue(result.contains("HR")); // 100000
         assertFalse(result.contains("Sales")); // 99000
     }
+
+    @Test
+    void parallelMatchesSequentialOnLargeInput() {
+        // 給与は 0.01 単位（整数ではないので、合計の足し合わせ方が違えば末尾の桁がずれる）
+        List<Employee> large = new SyntheticData(1).fractionalAmounts(true).employees(200_000).toList();
+        StreamKnockout01 parallel = new StreamKnockout01(ExecutionPolicy.PARALLEL);
+        StreamKnockout01 auto = new StreamKnockout01(ExecutionPolicy.AUTO);
+
+        assertEquals(knockout.findEmployeesOver30(large), parallel.findEmployeesOver30(large));
+        assertEquals(knockout.getAllNames(large), parallel.getAllNames(large));
+        assertEquals(knockout.countEngineeringEmployees(large), parallel.countEngineeringEmployees(large));
+        assertEquals(knockout.groupByDepartment(large), parallel.groupByDepartment(large));
+        assertEquals(knockout.joinHighEarnerNames(large), parallel.joinHighEarnerNames(large));
+        assertEquals(knockout.averageSalaryByDepartment(large), parallel.averageSalaryByDepartment(large));
+        assertEquals(knockout.findHighestPaidEmployee(large), parallel.findHighestPaidEmployee(large));
+        assertEquals(knockout.findTopEarnerPerDepartment(large), parallel.findTopEarnerPerDepartment(large));
+        assertEquals(knockout.findTop3HighestPaid(large), parallel.findTop3HighestPaid(large));
+        assertEquals(knockout.findTop3HighestPaid(large), auto.findTop3HighestPaid(large));
+        assertEquals(knockout.findDepartmentsWithHighTotalSalary(large), parallel.findDepartmentsWithHighTotalSalary(large));
+    }
+
+    @Test
+    void autoPolicyUsesInputSizeAndCores() {
+        assertFalse(ExecutionPolicy.AUTO.isParallel(employees.size()));
+        assertEquals(Integer.MAX_VALUE, ExecutionPolicy.autoThreshold(1));
+        assertEquals(ExecutionPolicy.MIN_PARALLEL_SIZE, ExecutionPolicy.autoThreshold(2));
+        assertEquals(64 * ExecutionPolicy.MIN_ELEMENTS_PER_CORE, ExecutionPolicy.autoThreshold(64));
+        assertFalse(ExecutionPolicy.SEQUENTIAL.isParallel(Integer.MAX_VALUE));
+        assertTrue(ExecutionPolicy.PARALLEL.isParallel(0));
+    }
 }
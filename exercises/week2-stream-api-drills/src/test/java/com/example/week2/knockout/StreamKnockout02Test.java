@@ -103,6 +103,22 @@ class StreamKnockout02Test {
         assertEquals(2L, result.get("40代")); // Charlie(42), Grace(45)
     }
 
+    @Test
+    void problem19_countByAgeGroupWithNegativeAndHugeAges() {
+        // ラベルは (age / 10 * 10) + "代" と同じ（-15 は -10代、-5 は 0代）
+        List<Employee> unusual = List.of(
+                new Employee(1L, "Minus", "Engineering", -15, 1000.0),
+                new Employee(2L, "Zero", "Engineering", -5, 1000.0),
+                new Employee(3L, "Baby", "Engineering", 3, 1000.0),
+                new Employee(4L, "Huge", "Sales", 2_000_000_000, 1000.0),
+                new Employee(5L, "Min", "Sales", Integer.MIN_VALUE, 1000.0),
+                new Employee(6L, "Normal", "Sales", 28, 1000.0));
+        Map<String, Long> expected = Map.of("-10代", 1L, "0代", 2L, "2000000000代", 1L,
+                (Integer.MIN_VALUE / 10 * 10) + "代", 1L, "20代", 1L);
+        assertEquals(expected, knockout.countByAgeGroup(unusual));
+        assertEquals(expected, new StreamKnockout02(ExecutionPolicy.PARALLEL).countByAgeGroup(unusual));
+    }
+
     @Test
     void problem20_findEmployeesInMultipleProjects() {
         List<Project> projects = List.of(
@@ -115,4 +131,26 @@ class StreamKnockout02Test {
         assertTrue(result.stream().anyMatch(e -> e.getName().equals("Charlie")));
         assertTrue(result.stream().anyMatch(e -> e.getName().equals("Eve")));
     }
+
+    @Test
+    void parallelMatchesSequentialOnLargeInput() {
+        SyntheticData data = new SyntheticData(2).fractionalAmounts(true).membersPerProject(50, 0.5);
+        List<Employee> large = data.employees(200_000).toList();
+        List<Project> projects = data.projects(3, large.size()).toList();
+        StreamKnockout02 parallel = new StreamKnockout02(ExecutionPolicy.PARALLEL);
+
+        assertEquals(knockout.calculateTotalSalary(large), parallel.calculateTotalSalary(large));
+        assertEquals(knockout.maxSalaryByDepartment(large), parallel.maxSalaryByDepartment(large));
+        assertEquals(knockout.findEmployeesWithNameContaining(large, "99"),
+                parallel.findEmployeesWithNameContaining(large, "99"));
+        assertEquals(knockout.sortEmployeesByAge(large), parallel.sortEmployeesByAge(large));
+        assertEquals(knockout.employeeNamesByDepartment(large), parallel.employeeNamesByDepartment(large));
+        assertEquals(knockout.averageAgeOfProjectMembers(large, projects.get(0)),
+                parallel.averageAgeOfProjectMembers(large, projects.get(0)));
+        assertEquals(knockout.calculateMedianSalary(large), parallel.calculateMedianSalary(large));
+        assertEquals(knockout.salaryRangeByDepartment(large), parallel.salaryRangeByDepartment(large));
+        assertEquals(knockout.countByAgeGroup(large), parallel.countByAgeGroup(large));
+        assertEquals(knockout.findEmployeesInMultipleProjects(large, projects),
+                parallel.findEmployeesInMultipleProjects(large, projects));
+    }
 }
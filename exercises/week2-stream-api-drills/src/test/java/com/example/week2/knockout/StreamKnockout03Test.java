@@ -6,6 +6,10 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.*;
 
 class StreamKnockout03Test {
@@ -80,6 +84,16 @@ class StreamKnockout03Test {
         assertEquals("Alice", result.get().getName()); // 3250.0
     }
 
+    @Test
+    void problem25_findTopSalesEmployeeIsEmptyWhenTopSellerIsUnknown() {
+        // 売上が最大の従業員ID 99 は従業員リストにいない。2番目の Alice を返さない
+        List<Order> withUnknown = new ArrayList<>(orders);
+        withUnknown.add(new Order(99L, 99L, "Server", 1, 10_000.0, LocalDate.of(2024, 4, 2)));
+        assertTrue(knockout.findTopSalesEmployee(employees, withUnknown).isEmpty());
+        assertTrue(new StreamKnockout03(ExecutionPolicy.PARALLEL).findTopSalesEmployee(employees, withUnknown).isEmpty());
+        assertTrue(knockout.findTopSalesEmployee(employees, List.of()).isEmpty());
+    }
+
     @Test
     void problem26_top3ProductsByDepartment() {
         Map<String, List<String>> result = knockout.top3ProductsByDepartment(employees, orders);
@@ -129,4 +143,38 @@ class StreamKnockout03Test {
         assertEquals("Bob", result.get(1).getName()); // 1300.0
         // Charlie and Dave both have 500.0, order might vary
     }
+
+    @Test
+    void parallelMatchesSequentialOnLargeInput() {
+        // 単価は 0.01 単位（整数ではないので、合計の足し合わせ方が違えば末尾の桁がずれる）
+        SyntheticData data = new SyntheticData(3).fractionalAmounts(true);
+        List<Employee> largeEmployees = data.employees(20_000).toList();
+        List<Order> largeOrders = data.orders(200_000, largeEmployees.size()).toList();
+        StreamKnockout03 parallel = new StreamKnockout03(ExecutionPolicy.PARALLEL);
+        LocalDate start = LocalDate.of(2023, 3, 1);
+        LocalDate end = LocalDate.of(2023, 6, 30);
+
+        assertEquals(knockout.calculateTotalOrderAmount(largeOrders), parallel.calculateTotalOrderAmount(largeOrders));
+        assertEquals(knockout.totalOrderAmountByEmployee(largeOrders), parallel.totalOrderAmountByEmployee(largeOrders));
+        assertEquals(knockout.findOrdersBetweenDates(largeOrders, start, end),
+                parallel.findOrdersBetweenDates(largeOrders, start, end));
+        assertEquals(knockout.totalQuantityByProduct(largeOrders), parallel.totalQuantityByProduct(largeOrders));
+        assertEquals(knockout.findTopSalesEmployee(largeEmployees, largeOrders),
+                parallel.findTopSalesEmployee(largeEmployees, largeOrders));
+        assertEquals(knockout.top3ProductsByDepartment(largeEmployees, largeOrders),
+                parallel.top3ProductsByDepartment(largeEmployees, largeOrders));
+        assertEquals(knockout.monthlySales(largeOrders), parallel.monthlySales(largeOrders));
+        assertEquals(knockout.findAboveAverageSalesEmployees(largeEmployees, largeOrders),
+                parallel.findAboveAverageSalesEmployees(largeEmployees, largeOrders));
+        // 同数の日のどれを返すかは決めていないので、最多の日のどれかであればよい
+        assertTrue(busiestDates(largeOrders).contains(parallel.findBusiestOrderDate(largeOrders).orElseThrow()));
+        assertEquals(knockout.createSalesRanking(largeEmployees, largeOrders),
+                parallel.createSalesRanking(largeEmployees, largeOrders));
+    }
+
+    static Set<LocalDate> busiestDates(List<Order> orders) {
+        Map<LocalDate, Long> counts = orders.stream().collect(Collectors.groupingBy(Order::getOrderDate, Collectors.counting()));
+        long max = Collections.max(counts.values());
+        return counts.entrySet().stream().filter(e -> e.getValue() == max).map(Map.Entry::getKey).collect(Collectors.toSet());
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringDictionaryTest {
+
+    private StringDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new StringDictionary();
+    }
+
+    @Test
+    void encodesInFirstSeenOrder() {
+        assertEquals(0, dictionary.encode("Engineering"));
+        assertEquals(1, dictionary.encode("Sales"));
+        assertEquals(0, dictionary.encode("Engineering"));
+        assertEquals(2, dictionary.size());
+        assertEquals("Sales", dictionary.label(1));
+        assertEquals(1, dictionary.code("Sales"));
+        assertEquals(-1, dictionary.code("HR"));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.label(2));
+        assertThrows(NullPointerException.class, () -> dictionary.encode(null));
+    }
+
+    @Test
+    void growsAndResolvesLabelsOnlyInResultMap() {
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, dictionary.encode("Product" + i));
+        }
+        long[] counts = new long[dictionary.size()];
+        for (String product : List.of("Product3", "Product999", "Product3")) {
+            counts[dictionary.code(product)]++;
+        }
+        Map<String, Long> result = dictionary.toMap(code -> counts[code]);
+        assertEquals(1_000, result.size());
+        assertEquals(2L, result.get("Product3"));
+        assertEquals(1L, result.get("Product999"));
+        assertEquals(0L, result.get("Product0"));
+    }
+
+    @Test
+    void tablesGroupByCode() {
+        List<Order> orders = new SyntheticData(3).orders(50_000, 200).toList();
+        StreamKnockout03 knockout = new StreamKnockout03();
+        OrderTable table = OrderTable.from(orders);
+        assertEquals(knockout.totalQuantityByProduct(orders), table.totalQuantityByProduct());
+        assertEquals(-1, table.productCode("NoSuchProduct"));
+        Map<String, Money> amountByProduct = table.totalOrderAmountByProduct();
+        assertEquals(table.totalOrderAmount(), amountByProduct.values().stream().reduce(Money.ZERO, Money::plus));
+
+        List<Employee> employees = new SyntheticData(4).employees(10_000).toList();
+        assertEquals(new StreamKnockout02().countByAgeGroup(employees), EmployeeTable.from(employees).countByAgeGroup());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sameSeedGivesSameDataSequentialOrParallel() {
+        List<Order> orders = new SyntheticData(42).orders(50_000, 1_000).toList();
+        assertEquals(orders, new SyntheticData(42).orders(50_000, 1_000).toList());
+        assertEquals(orders, new SyntheticData(42).orders(50_000, 1_000).parallel().toList());
+        // 前の要素に依存しないので、途中から作っても同じ
+        assertEquals(orders.subList(40_000, 50_000), new SyntheticData(42).orders(50_000, 1_000).skip(40_000).toList());
+        assertNotEquals(orders, new SyntheticData(43).orders(50_000, 1_000).toList());
+
+        List<Employee> employees = new SyntheticData(42).employees(10_000).toList();
+        assertEquals(employees, new SyntheticData(42).employees(10_000).parallel().toList());
+        assertEquals(new SyntheticData(42).projects(100, 10_000).toList(),
+                new SyntheticData(42).projects(100, 10_000).parallel().toList());
+    }
+
+    @Test
+    void valuesStayInRange() {
+        SyntheticData data = new SyntheticData(7).departments("A", "B").productCount(500);
+        for (Employee e : data.employees(5_000).toList()) {
+            assertTrue(Set.of("A", "B").contains(e.getDepartment()));
+            assertTrue(e.getAge() >= 22 && e.getAge() <= 65, e.toString());
+            assertEquals(Math.rint(e.getSalary()), e.getSalary());
+        }
+        for (Order o : data.orders(20_000, 300).toList()) {
+            assertTrue(o.getEmployeeId() >= 1 && o.getEmployeeId() <= 300);
+            assertTrue(o.getQuantity() >= 1 && o.getPrice() >= 1);
+            assertEquals(Math.rint(o.getPrice()), o.getPrice());
+            assertFalse(o.getOrderDate().isBefore(LocalDate.of(2023, 1, 1)));
+            assertTrue(o.getOrderDate().isBefore(LocalDate.of(2025, 1, 1)));
+        }
+
+        SyntheticData fractional = new SyntheticData(7).fractionalAmounts(true);
+        List<Order> orders = fractional.orders(20_000, 300).toList();
+        assertTrue(orders.stream().allMatch(o -> o.getPrice() >= 0.01 && Math.round(o.getPrice() * 100) / 100.0 == o.getPrice()));
+        assertTrue(orders.stream().anyMatch(o -> Math.rint(o.getPrice()) != o.getPrice()));
+        assertTrue(fractional.employees(5_000).anyMatch(e -> Math.rint(e.getSalary()) != e.getSalary()));
+        assertThrows(IllegalArgumentException.class, () -> data.seasonality(1.0));
+        assertThrows(IllegalArgumentException.class, () -> data.productSkew(-1));
+    }
+
+    @Test
+    void productsAreSkewedAndDatesSeasonal() {
+        List<Order> skewed = new SyntheticData(1).productSkew(1.2).seasonality(0.6).orders(200_000, 1_000).toList();
+        Map<String, Long> byProduct = skewed.stream().collect(Collectors.groupingBy(Order::getProduct, Collectors.counting()));
+        assertTrue(byProduct.get("Laptop") > 10 * byProduct.get("Lamp"), byProduct.toString());
+
+        Map<Month, Long> byMonth = skewed.stream().collect(Collectors.groupingBy(o -> o.getOrderDate().getMonth(),
+                Collectors.counting()));
+        assertTrue(byMonth.get(Month.DECEMBER) > 2 * byMonth.get(Month.JUNE), byMonth.toString());
+
+        List<Order> uniform = new SyntheticData(1).productSkew(0).seasonality(0).orders(200_000, 1_000).toList();
+        Map<String, Long> flat = uniform.stream().collect(Collectors.groupingBy(Order::getProduct, Collectors.counting()));
+        for (long count : flat.values()) {
+            assertEquals(200_000 / 16.0, count, 200_000 / 16.0 * 0.1);
+        }
+    }
+
+    @Test
+    void neighbouringProjectsShareMembers() {
+        List<Project> projects = new SyntheticData(5).membersPerProject(30, 0.1).projects(200, 5_000).toList();
+        int overlapping = 0;
+        for (int i = 0; i < projects.size(); i++) {
+            List<Long> members = projects.get(i).getMemberIds();
+            assertEquals(30, members.size());
+            assertEquals(30, new HashSet<>(members).size());
+            members.forEach(id -> assertTrue(id >= 1 && id <= 5_000));
+            if (i > 0) {
+                Set<Long> shared = new HashSet<>(members);
+                shared.retainAll(projects.get(i - 1).getMemberIds());
+                overlapping += shared.isEmpty() ? 0 : 1;
+            }
+        }
+        assertTrue(overlapping > 150, "overlapping=" + overlapping);
+    }
+
+    @Test
+    void writesCsvAndBinaryFormsThatReadBackIdentically() throws IOException {
+        SyntheticData data = new SyntheticData(9);
+        Path employeesCsv = tempDir.resolve("employees.csv");
+        Path ordersCsv = tempDir.resolve("orders.csv");
+        Path projectsCsv = tempDir.resolve("projects.csv");
+        Path log = tempDir.resolve("orders.bin");
+        data.writeEmployeesCsv(employeesCsv, 2_000);
+        data.writeOrdersCsv(ordersCsv, 10_000, 2_000);
+        data.writeProjectsCsv(projectsCsv, 50, 2_000);
+        assertEquals(10_000, data.writeOrderLog(log, 10_000, 2_000));
+
+        try (Stream<Employee> employees = KnockoutCsv.employees(employeesCsv, ExecutionPolicy.SEQUENTIAL);
+                Stream<Order> orders = KnockoutCsv.orders(ordersCsv, ExecutionPolicy.SEQUENTIAL);
+                Stream<Project> projects = KnockoutCsv.projects(projectsCsv, ExecutionPolicy.SEQUENTIAL)) {
+            assertEquals(data.employees(2_000).toList(), employees.toList());
+            assertEquals(data.orders(10_000, 2_000).toList(), orders.toList());
+            assertEquals(data.projects(50, 2_000).toList(), projects.toList());
+        }
+        try (OrderLog orderLog = OrderLog.open(log);
+                OrderSegmentStore store = data.orderSegmentStore(10_000, 2_000)) {
+            assertEquals(data.orders(10_000, 2_000).toList(),
+                    orderLog.stream(ExecutionPolicy.SEQUENTIAL).map(OrderRecord::toOrder).toList());
+            assertEquals(orderLog.monthlySales(ExecutionPolicy.SEQUENTIAL), store.monthlySales(ExecutionPolicy.SEQUENTIAL));
+        }
+        assertEquals(2_000, data.employeeTable(2_000).size());
+    }
+
+    @Test
+    void fractionalAmountsReadBackFromCsv() throws IOException {
+        SyntheticData data = new SyntheticData(9).fractionalAmounts(true);
+        Path employeesCsv = tempDir.resolve("employees.csv");
+        Path ordersCsv = tempDir.resolve("orders.csv");
+        data.writeEmployeesCsv(employeesCsv, 1_000);
+        data.writeOrdersCsv(ordersCsv, 5_000, 1_000);
+        try (Stream<Employee> employees = KnockoutCsv.employees(employeesCsv, ExecutionPolicy.SEQUENTIAL);
+                Stream<Order> orders = KnockoutCsv.orders(ordersCsv, ExecutionPolicy.SEQUENTIAL)) {
+            assertEquals(data.employees(1_000).toList(), employees.toList());
+            assertEquals(data.orders(5_000, 1_000).toList(), orders.toList());
+        }
+    }
+}
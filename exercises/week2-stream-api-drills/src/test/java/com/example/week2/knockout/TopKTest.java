@@ -0,0 +1,90 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    private final Comparator<Employee> bySalary = Comparator.comparingDouble(Employee::getSalary);
+
+    private final List<Employee> employees = List.of(
+            new Employee(1L, "Alice", "Engineering", 28, 55000.0),
+            new Employee(2L, "Bob", "Sales", 35, 48000.0),
+            new Employee(3L, "Charlie", "Engineering", 42, 75000.0),
+            new Employee(4L, "Dave", "HR", 29, 55000.0),
+            new Employee(5L, "Eve", "Engineering", 31, 62000.0));
+
+    @Test
+    void keepsLargestInDescendingOrder() {
+        List<Employee> top = employees.stream().collect(TopK.topK(3, bySalary));
+        assertEquals(List.of("Charlie", "Eve", "Alice"), top.stream().map(Employee::getName).toList());
+    }
+
+    @Test
+    void tiesKeepEncounterOrderByDefault() {
+        List<Employee> top = employees.stream().collect(TopK.topK(4, bySalary));
+        assertEquals(List.of("Charlie", "Eve", "Alice", "Dave"), top.stream().map(Employee::getName).toList());
+    }
+
+    @Test
+    void customTieBreaker() {
+        // 同額なら年齢の高い方を上位にする
+        List<Employee> top = employees.stream()
+                .collect(TopK.topK(3, bySalary, Comparator.comparingInt(Employee::getAge)));
+        assertEquals(List.of("Charlie", "Eve", "Dave"), top.stream().map(Employee::getName).toList());
+    }
+
+    @Test
+    void edgeCases() {
+        assertTrue(employees.stream().collect(TopK.topK(0, bySalary)).isEmpty());
+        assertEquals(5, employees.stream().collect(TopK.topK(10, bySalary)).size());
+        assertTrue(Stream.<Employee>empty().collect(TopK.topK(3, bySalary)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> TopK.topK(-1, bySalary));
+    }
+
+    @Test
+    void matchesSortedLimitSequentialAndParallel() {
+        Random random = new Random(11);
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            values.add(random.nextInt(1000));
+        }
+        // Integer は同値でも別インスタンスなので、同順位の並びまで一致するかを参照で確認する
+        Comparator<Integer> natural = Comparator.naturalOrder();
+        for (int k : new int[] { 1, 3, 10, 500 }) {
+            List<Integer> expected = values.stream().sorted(natural.reversed()).limit(k).toList();
+            List<Integer> sequential = values.stream().collect(TopK.topK(k, natural));
+            List<Integer> parallel = values.parallelStream().collect(TopK.topK(k, natural));
+            assertEquals(expected, sequential);
+            assertEquals(expected, parallel);
+            for (int i = 0; i < k; i++) {
+                assertSame(expected.get(i), sequential.get(i));
+                assertSame(expected.get(i), parallel.get(i));
+            }
+        }
+    }
+
+    @Test
+    void topKPerGroup() {
+        Map<String, List<Employee>> top = employees.stream()
+                .collect(TopK.topKPerGroup(Employee::getDepartment, 2, bySalary));
+        assertEquals(List.of("Charlie", "Eve"), top.get("Engineering").stream().map(Employee::getName).toList());
+        assertEquals(List.of("Dave"), top.get("HR").stream().map(Employee::getName).toList());
+        assertEquals(Map.of("Engineering", 2, "HR", 1, "Sales", 1), top.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().size())));
+    }
+
+    @Test
+    void findTopKHighestPaid() {
+        StreamKnockout01 knockout = new StreamKnockout01();
+        assertEquals(List.of("Charlie", "Eve"),
+                knockout.findTopKHighestPaid(employees, 2).stream().map(Employee::getName).toList());
+    }
+}
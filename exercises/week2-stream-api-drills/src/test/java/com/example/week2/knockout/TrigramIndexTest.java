@@ -0,0 +1,104 @@
+package com.example.week2.knockout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private final StreamKnockout02 knockout = new StreamKnockout02();
+    private List<Employee> employees;
+
+    @BeforeEach
+    void setUp() {
+        employees = List.of(
+                new Employee(1L, "Alice", "Engineering", 28, 75000),
+                new Employee(2L, "Bob", "Sales", 35, 65000),
+                new Employee(3L, "Charlie", "Engineering", 42, 95000),
+                new Employee(4L, "Diana", "HR", 29, 55000),
+                new Employee(5L, "Eve", "Engineering", 31, 85000),
+                new Employee(6L, "ALIcia", "Sales", 45, 70000));
+    }
+
+    @Test
+    void searchIsCaseInsensitive() {
+        TrigramIndex<Employee> index = knockout.nameIndex(employees);
+        assertEquals(List.of(1L, 6L), ids(index.search("ali")));
+        assertEquals(List.of(1L, 6L), ids(index.search("ALIC")));
+        assertEquals(List.of(3L), ids(index.search("arl")));
+        assertEquals(List.of(1L, 3L, 6L), ids(index.search("li")));
+        assertEquals(6, index.search("").size());
+        assertTrue(index.search("xyz").isEmpty());
+        // 3-gram はそろっているが並びが違う
+        assertTrue(index.search("icali").isEmpty());
+    }
+
+    @Test
+    void addAndRemoveAreReflectedImmediately() {
+        TrigramIndex<Employee> index = new TrigramIndex<>(Employee::getName);
+        Employee alice = employees.get(0);
+        index.add(alice);
+        index.add(employees.get(5));
+        assertEquals(2, index.search("alic").size());
+
+        assertTrue(index.remove(alice));
+        assertFalse(index.remove(alice));
+        assertEquals(List.of(6L), ids(index.search("alic")));
+        assertEquals(1, index.size());
+
+        index.add(alice);
+        assertEquals(List.of(6L, 1L), ids(index.search("alic")));
+    }
+
+    @Test
+    void worksForDayUsers() {
+        TrigramIndex<com.example.week2.day1.User> day1 = TrigramIndex.of(List.of(
+                new com.example.week2.day1.User(1L, "Taro Yamada", 20, "Sales"),
+                new com.example.week2.day1.User(2L, "Hanako", 30, "HR")), com.example.week2.day1.User::getName);
+        assertEquals(1L, day1.search("YAMA").get(0).getId());
+
+        TrigramIndex<com.example.week2.day3.User> day3 = TrigramIndex.of(List.of(
+                new com.example.week2.day3.User(1L, "Jiro", 17, "Engineering")), com.example.week2.day3.User::getName);
+        assertEquals(1, day3.search("jir").size());
+
+        TrigramIndex<com.example.week2.day4.User> day4 = TrigramIndex.of(List.of(
+                new com.example.week2.day4.User(1L, "Saburo", 40, "Sales")), com.example.week2.day4.User::getName);
+        assertTrue(day4.search("ro").size() == 1 && day4.search("rob").isEmpty());
+    }
+
+    @Test
+    void matchesLinearScanUnderChurn() {
+        Random random = new Random(14);
+        String alphabet = "abcdeABCDE";
+        List<Employee> live = new ArrayList<>();
+        TrigramIndex<Employee> index = new TrigramIndex<>(Employee::getName);
+        for (long id = 1; id <= 20_000; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 3 + random.nextInt(8); i > 0; i--) {
+                name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            Employee employee = new Employee(id, name.toString(), "D", 30, 1000);
+            live.add(employee);
+            index.add(employee);
+            // 半分以上を削除して詰め直しも通す
+            if (random.nextInt(3) != 0) {
+                Employee victim = live.remove(random.nextInt(live.size()));
+                assertTrue(index.remove(victim));
+            }
+        }
+        assertEquals(live.size(), index.size());
+        for (String keyword : List.of("a", "Ab", "abc", "DEa", "eeee", "cadb", "ABCDE")) {
+            List<Employee> expected = knockout.findEmployeesWithNameContaining(live, keyword);
+            List<Employee> actual = new ArrayList<>(index.search(keyword));
+            // 索引は追加順、live は削除で並びが変わらないので同じ順序
+            assertEquals(expected, actual, keyword);
+        }
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).toList();
+    }
+}